@@ -0,0 +1,62 @@
+package com.pavan.csse.backend.benchmark;
+
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.model.UserRole;
+import com.pavan.csse.backend.util.JwtClaimsCache;
+import com.pavan.csse.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of authenticating a bearer token through the
+ * plain {@link JwtUtil} path (extractUsername + validateToken, three parses)
+ * with the {@link JwtClaimsCache} path used by the filter (one cache lookup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtClaimsCacheBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtClaimsCache claimsCache;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtil = new JwtUtil();
+        setField(jwtUtil, "secret", "benchmarkSecretKey123456789012345678901234567890");
+        setField(jwtUtil, "expiration", 3600000L);
+
+        claimsCache = new JwtClaimsCache();
+        setField(claimsCache, "jwtUtil", jwtUtil);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("doctor1");
+        user.setRole(UserRole.DOCTOR);
+        user.setIsActive(true);
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean jwtUtilPath() {
+        String username = jwtUtil.extractUsername(token);
+        return username != null && jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public boolean claimsCachePath() {
+        Claims claims = claimsCache.getClaims(token);
+        return claims.getSubject() != null && jwtUtil.validateClaims(claims, user);
+    }
+
+    static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,94 @@
+package com.pavan.csse.backend.benchmark;
+
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.model.UserRole;
+import com.pavan.csse.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.pavan.csse.backend.benchmark.JwtClaimsCacheBenchmark.setField;
+
+/**
+ * Tokens signed and verified per second with a key and parser rebuilt on every
+ * call (the previous JwtUtil behaviour) versus the precomputed ones in {@link JwtUtil}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtSigningBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey123456789012345678901234567890";
+    private static final String KEY_ID = "primary";
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtil = new JwtUtil();
+        setField(jwtUtil, "secret", SECRET);
+        setField(jwtUtil, "keyId", KEY_ID);
+        setField(jwtUtil, "expiration", 3600000L);
+        jwtUtil.init();
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("doctor1");
+        user.setRole(UserRole.DOCTOR);
+        user.setIsActive(true);
+        token = jwtUtil.generateToken(user);
+    }
+
+    // The token JwtUtil.generateToken builds, so only the key construction differs
+    @Benchmark
+    public String signPerCallKey() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtUtil.CLAIM_USER_ID, user.getId());
+        claims.put(JwtUtil.CLAIM_ROLE, user.getRole().name());
+        claims.put(JwtUtil.CLAIM_SECURITY_VERSION, user.getSecurityVersion());
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, KEY_ID)
+                .setClaims(claims)
+                .setSubject(user.getUsername())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 3600000L))
+                .signWith(perCallKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String signPrecomputedKey() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims verifyPerCallParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(perCallKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims verifySharedParser() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    private static Key perCallKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,39 @@
+package com.pavan.csse.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class DashboardConfig {
+
+    @Value("${dashboard.panel-threads:16}")
+    private int panelThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Runs the independent dashboard panel queries of one request in parallel. In
+     * virtual-thread mode every panel gets its own virtual thread and the connection
+     * pool is what bounds concurrent queries; otherwise a fixed platform pool is used.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService dashboardExecutor() {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dashboard-", 1).factory());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(panelThreads, threadFactory);
+    }
+}
@@ -0,0 +1,42 @@
+package com.pavan.csse.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.events.EventBus;
+import com.pavan.csse.backend.events.EventSink;
+import com.pavan.csse.backend.events.FileEventSink;
+import com.pavan.csse.backend.repository.ConsumerOffsetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class EventStreamConfig {
+
+    /**
+     * File-backed local stand-in; a broker replaces it by setting events.sink and
+     * declaring its own EventSink bean. Its segments are kept as long as published
+     * outbox rows unless events.file.retention says otherwise.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "events.sink", havingValue = "file", matchIfMissing = true)
+    public FileEventSink fileEventSink(@Value("${events.file.directory}") String directory,
+                                       @Value("${events.partitions:8}") int partitions,
+                                       @Value("${events.file.segment-bytes:67108864}") long segmentBytes,
+                                       @Value("${events.file.segment-age:1d}") Duration segmentAge,
+                                       @Value("${events.file.retention:${events.outbox.retention:7d}}") Duration retention,
+                                       ObjectMapper objectMapper) {
+        return new FileEventSink(Path.of(directory), partitions, objectMapper, segmentBytes, segmentAge, retention,
+                Clock.systemUTC());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public EventBus eventBus(EventSink eventSink, ConsumerOffsetRepository consumerOffsetRepository,
+                             @Value("${events.delivery.batch-size:200}") int batchSize) {
+        return new EventBus(eventSink, consumerOffsetRepository, batchSize);
+    }
+}
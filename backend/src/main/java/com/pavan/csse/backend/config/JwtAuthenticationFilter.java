@@ -1,29 +1,33 @@
 package com.pavan.csse.backend.config;
 
-import com.pavan.csse.backend.service.CustomUserDetailsService;
+import com.pavan.csse.backend.model.UserRole;
+import com.pavan.csse.backend.service.UserRevocationRegistry;
+import com.pavan.csse.backend.util.JwtClaimsCache;
 import com.pavan.csse.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private JwtClaimsCache jwtClaimsCache;
     
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private UserRevocationRegistry revocationRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -31,27 +35,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String requestTokenHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwtToken = null;
+        Claims claims = null;
         
         // JWT Token is in the form "Bearer token"
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwtToken);
+                // Verified once per token, then served from the cache until it expires
+                claims = jwtClaimsCache.getClaims(jwtToken);
             } catch (Exception e) {
                 logger.error("Unable to get JWT Token");
             }
         }
 
-        // Validate token
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        // Build the authentication straight from the claims, without a user lookup
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtUserPrincipal principal = toPrincipal(claims);
             
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
                     new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        principal, null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + principal.getRole().name())));
                 usernamePasswordAuthenticationToken
                     .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
@@ -59,4 +64,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private JwtUserPrincipal toPrincipal(Claims claims) {
+        String username = claims.getSubject();
+        Number userId = claims.get(JwtUtil.CLAIM_USER_ID, Number.class);
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        Number securityVersion = claims.get(JwtUtil.CLAIM_SECURITY_VERSION, Number.class);
+        if (username == null || userId == null || role == null) {
+            logger.debug("JWT Token is missing user claims");
+            return null;
+        }
+        
+        int version = securityVersion != null ? securityVersion.intValue() : 0;
+        if (revocationRegistry.isRevoked(userId.longValue(), role, version)) {
+            logger.debug("JWT Token has been revoked for user " + username);
+            return null;
+        }
+        try {
+            return new JwtUserPrincipal(userId.longValue(), username, UserRole.valueOf(role), version,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.pavan.csse.backend.config;
+
+import com.pavan.csse.backend.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.time.Instant;
+
+/**
+ * Authenticated principal rebuilt from JWT claims, so requests can be authorized
+ * without loading the user from the database.
+ */
+@Data
+@AllArgsConstructor
+public class JwtUserPrincipal implements AuthenticatedPrincipal {
+    private Long id;
+    private String username;
+    private UserRole role;
+    private int securityVersion;
+    // When the access token this principal came from expires
+    private Instant expiresAt;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
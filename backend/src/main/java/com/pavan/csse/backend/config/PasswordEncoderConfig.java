@@ -0,0 +1,59 @@
+package com.pavan.csse.backend.config;
+
+import com.pavan.csse.backend.util.BCryptCostCalibrator;
+import com.pavan.csse.backend.util.BoundedPasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    @Value("${security.password.bcrypt.latency-budget:250ms}")
+    private Duration latencyBudget;
+
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int minStrength;
+
+    @Value("${security.password.bcrypt.max-strength:14}")
+    private int maxStrength;
+
+    @Value("${security.password.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.password.hashing.timeout:5s}")
+    private Duration hashingTimeout;
+
+    /**
+     * Delegating encoder that writes "{bcrypt}" hashes at a cost calibrated to the
+     * latency budget. Legacy hashes without an id prefix still match and are reported
+     * for upgrade, so DaoAuthenticationProvider rehashes them on the next login.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        int strength = BCryptCostCalibrator.calibrate(latencyBudget, minStrength, maxStrength);
+        log.info("Using BCrypt strength {} for a {} ms hashing budget", strength, latencyBudget.toMillis());
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(strength));
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, threads, queueCapacity, hashingTimeout);
+    }
+}
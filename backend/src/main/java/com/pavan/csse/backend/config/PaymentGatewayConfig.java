@@ -0,0 +1,65 @@
+package com.pavan.csse.backend.config;
+
+import com.pavan.csse.backend.gateway.CardPaymentPipeline;
+import com.pavan.csse.backend.gateway.ClaimAdjudicator;
+import com.pavan.csse.backend.gateway.PaymentGateway;
+import com.pavan.csse.backend.gateway.SimulatedClaimAdjudicator;
+import com.pavan.csse.backend.gateway.SimulatedPaymentGateway;
+import com.pavan.csse.backend.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class PaymentGatewayConfig {
+
+    @Value("${payments.gateway.workers:16}")
+    private int workers;
+
+    @Value("${payments.gateway.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${payments.gateway.timeout:2s}")
+    private Duration timeout;
+
+    @Value("${payments.gateway.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${payments.gateway.backoff:200ms}")
+    private Duration backoff;
+
+    @Value("${payments.gateway.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${payments.gateway.circuit.open-duration:30s}")
+    private Duration openDuration;
+
+    /**
+     * Local stand-in gateway; a real provider replaces it by setting
+     * payments.gateway.provider and declaring its own PaymentGateway bean.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "payments.gateway.provider", havingValue = "simulator", matchIfMissing = true)
+    public PaymentGateway simulatedPaymentGateway(
+            @Value("${payments.gateway.simulator.latency:300ms}") Duration latency,
+            @Value("${payments.gateway.simulator.failure-rate:0.05}") double failureRate) {
+        return new SimulatedPaymentGateway(latency, failureRate);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public CardPaymentPipeline cardPaymentPipeline(PaymentGateway paymentGateway) {
+        return new CardPaymentPipeline(paymentGateway, new CircuitBreaker(failureThreshold, openDuration),
+                workers, queueCapacity, timeout, maxAttempts, backoff);
+    }
+
+    // Local stand-in for insurers until a clearinghouse integration exists
+    @Bean
+    @ConditionalOnProperty(name = "insurance.claims.adjudicator", havingValue = "simulator", matchIfMissing = true)
+    public ClaimAdjudicator simulatedClaimAdjudicator(
+            @Value("${insurance.claims.simulator.approval-rate:0.9}") double approvalRate) {
+        return new SimulatedClaimAdjudicator(approvalRate);
+    }
+}
@@ -0,0 +1,219 @@
+package com.pavan.csse.backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.util.TokenBucketRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the endpoints that run a BCrypt hash (login, registration and the test
+ * quick-logins) per client IP and, where the body carries one, per username. Runs
+ * before {@link JwtAuthenticationFilter} so a burst is rejected before any hashing.
+ * Auth bodies are buffered to read the username, so they are capped at
+ * {@code max-body-size} bytes; larger ones are rejected with a 413.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${security.rate-limit.ip.capacity:20}")
+    private long ipCapacity = 20;
+
+    @Value("${security.rate-limit.ip.refill-period:1m}")
+    private Duration ipRefillPeriod = Duration.ofMinutes(1);
+
+    @Value("${security.rate-limit.username.capacity:5}")
+    private long usernameCapacity = 5;
+
+    @Value("${security.rate-limit.username.refill-period:1m}")
+    private Duration usernameRefillPeriod = Duration.ofMinutes(1);
+
+    @Value("${security.rate-limit.idle-timeout:10m}")
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    @Value("${security.rate-limit.max-buckets:100000}")
+    private int maxBuckets = 100000;
+
+    @Value("${security.rate-limit.max-body-size:8192}")
+    private int maxBodySize = 8192;
+
+    private TokenBucketRateLimiter ipLimiter;
+    private TokenBucketRateLimiter usernameLimiter;
+
+    @PostConstruct
+    public void init() {
+        ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillPeriod, idleTimeout, maxBuckets);
+        usernameLimiter = new TokenBucketRateLimiter(usernameCapacity, usernameRefillPeriod, idleTimeout, maxBuckets);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        return !(path.equals("/api/auth/login")
+                || path.equals("/api/auth/register")
+                || path.startsWith("/api/test/quick-login/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+
+        HttpServletRequest chainRequest = request;
+        if (UrlPathHelper.defaultInstance.getPathWithinApplication(request).startsWith("/api/auth/")) {
+            CachedBodyRequest cached = request.getContentLengthLong() > maxBodySize ? null
+                    : CachedBodyRequest.read(request, maxBodySize);
+            if (cached == null) {
+                response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(),
+                        Map.of("error", "Request body larger than " + maxBodySize + " bytes"));
+                return;
+            }
+            String username = extractUsername(cached.body);
+            if (username != null) {
+                waitNanos = usernameLimiter.tryAcquire(username.toLowerCase());
+                if (waitNanos > 0) {
+                    reject(response, waitNanos);
+                    return;
+                }
+            }
+            chainRequest = cached;
+        }
+
+        filterChain.doFilter(chainRequest, response);
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        ipLimiter.evictIdle();
+        usernameLimiter.evictIdle();
+    }
+
+    public int getBucketCount() {
+        return ipLimiter.size() + usernameLimiter.size();
+    }
+
+    private String extractUsername(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(body).get("username");
+            return username != null && username.isTextual() && !username.asText().isBlank() ? username.asText() : null;
+        } catch (IOException e) {
+            // Malformed body; the controller reports it, the IP bucket already counted it
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", "Too many requests"));
+    }
+
+    /**
+     * Buffers the (small) auth request body so the username can be read here and the
+     * controller can still bind it.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        // Reads at most maxSize bytes; returns null when the body is longer
+        static CachedBodyRequest read(HttpServletRequest request, int maxSize) throws IOException {
+            byte[] body = request.getInputStream().readNBytes(maxSize + 1);
+            return body.length > maxSize ? null : new CachedBodyRequest(request, body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available at once
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.pavan.csse.backend.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pavan.csse.backend.service.CustomUserDetailsService;
+import com.pavan.csse.backend.service.ExportService;
+import com.pavan.csse.backend.service.InvoiceImportService;
+import com.pavan.csse.backend.util.JwtClaimsCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtClaimsCache jwtClaimsCache;
+
+    @Autowired
+    private InvoiceImportService invoiceImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats() {
+        CacheStats userStats = userDetailsService.getCacheStats();
+        Map<String, Object> users = new HashMap<>();
+        users.put("size", userDetailsService.getCacheSize());
+        users.put("hitCount", userStats.hitCount());
+        users.put("missCount", userStats.missCount());
+        users.put("hitRate", userStats.hitRate());
+        users.put("averageLoadPenaltyMillis", userStats.averageLoadPenalty() / 1_000_000.0);
+        users.put("evictionCount", userStats.evictionCount());
+
+        Map<String, Object> jwtClaims = new HashMap<>();
+        jwtClaims.put("size", jwtClaimsCache.size());
+        jwtClaims.put("hitCount", jwtClaimsCache.getHitCount());
+        jwtClaims.put("missCount", jwtClaimsCache.getMissCount());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("userDetails", users);
+        response.put("jwtClaims", jwtClaims);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Imports invoices from a CSV uploaded as the multipart part {@code file}. The response
+     * is NDJSON, written while the import runs: one line per rejected row, then a summary.
+     */
+    @PostMapping(value = "/invoices/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public void importInvoices(@RequestParam("file") MultipartFile file, HttpServletResponse response) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            importInvoices(csv, response);
+        }
+    }
+
+    // The same import with the CSV as the request body, read straight off the connection
+    @PostMapping(value = "/invoices/import", consumes = "text/csv")
+    public void importInvoicesCsv(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        importInvoices(request.getInputStream(), response);
+    }
+
+    private void importInvoices(InputStream csv, HttpServletResponse response) throws IOException {
+        // A bad header is rejected with a 400 before anything is streamed
+        InvoiceImportService.Import invoiceImport = invoiceImportService.start(csv);
+        response.setContentType("application/x-ndjson");
+        invoiceImport.writeTo(response.getOutputStream());
+    }
+
+    /**
+     * Exports every payment as CSV or NDJSON ({@code format}), gzipped if {@code gzip}. The
+     * rows are written as they are read, so the download starts at once at any table size.
+     */
+    @GetMapping("/exports/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(@RequestParam(defaultValue = "csv") String format,
+                                                                @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return export("payments", exportFormat, gzip, out -> exportService.exportPayments(exportFormat, gzip, out));
+    }
+
+    @GetMapping("/exports/invoices")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(@RequestParam(defaultValue = "csv") String format,
+                                                                @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return export("invoices", exportFormat, gzip, out -> exportService.exportInvoices(exportFormat, gzip, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, ExportService.Format format, boolean gzip,
+                                                         StreamingResponseBody body) {
+        String filename = name + "." + format.extension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, gzip ? "application/gzip" : format.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
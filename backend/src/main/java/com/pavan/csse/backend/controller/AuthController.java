@@ -2,10 +2,13 @@ package com.pavan.csse.backend.controller;
 
 import com.pavan.csse.backend.dto.LoginRequest;
 import com.pavan.csse.backend.dto.LoginResponse;
+import com.pavan.csse.backend.dto.RefreshTokenRequest;
 import com.pavan.csse.backend.dto.UserRegistrationDto;
 import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.service.AuthService;
+import com.pavan.csse.backend.util.HashingPoolSaturatedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +29,8 @@ public class AuthController {
         try {
             LoginResponse response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
+        } catch (HashingPoolSaturatedException e) {
+            return hashingPoolSaturated(e);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -33,6 +38,32 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequest refreshRequest) {
+        try {
+            LoginResponse response = authService.refresh(refreshRequest);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody RefreshTokenRequest refreshRequest) {
+        try {
+            authService.logout(refreshRequest);
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Logged out successfully");
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody UserRegistrationDto registrationDto) {
         try {
@@ -43,6 +74,8 @@ public class AuthController {
             response.put("username", user.getUsername());
             response.put("role", user.getRole());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (HashingPoolSaturatedException e) {
+            return hashingPoolSaturated(e);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -56,4 +89,13 @@ public class AuthController {
         response.put("message", "Auth API is working!");
         return ResponseEntity.ok(response);
     }
+
+    // Password hashing pool is saturated; ask the client to back off
+    private ResponseEntity<Map<String, String>> hashingPoolSaturated(HashingPoolSaturatedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(error);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.pavan.csse.backend.controller;
+
+import com.pavan.csse.backend.service.DashboardService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Writes a cached dashboard snapshot with its ETag, or 304 when the client already has it.
+ */
+final class DashboardResponses {
+
+    private DashboardResponses() {
+    }
+
+    static ResponseEntity<?> of(DashboardService.Snapshot dashboard, WebRequest webRequest) {
+        if (webRequest.checkNotModified(dashboard.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(dashboard.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(dashboard.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dashboard.body());
+    }
+}
@@ -1,13 +1,18 @@
 package com.pavan.csse.backend.controller;
 
+import com.pavan.csse.backend.dto.DoctorSummary;
+import com.pavan.csse.backend.dto.KeysetPage;
 import com.pavan.csse.backend.model.Doctor;
 import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.repository.DoctorRepository;
-import com.pavan.csse.backend.repository.UserRepository;
+import com.pavan.csse.backend.service.CustomUserDetailsService;
+import com.pavan.csse.backend.service.DashboardService;
+import com.pavan.csse.backend.service.DirectoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -23,28 +28,20 @@ public class DoctorController {
     private DoctorRepository doctorRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private DashboardService dashboardService;
 
     @GetMapping("/dashboard")
-    public ResponseEntity<?> getDashboard(Authentication authentication) {
+    public ResponseEntity<?> getDashboard(Authentication authentication, WebRequest webRequest) {
         try {
-            String username = authentication.getName();
-            User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(user.getId());
-            if (doctorOpt.isPresent()) {
-                Doctor doctor = doctorOpt.get();
-                Map<String, Object> response = new HashMap<>();
-                response.put("message", "Welcome to Doctor Dashboard");
-                response.put("doctor", doctor);
-                response.put("user", user);
-                return ResponseEntity.ok(response);
-            } else {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Doctor profile not found");
-                return ResponseEntity.badRequest().body(error);
-            }
+            DashboardService.Snapshot dashboard =
+                dashboardService.getDashboard(DashboardService.Kind.DOCTOR, authentication.getName());
+            return DashboardResponses.of(dashboard, webRequest);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -56,7 +53,7 @@ public class DoctorController {
     public ResponseEntity<?> getProfile(Authentication authentication) {
         try {
             String username = authentication.getName();
-            User user = userRepository.findByUsername(username)
+            User user = userDetailsService.findUser(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
             
             Optional<Doctor> doctorOpt = doctorRepository.findByUserId(user.getId());
@@ -75,9 +72,11 @@ public class DoctorController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAllDoctors() {
+    public ResponseEntity<?> getAllDoctors(@RequestParam(required = false) String sort,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer size) {
         try {
-            List<Doctor> doctors = doctorRepository.findAll();
+            KeysetPage<DoctorSummary> doctors = directoryService.listDoctors(sort, cursor, size);
             return ResponseEntity.ok(doctors);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
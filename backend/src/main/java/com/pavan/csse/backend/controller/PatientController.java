@@ -0,0 +1,34 @@
+package com.pavan.csse.backend.controller;
+
+import com.pavan.csse.backend.dto.PatientInvoicesPage;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.service.PatientService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/patients")
+public class PatientController {
+
+    @Autowired
+    private PatientService patientService;
+
+    @GetMapping("/{patientId}/invoices")
+    public ResponseEntity<?> getInvoices(@PathVariable Long patientId,
+                                         @RequestParam(required = false) InvoiceStatus status,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size) {
+        try {
+            PatientInvoicesPage invoices = patientService.listInvoices(patientId, status, cursor, size);
+            return ResponseEntity.ok(invoices);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+}
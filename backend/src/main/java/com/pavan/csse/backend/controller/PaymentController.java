@@ -1,31 +1,139 @@
-package main.java.com.pavan.csse.backend.controller;
+package com.pavan.csse.backend.controller;
 
+import com.pavan.csse.backend.dto.PaymentStatusView;
 import com.pavan.csse.backend.dto.ProcessPaymentRequest;
 import com.pavan.csse.backend.dto.ProcessPaymentResponse;
-import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.dto.ReceiptView;
+import com.pavan.csse.backend.service.DashboardService;
+import com.pavan.csse.backend.service.IdempotencyService;
 import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.service.PaymentStreamService;
+import com.pavan.csse.backend.service.ReceiptService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/payments")
 public class PaymentController {
 
+    // Tomcat's NIO connector can hand a file to the socket with sendfile instead of copying it
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final PaymentService paymentService;
+    private final DashboardService dashboardService;
+    private final ReceiptService receiptService;
+    private final PaymentStreamService paymentStreamService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, DashboardService dashboardService,
+                             ReceiptService receiptService, PaymentStreamService paymentStreamService) {
         this.paymentService = paymentService;
+        this.dashboardService = dashboardService;
+        this.receiptService = receiptService;
+        this.paymentStreamService = paymentStreamService;
+    }
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<?> getDashboard(Authentication authentication, WebRequest webRequest) {
+        DashboardService.Snapshot dashboard =
+                dashboardService.getDashboard(DashboardService.Kind.PAYMENTS, authentication.getName());
+        return DashboardResponses.of(dashboard, webRequest);
     }
 
     @PostMapping("/process")
-    public ResponseEntity<ProcessPaymentResponse> processPayment(@RequestBody ProcessPaymentRequest req) {
-        ProcessPaymentResponse resp = paymentService.processPayment(req);
-        return ResponseEntity.status(201).body(resp);
+    public ResponseEntity<ProcessPaymentResponse> processPayment(
+            Authentication authentication,
+            @RequestBody ProcessPaymentRequest req,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        IdempotencyService.Outcome outcome = paymentService.processPayment(req, authentication.getName(), idempotencyKey);
+        return ResponseEntity.status(201)
+                .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                .body(outcome.response());
+    }
+
+    /**
+     * Server-Sent Events stream of payment status changes: one payment with {@code paymentId},
+     * one patient's payments with {@code patientId}, otherwise all payments.
+     */
+    @GetMapping("/stream")
+    public SseEmitter streamPayments(Authentication authentication,
+                                     @RequestParam(required = false) Long paymentId,
+                                     @RequestParam(required = false) Long patientId) {
+        return paymentStreamService.open(authentication, paymentId, patientId);
+    }
+
+    // Fallback for clients that cannot hold a stream open
+    @GetMapping("/{id}/status")
+    public ResponseEntity<PaymentStatusView> getPaymentStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(paymentService.getPaymentStatus(id));
     }
 
     @GetMapping("/{id}/receipt")
-    public ResponseEntity<Payment> getReceipt(@PathVariable Long id) {
-        Payment p = paymentService.getPayment(id);
-        return ResponseEntity.ok(p);
+    public ResponseEntity<ReceiptView> getReceipt(@PathVariable Long id) {
+        return ResponseEntity.ok(receiptService.getReceipt(id));
+    }
+
+    /**
+     * Rendered receipt, {@code format=html} or {@code format=pdf}. A completed payment's receipt
+     * is served from the receipt cache with a strong ETag; otherwise it is rendered straight
+     * into the response and not cached.
+     */
+    @GetMapping(value = "/{id}/receipt", params = "format")
+    public void renderReceipt(@PathVariable Long id, @RequestParam String format,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ReceiptService.Format receiptFormat = ReceiptService.Format.parse(format);
+        ReceiptService.Receipt receipt = receiptService.prepare(id, receiptFormat);
+        if (receipt.cached() && new ServletWebRequest(request, response).checkNotModified(receipt.etag())) {
+            return;
+        }
+
+        response.setContentType(receiptFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "inline; filename=\"receipt-" + id + "." + receiptFormat.extension() + "\"");
+        if (!receipt.cached()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            receiptService.render(receipt.view(), receiptFormat, response.getOutputStream());
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, receipt.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable().getHeaderValue());
+        sendFile(receipt.file(), request, response);
+    }
+
+    private static void sendFile(Path file, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            response.setContentLengthLong(size);
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, size);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = 0; position < size; ) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
     }
 }
@@ -1,15 +1,17 @@
 package com.pavan.csse.backend.controller;
 
+import com.pavan.csse.backend.dto.KeysetPage;
+import com.pavan.csse.backend.dto.UserSummary;
 import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.model.UserRole;
-import com.pavan.csse.backend.repository.UserRepository;
+import com.pavan.csse.backend.service.CustomUserDetailsService;
+import com.pavan.csse.backend.service.DirectoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,13 +20,16 @@ import java.util.Map;
 public class UserController {
 
     @Autowired
-    private UserRepository userRepository;
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private DirectoryService directoryService;
 
     @GetMapping("/profile")
     public ResponseEntity<?> getUserProfile(Authentication authentication) {
         try {
             String username = authentication.getName();
-            User user = userRepository.findByUsername(username)
+            User user = userDetailsService.findUser(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
             
             Map<String, Object> response = new HashMap<>();
@@ -47,9 +52,12 @@ public class UserController {
     }
 
     @GetMapping("/role/{role}")
-    public ResponseEntity<?> getUsersByRole(@PathVariable UserRole role) {
+    public ResponseEntity<?> getUsersByRole(@PathVariable UserRole role,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size) {
         try {
-            List<User> users = userRepository.findByRole(role);
+            KeysetPage<UserSummary> users = directoryService.listUsersByRole(role, sort, cursor, size);
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -59,9 +67,11 @@ public class UserController {
     }
 
     @GetMapping("/active")
-    public ResponseEntity<?> getActiveUsers() {
+    public ResponseEntity<?> getActiveUsers(@RequestParam(required = false) String sort,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size) {
         try {
-            List<User> users = userRepository.findByIsActiveTrue();
+            KeysetPage<UserSummary> users = directoryService.listActiveUsers(sort, cursor, size);
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -0,0 +1,32 @@
+package com.pavan.csse.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Open receivables as of a date, bucketed by days past due. Invoices not yet due are in
+ * the first bucket.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgingReport {
+    private LocalDate asOf;
+    private List<Bucket> buckets;
+    private long totalCount;
+    private BigDecimal totalAmount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private String label;
+        private long invoiceCount;
+        private BigDecimal amount;
+    }
+}
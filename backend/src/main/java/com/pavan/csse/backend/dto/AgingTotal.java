@@ -0,0 +1,15 @@
+package com.pavan.csse.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Open invoices and their balance for one aging date.
+ */
+public interface AgingTotal {
+    LocalDate getAgingDate();
+
+    long getOpenCount();
+
+    BigDecimal getOpenAmount();
+}
@@ -0,0 +1,18 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.InvoiceStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Invoice a payment was allocated to, with the invoice's status after the allocation.
+ */
+public interface AllocatedInvoice {
+    Long getPaymentId();
+
+    Long getInvoiceId();
+
+    BigDecimal getAmount();
+
+    InvoiceStatus getInvoiceStatus();
+}
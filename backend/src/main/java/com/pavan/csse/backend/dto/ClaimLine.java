@@ -0,0 +1,19 @@
+package com.pavan.csse.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Columns of one payment as written to an insurer's claim file.
+ */
+public interface ClaimLine {
+    Long getId();
+
+    String getPatientName();
+
+    String getPolicyNumber();
+
+    BigDecimal getAmount();
+
+    LocalDateTime getCreatedAt();
+}
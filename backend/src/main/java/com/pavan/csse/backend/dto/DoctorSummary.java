@@ -0,0 +1,14 @@
+package com.pavan.csse.backend.dto;
+
+/**
+ * Doctor listing row: doctor columns plus the public user columns, without the password hash.
+ */
+public interface DoctorSummary extends PersonSummary {
+    String getEmail();
+    String getLicenseNumber();
+    String getSpecialization();
+    String getDepartment();
+    Integer getYearsOfExperience();
+    Double getConsultationFee();
+    String getAvailableHours();
+}
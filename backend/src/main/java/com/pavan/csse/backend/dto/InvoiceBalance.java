@@ -0,0 +1,12 @@
+package com.pavan.csse.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Unpaid remainder of an invoice, streamed by the payment allocator.
+ */
+public interface InvoiceBalance {
+    Long getId();
+
+    BigDecimal getBalance();
+}
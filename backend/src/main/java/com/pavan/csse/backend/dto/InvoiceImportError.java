@@ -0,0 +1,17 @@
+package com.pavan.csse.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A CSV row the invoice import rejected; {@code line} is the row's line in the file, the
+ * header being line 1.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceImportError {
+    private long line;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.pavan.csse.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last line of an invoice import result. {@code error} is set when the import stopped
+ * early; the rows counted as imported before that are committed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceImportSummary {
+    private long rows;
+    private long imported;
+    private long rejected;
+    private String error;
+}
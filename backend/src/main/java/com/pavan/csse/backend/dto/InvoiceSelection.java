@@ -0,0 +1,20 @@
+package com.pavan.csse.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate over the invoices named in a payment request, computed in one query.
+ */
+public interface InvoiceSelection {
+    long getFound();
+
+    long getUnpayable();
+
+    BigDecimal getBalance();
+
+    String getPatientName();
+
+    Long getPatientId();
+
+    long getPatientCount();
+}
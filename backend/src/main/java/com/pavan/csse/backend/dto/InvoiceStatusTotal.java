@@ -0,0 +1,14 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.InvoiceStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Invoice count and amount for one status.
+ */
+public interface InvoiceStatusTotal {
+    InvoiceStatus getStatus();
+    Long getCount();
+    BigDecimal getTotal();
+}
@@ -0,0 +1,21 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.InvoiceStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Invoice row of a patient's invoice listing.
+ */
+public interface InvoiceSummary {
+    Long getId();
+
+    BigDecimal getAmount();
+
+    BigDecimal getAmountPaid();
+
+    InvoiceStatus getStatus();
+
+    LocalDate getDueDate();
+}
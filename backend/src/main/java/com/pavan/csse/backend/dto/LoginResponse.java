@@ -15,4 +15,5 @@ public class LoginResponse {
     private UserRole role;
     private String firstName;
     private String lastName;
+    private String refreshToken;
 }
\ No newline at end of file
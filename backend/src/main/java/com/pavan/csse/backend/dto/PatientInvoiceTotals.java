@@ -0,0 +1,14 @@
+package com.pavan.csse.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals over all of a patient's invoices, computed in one aggregate query.
+ */
+public interface PatientInvoiceTotals {
+    long getInvoiceCount();
+
+    BigDecimal getOutstandingTotal();
+
+    long getOverdueCount();
+}
@@ -0,0 +1,21 @@
+package com.pavan.csse.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a patient's invoices together with totals over all of them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientInvoicesPage {
+    private PatientInvoiceTotals summary;
+    private List<InvoiceSummary> items;
+    // Pass back as ?cursor= to fetch the next page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,41 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Payload of a payment event: the payment as it is after the change and, once it has
+ * been allocated, the invoices it paid with their new status.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentChangedEvent {
+    private Long paymentId;
+    private Long patientId;
+    private String patientName;
+    private PaymentMethod method;
+    private PaymentStatus status;
+    private BigDecimal amount;
+    private String gatewayReference;
+    private String failureReason;
+    private LocalDateTime completedAt;
+    private List<Allocation> allocations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Allocation {
+        private Long invoiceId;
+        private BigDecimal amount;
+        private InvoiceStatus invoiceStatus;
+    }
+}
@@ -0,0 +1,30 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payment columns carried by outbox events.
+ */
+public interface PaymentEventView {
+    Long getId();
+
+    Long getPatientId();
+
+    String getPatientName();
+
+    PaymentMethod getMethod();
+
+    PaymentStatus getStatus();
+
+    BigDecimal getAmount();
+
+    String getGatewayReference();
+
+    String getFailureReason();
+
+    LocalDateTime getCompletedAt();
+}
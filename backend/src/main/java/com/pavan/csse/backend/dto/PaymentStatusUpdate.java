@@ -0,0 +1,25 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment state pushed to stream clients; the allocations of the underlying event are left out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStatusUpdate {
+    private Long paymentId;
+    private Long patientId;
+    private String patientName;
+    private PaymentMethod method;
+    private PaymentStatus status;
+    private BigDecimal amount;
+    private String failureReason;
+}
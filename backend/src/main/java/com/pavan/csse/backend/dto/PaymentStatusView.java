@@ -0,0 +1,16 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.PaymentStatus;
+
+/**
+ * Status of a payment as polled by clients while a card charge is in flight.
+ */
+public interface PaymentStatusView {
+    Long getId();
+
+    PaymentStatus getStatus();
+
+    String getGatewayReference();
+
+    String getFailureReason();
+}
@@ -0,0 +1,19 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payment row for dashboards and lists.
+ */
+public interface PaymentSummary {
+    Long getId();
+    String getPatientName();
+    BigDecimal getAmount();
+    PaymentMethod getMethod();
+    PaymentStatus getStatus();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,10 @@
+package com.pavan.csse.backend.dto;
+
+/**
+ * Insurance payment waiting to be assigned to a claim batch.
+ */
+public interface PendingClaim {
+    Long getId();
+
+    String getInsurer();
+}
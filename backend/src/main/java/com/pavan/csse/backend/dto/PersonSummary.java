@@ -0,0 +1,10 @@
+package com.pavan.csse.backend.dto;
+
+/**
+ * Columns shared by the listing projections; the keyset cursor is built from them.
+ */
+public interface PersonSummary {
+    Long getId();
+    String getFirstName();
+    String getLastName();
+}
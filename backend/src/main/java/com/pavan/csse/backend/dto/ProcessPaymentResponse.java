@@ -1,4 +1,4 @@
-package main.java.com.pavan.csse.backend.dto;
+package com.pavan.csse.backend.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -0,0 +1,12 @@
+package com.pavan.csse.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Amount of a payment applied to one invoice, as printed on the receipt.
+ */
+public interface ReceiptLine {
+    Long getInvoiceId();
+
+    BigDecimal getAmount();
+}
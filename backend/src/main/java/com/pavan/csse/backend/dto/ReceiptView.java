@@ -0,0 +1,39 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything printed on a payment receipt. Rendered receipts are a pure function of
+ * this view, so its serialized form is what the receipt cache is keyed on.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptView {
+    private Long paymentId;
+    private String patientName;
+    private BigDecimal amount;
+    private PaymentMethod method;
+    private PaymentStatus status;
+    private LocalDateTime createdAt;
+    private String reference;
+    private String insurer;
+    private String failureReason;
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long invoiceId;
+        private BigDecimal amount;
+    }
+}
@@ -0,0 +1,25 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.PaymentMethod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily revenue by payment method over an inclusive date range, with totals per method.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueReport {
+    private LocalDate from;
+    private LocalDate to;
+    private List<RevenueTotal> days;
+    private Map<PaymentMethod, BigDecimal> totalsByMethod;
+    private BigDecimal total;
+}
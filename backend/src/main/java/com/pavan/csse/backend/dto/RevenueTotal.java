@@ -0,0 +1,19 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Revenue collected on one day by one payment method.
+ */
+public interface RevenueTotal {
+    LocalDate getRevenueDate();
+
+    PaymentMethod getMethod();
+
+    long getPaymentCount();
+
+    BigDecimal getAmount();
+}
@@ -0,0 +1,13 @@
+package com.pavan.csse.backend.dto;
+
+/**
+ * Staff listing row: staff columns plus the public user columns, without the password hash.
+ */
+public interface StaffSummary extends PersonSummary {
+    String getEmail();
+    String getEmployeeId();
+    String getPosition();
+    String getDepartment();
+    String getShiftTimings();
+    Long getSupervisorId();
+}
@@ -0,0 +1,17 @@
+package com.pavan.csse.backend.dto;
+
+import com.pavan.csse.backend.model.UserRole;
+
+import java.time.LocalDateTime;
+
+/**
+ * User listing row without the password hash or security version.
+ */
+public interface UserSummary extends PersonSummary {
+    String getUsername();
+    String getEmail();
+    String getPhoneNumber();
+    UserRole getRole();
+    Boolean getIsActive();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,21 @@
+package com.pavan.csse.backend.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * One event on the stream. {@code partition} and {@code offset} are assigned by the sink
+ * when the event is appended; {@code eventId} is the outbox row id, stable across
+ * redeliveries, so consumers can discard duplicates.
+ */
+public record DomainEvent(int partition, long offset, long eventId, String type, String key, long aggregateId,
+                          String payload, LocalDateTime occurredAt) {
+
+    public static DomainEvent unpositioned(long eventId, String type, String key, long aggregateId,
+                                           String payload, LocalDateTime occurredAt) {
+        return new DomainEvent(-1, -1, eventId, type, key, aggregateId, payload, occurredAt);
+    }
+
+    DomainEvent at(int partition, long offset) {
+        return new DomainEvent(partition, offset, eventId, type, key, aggregateId, payload, occurredAt);
+    }
+}
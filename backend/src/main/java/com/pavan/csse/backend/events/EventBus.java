@@ -0,0 +1,196 @@
+package com.pavan.csse.backend.events;
+
+import com.pavan.csse.backend.model.ConsumerOffset;
+import com.pavan.csse.backend.repository.ConsumerOffsetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process event bus over an {@link EventSink}. Events are routed to a partition by
+ * key, so all events of one key are delivered in publish order while different
+ * partitions are delivered in parallel. Each named consumer reads every partition from
+ * its own offset, committed to {@code consumer_offsets} after each handled batch:
+ * delivery is at least once, and a restarted consumer resumes where it left off.
+ */
+public class EventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(EventBus.class);
+
+    /** Where a consumer without a committed offset starts reading. */
+    public enum StartPosition { EARLIEST, LATEST }
+
+    private final EventSink sink;
+    private final ConsumerOffsetRepository offsetRepository;
+    private final int batchSize;
+    private final ExecutorService deliveries;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public EventBus(EventSink sink, ConsumerOffsetRepository offsetRepository, int batchSize) {
+        this.sink = sink;
+        this.offsetRepository = offsetRepository;
+        this.batchSize = batchSize;
+        this.deliveries = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("event-delivery-", 1).factory());
+    }
+
+    public int partitionFor(String key) {
+        return Math.floorMod(key.hashCode(), sink.partitions());
+    }
+
+    /**
+     * Appends the events to their partitions, keeping their order within each key, and
+     * wakes up the consumers of the partitions that received events.
+     */
+    public void publish(List<DomainEvent> events) {
+        Map<Integer, List<DomainEvent>> byPartition = new TreeMap<>();
+        for (DomainEvent event : events) {
+            byPartition.computeIfAbsent(partitionFor(event.key()), p -> new ArrayList<>()).add(event);
+        }
+        byPartition.forEach(sink::append);
+        for (Subscription subscription : subscriptions) {
+            byPartition.keySet().forEach(subscription::signal);
+        }
+    }
+
+    /** Re-delivers to consumers whose handler failed earlier. */
+    public void wakeUp() {
+        for (Subscription subscription : subscriptions) {
+            for (int p = 0; p < sink.partitions(); p++) {
+                subscription.signal(p);
+            }
+        }
+    }
+
+    /**
+     * Starts delivering to {@code handler} from the consumer's committed offsets. A handler
+     * that throws stops delivery on that partition until the next publish or wake-up,
+     * which retries from the first unhandled event.
+     */
+    public Subscription subscribe(String consumer, StartPosition start, Consumer<DomainEvent> handler) {
+        Map<Integer, ConsumerOffset> committed = new HashMap<>();
+        for (ConsumerOffset offset : offsetRepository.findByConsumer(consumer)) {
+            committed.put(offset.getPartition(), offset);
+        }
+        ConsumerOffset[] offsets = new ConsumerOffset[sink.partitions()];
+        for (int p = 0; p < offsets.length; p++) {
+            offsets[p] = committed.get(p);
+            if (offsets[p] == null) {
+                offsets[p] = new ConsumerOffset();
+                offsets[p].setConsumer(consumer);
+                offsets[p].setPartition(p);
+                offsets[p].setNextOffset(start == StartPosition.EARLIEST ? 0 : sink.endOffset(p));
+                offsets[p] = offsetRepository.save(offsets[p]);
+            }
+        }
+        Subscription subscription = new Subscription(consumer, handler, offsets);
+        subscriptions.add(subscription);
+        for (int p = 0; p < offsets.length; p++) {
+            subscription.signal(p);
+        }
+        return subscription;
+    }
+
+    public void shutdown() {
+        subscriptions.clear();
+        deliveries.shutdownNow();
+    }
+
+    public final class Subscription {
+        private final String consumer;
+        private final Consumer<DomainEvent> handler;
+        private final ConsumerOffset[] offsets;
+        // Signals not yet drained; a partition is drained by one task at a time
+        private final AtomicInteger[] pending;
+        // Locks rather than monitors, so a virtual thread blocked on I/O does not pin its carrier
+        private final ReentrantLock[] locks;
+        private volatile boolean closed;
+
+        private Subscription(String consumer, Consumer<DomainEvent> handler, ConsumerOffset[] offsets) {
+            this.consumer = consumer;
+            this.handler = handler;
+            this.offsets = offsets;
+            this.pending = new AtomicInteger[offsets.length];
+            this.locks = new ReentrantLock[offsets.length];
+            for (int p = 0; p < offsets.length; p++) {
+                pending[p] = new AtomicInteger();
+                locks[p] = new ReentrantLock();
+            }
+        }
+
+        public long getOffset(int partition) {
+            locks[partition].lock();
+            try {
+                return offsets[partition].getNextOffset();
+            } finally {
+                locks[partition].unlock();
+            }
+        }
+
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal(int partition) {
+            if (!closed && pending[partition].getAndIncrement() == 0) {
+                deliveries.execute(() -> drain(partition));
+            }
+        }
+
+        private void drain(int partition) {
+            int signals = pending[partition].get();
+            while (true) {
+                if (!deliverAvailable(partition)) {
+                    pending[partition].set(0);
+                    return;
+                }
+                signals = pending[partition].addAndGet(-signals);
+                if (signals == 0) {
+                    return;
+                }
+            }
+        }
+
+        private boolean deliverAvailable(int partition) {
+            ConsumerOffset offset = offsets[partition];
+            locks[partition].lock();
+            try {
+                while (!closed) {
+                    List<DomainEvent> batch = sink.read(partition, offset.getNextOffset(), batchSize);
+                    if (batch.isEmpty()) {
+                        return true;
+                    }
+                    long next = offset.getNextOffset();
+                    try {
+                        for (DomainEvent event : batch) {
+                            handler.accept(event);
+                            next = event.offset() + 1;
+                        }
+                    } catch (RuntimeException e) {
+                        log.error("Consumer {} failed on partition {} at offset {}", consumer, partition, next, e);
+                        commit(offset, next);
+                        return false;
+                    }
+                    commit(offset, next);
+                }
+                return true;
+            } finally {
+                locks[partition].unlock();
+            }
+        }
+
+        private void commit(ConsumerOffset offset, long next) {
+            if (next != offset.getNextOffset()) {
+                offset.setNextOffset(next);
+                offsetRepository.save(offset);
+            }
+        }
+    }
+}
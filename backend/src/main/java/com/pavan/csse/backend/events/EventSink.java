@@ -0,0 +1,21 @@
+package com.pavan.csse.backend.events;
+
+import java.util.List;
+
+/**
+ * Durable, partitioned log the event bus appends to and consumers read from. Offsets
+ * within a partition start at 0 and have no gaps.
+ */
+public interface EventSink {
+
+    int partitions();
+
+    /** Appends the events to the partition in order and returns them with their offsets. */
+    List<DomainEvent> append(int partition, List<DomainEvent> events);
+
+    /** Returns up to {@code max} events starting at {@code offset}; empty at the end of the partition. */
+    List<DomainEvent> read(int partition, long offset, int max);
+
+    /** Offset the next appended event will get. */
+    long endOffset(int partition);
+}
@@ -0,0 +1,357 @@
+package com.pavan.csse.backend.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Local stand-in for a message broker: an append-only NDJSON log per partition, one
+ * event per line, split into segment files named after the offset of their first event.
+ * The byte position of every {@value #INDEX_INTERVAL}th event of a segment is indexed in
+ * memory so a read seeks close to its offset instead of scanning the file. Appends are
+ * forced to disk before they return.
+ *
+ * <p>A new segment is started once the current one reaches {@code segmentBytes} or is
+ * older than {@code segmentAge}, and earlier segments whose last append is older than
+ * {@code retention} are deleted, like the published outbox rows. Offsets keep counting
+ * across deletions; a read below the oldest retained event starts at that event.
+ */
+public class FileEventSink implements EventSink, Closeable {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    public static final Duration DEFAULT_SEGMENT_AGE = Duration.ofDays(1);
+    public static final Duration DEFAULT_RETENTION = Duration.ofDays(7);
+
+    private static final int INDEX_INTERVAL = 256;
+    private static final String SUFFIX = ".ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final Partition[] partitions;
+    private final long segmentBytes;
+    private final long segmentAgeMillis;
+    private final long retentionMillis;
+    private final Clock clock;
+
+    private static final class Partition {
+        final Path directory;
+        final int number;
+        // Oldest first; the last one is the active segment
+        final List<Segment> segments = new ArrayList<>();
+        FileChannel channel;
+
+        Partition(Path directory, int number) {
+            this.directory = directory;
+            this.number = number;
+        }
+
+        Segment active() {
+            return segments.get(segments.size() - 1);
+        }
+
+        long size() {
+            return active().baseOffset + active().count;
+        }
+    }
+
+    private static final class Segment {
+        final Path file;
+        final long baseOffset;
+        final long createdAt;
+        // Byte position of events base, base + INDEX_INTERVAL, base + 2 * INDEX_INTERVAL, ...
+        final List<Long> index = new ArrayList<>();
+        long count;
+        long bytes;
+        long lastAppendAt;
+
+        Segment(Path file, long baseOffset, long createdAt) {
+            this.file = file;
+            this.baseOffset = baseOffset;
+            this.createdAt = createdAt;
+            this.lastAppendAt = createdAt;
+        }
+    }
+
+    private record Snapshot(Path file, long end, long position, long firstOffset) {
+    }
+
+    public FileEventSink(Path directory, int partitionCount, ObjectMapper objectMapper) {
+        this(directory, partitionCount, objectMapper, DEFAULT_SEGMENT_BYTES, DEFAULT_SEGMENT_AGE,
+                DEFAULT_RETENTION, Clock.systemUTC());
+    }
+
+    public FileEventSink(Path directory, int partitionCount, ObjectMapper objectMapper,
+                         long segmentBytes, Duration segmentAge, Duration retention, Clock clock) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("partitionCount must be at least 1");
+        }
+        if (segmentBytes < 1 || segmentAge.isNegative() || segmentAge.isZero() || retention.isNegative()) {
+            throw new IllegalArgumentException("Segment size and age must be positive and retention not negative");
+        }
+        this.objectMapper = objectMapper;
+        this.partitions = new Partition[partitionCount];
+        this.segmentBytes = segmentBytes;
+        this.segmentAgeMillis = segmentAge.toMillis();
+        this.retentionMillis = retention.toMillis();
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+            for (int i = 0; i < partitionCount; i++) {
+                partitions[i] = open(directory, i);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open event log in " + directory, e);
+        }
+    }
+
+    @Override
+    public int partitions() {
+        return partitions.length;
+    }
+
+    @Override
+    public List<DomainEvent> append(int partition, List<DomainEvent> events) {
+        Partition p = partitions[partition];
+        synchronized (p) {
+            long now = clock.millis();
+            Segment segment = p.active();
+            if (segment.count > 0
+                    && (segment.bytes >= segmentBytes || now - segment.createdAt >= segmentAgeMillis)) {
+                segment = roll(p, now);
+            }
+            List<DomainEvent> appended = new ArrayList<>(events.size());
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            List<Long> indexed = new ArrayList<>();
+            long offset = p.size();
+            for (DomainEvent event : events) {
+                DomainEvent positioned = event.at(partition, offset);
+                if ((offset - segment.baseOffset) % INDEX_INTERVAL == 0) {
+                    indexed.add(segment.bytes + buffer.size());
+                }
+                try {
+                    buffer.write(objectMapper.writeValueAsBytes(positioned));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Event " + event.eventId() + " cannot be serialized", e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                buffer.write('\n');
+                appended.add(positioned);
+                offset++;
+            }
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+                long position = segment.bytes;
+                while (bytes.hasRemaining()) {
+                    position += p.channel.write(bytes, position);
+                }
+                p.channel.force(false);
+            } catch (IOException e) {
+                // Nothing is acknowledged; a partial line is cut off on the next start
+                throw new UncheckedIOException("Cannot append to " + segment.file, e);
+            }
+            segment.index.addAll(indexed);
+            segment.bytes += buffer.size();
+            segment.count = offset - segment.baseOffset;
+            segment.lastAppendAt = now;
+            return appended;
+        }
+    }
+
+    @Override
+    public List<DomainEvent> read(int partition, long offset, int max) {
+        Partition p = partitions[partition];
+        Snapshot snapshot;
+        long from;
+        synchronized (p) {
+            if (offset >= p.size()) {
+                return List.of();
+            }
+            Segment segment = segmentFor(p, offset);
+            if (segment.count == 0) {
+                // Only an empty active segment is left after retention
+                return List.of();
+            }
+            from = Math.max(offset, segment.baseOffset);
+            int slot = (int) ((from - segment.baseOffset) / INDEX_INTERVAL);
+            snapshot = new Snapshot(segment.file, segment.baseOffset + segment.count, segment.index.get(slot),
+                    segment.baseOffset + (long) slot * INDEX_INTERVAL);
+        }
+        // Only fully appended lines of one segment are read: the snapshot bounds the offsets
+        long end = Math.min(snapshot.end(), from + max);
+        List<DomainEvent> events = new ArrayList<>((int) (end - from));
+        try (InputStream in = Files.newInputStream(snapshot.file())) {
+            in.skipNBytes(snapshot.position());
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            for (long current = snapshot.firstOffset(); current < end; current++) {
+                String line = reader.readLine();
+                if (current >= from) {
+                    events.add(objectMapper.readValue(line, DomainEvent.class));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Deleted by retention since the snapshot; continue from the oldest retained event
+            return read(partition, offset, max);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + snapshot.file(), e);
+        }
+        return events;
+    }
+
+    @Override
+    public long endOffset(int partition) {
+        Partition p = partitions[partition];
+        synchronized (p) {
+            return p.size();
+        }
+    }
+
+    /** Offset of the oldest event still on disk. */
+    public long startOffset(int partition) {
+        Partition p = partitions[partition];
+        synchronized (p) {
+            return p.segments.get(0).baseOffset;
+        }
+    }
+
+    /**
+     * Deletes segments, other than the active one, whose last append is older than the
+     * retention. Also runs whenever a partition starts a new segment.
+     */
+    public int purgeExpired() {
+        int deleted = 0;
+        for (Partition p : partitions) {
+            synchronized (p) {
+                deleted += purgeExpired(p, clock.millis());
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() {
+        for (Partition p : partitions) {
+            if (p == null || p.channel == null) {
+                continue;
+            }
+            try {
+                p.channel.close();
+            } catch (IOException e) {
+                // Every append was forced already
+            }
+        }
+    }
+
+    private Segment roll(Partition p, long now) {
+        Segment next = new Segment(segmentFile(p.directory, p.number, p.size()), p.size(), now);
+        try {
+            FileChannel channel = openChannel(next.file);
+            p.channel.close();
+            p.channel = channel;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start segment " + next.file, e);
+        }
+        p.segments.add(next);
+        purgeExpired(p, now);
+        return next;
+    }
+
+    private int purgeExpired(Partition p, long now) {
+        int deleted = 0;
+        while (p.segments.size() > 1 && now - p.segments.get(0).lastAppendAt >= retentionMillis) {
+            Segment expired = p.segments.remove(0);
+            try {
+                Files.deleteIfExists(expired.file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete segment " + expired.file, e);
+            }
+            deleted++;
+        }
+        return deleted;
+    }
+
+    // The segment holding the offset; offsets below the oldest retained one map to the oldest segment
+    private static Segment segmentFor(Partition p, long offset) {
+        for (int i = p.segments.size() - 1; i > 0; i--) {
+            if (p.segments.get(i).baseOffset <= offset) {
+                return p.segments.get(i);
+            }
+        }
+        return p.segments.get(0);
+    }
+
+    // Rebuilds every segment's size and index from its file, dropping a trailing line left by a crash mid-append
+    private Partition open(Path directory, int number) throws IOException {
+        Partition p = new Partition(directory, number);
+        Path legacy = directory.resolve("partition-" + number + SUFFIX);
+        if (Files.exists(legacy)) {
+            // Written before logs were split into segments: it holds the partition from offset 0
+            Files.move(legacy, segmentFile(directory, number, 0));
+        }
+        String prefix = "partition-" + number + "-";
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(file -> baseOffset(file, prefix)));
+        for (Path file : files) {
+            Segment segment = new Segment(file, baseOffset(file, prefix), Files.getLastModifiedTime(file).toMillis());
+            scan(segment);
+            p.segments.add(segment);
+        }
+        if (p.segments.isEmpty()) {
+            p.segments.add(new Segment(segmentFile(directory, number, 0), 0, clock.millis()));
+        }
+        p.channel = openChannel(p.active().file);
+        if (Files.size(p.active().file) > p.active().bytes) {
+            p.channel.truncate(p.active().bytes);
+        }
+        purgeExpired(p, clock.millis());
+        return p;
+    }
+
+    private static void scan(Segment segment) throws IOException {
+        long position = 0;
+        long lineStart = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(segment.file))) {
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b == '\n') {
+                    if (segment.count % INDEX_INTERVAL == 0) {
+                        segment.index.add(lineStart);
+                    }
+                    segment.count++;
+                    lineStart = position;
+                }
+            }
+        }
+        segment.bytes = lineStart;
+    }
+
+    private static FileChannel openChannel(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static Path segmentFile(Path directory, int partition, long baseOffset) {
+        return directory.resolve(String.format("partition-%d-%020d%s", partition, baseOffset, SUFFIX));
+    }
+
+    private static long baseOffset(Path file, String prefix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,148 @@
+package com.pavan.csse.backend.gateway;
+
+import com.pavan.csse.backend.gateway.PaymentGateway.ChargeRequest;
+import com.pavan.csse.backend.gateway.PaymentGateway.ChargeResult;
+import com.pavan.csse.backend.util.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Runs card charges off the request thread. A fixed set of workers is the bulkhead (at
+ * most that many gateway calls at once) fed by a bounded queue; each attempt has a
+ * timeout, transient failures are retried with jittered backoff, and a circuit breaker
+ * fails charges fast while the gateway is down. The outcome is handed to a callback.
+ */
+public class CardPaymentPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(CardPaymentPipeline.class);
+
+    private final PaymentGateway gateway;
+    private final CircuitBreaker circuitBreaker;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService calls;
+    private final Duration timeout;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    public CardPaymentPipeline(PaymentGateway gateway, CircuitBreaker circuitBreaker, int workerCount,
+                               int queueCapacity, Duration timeout, int maxAttempts, Duration backoff) {
+        this.gateway = gateway;
+        this.circuitBreaker = circuitBreaker;
+        this.timeout = timeout;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "card-gateway-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Each attempt runs on its own virtual thread so a hung call can be abandoned at the timeout
+        this.calls = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("card-gateway-call-", 1).factory());
+    }
+
+    /**
+     * Queues the charge and returns immediately. Returns false when the queue is full;
+     * the callback is then never invoked.
+     */
+    public boolean submit(ChargeRequest request, Consumer<ChargeResult> callback) {
+        return submit(request, () -> true, callback);
+    }
+
+    /**
+     * Queues the charge, which is only sent while {@code pending} holds: it is checked before
+     * every attempt, so a charge that waited in the queue or between retries is dropped,
+     * without calling the callback, once the payment was given up on.
+     */
+    public boolean submit(ChargeRequest request, BooleanSupplier pending, Consumer<ChargeResult> callback) {
+        try {
+            workers.execute(() -> {
+                ChargeResult result = charge(request, pending);
+                if (result == null) {
+                    log.warn("Card payment {} no longer pending, not charged", request.paymentId());
+                    return;
+                }
+                try {
+                    callback.accept(result);
+                } catch (RuntimeException e) {
+                    log.error("Card payment {} callback failed", request.paymentId(), e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public int getQueueSize() {
+        return workers.getQueue().size();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+        calls.shutdownNow();
+    }
+
+    // Null when the charge was dropped before an attempt because it was no longer pending
+    private ChargeResult charge(ChargeRequest request, BooleanSupplier pending) {
+        String lastError = "Gateway error";
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (!pending.getAsBoolean()) {
+                return null;
+            }
+            if (!circuitBreaker.tryAcquire()) {
+                return ChargeResult.failed("Card gateway unavailable, please retry later");
+            }
+            Future<ChargeResult> call = calls.submit(() -> gateway.charge(request));
+            try {
+                ChargeResult result = call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                // A decline is a healthy answer from the gateway
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (TimeoutException e) {
+                call.cancel(true);
+                circuitBreaker.onFailure();
+                lastError = "Gateway timed out";
+            } catch (ExecutionException e) {
+                circuitBreaker.onFailure();
+                if (!(e.getCause() instanceof PaymentGatewayException)) {
+                    log.error("Card payment {} failed", request.paymentId(), e.getCause());
+                    return ChargeResult.failed("Gateway error");
+                }
+                lastError = e.getCause().getMessage();
+            } catch (InterruptedException e) {
+                call.cancel(true);
+                Thread.currentThread().interrupt();
+                return ChargeResult.failed("Payment processing interrupted");
+            }
+            if (attempt < maxAttempts && !sleep(attempt)) {
+                return ChargeResult.failed("Payment processing interrupted");
+            }
+        }
+        return ChargeResult.failed(lastError);
+    }
+
+    private boolean sleep(int attempt) {
+        long maxMillis = backoff.toMillis() << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxMillis + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
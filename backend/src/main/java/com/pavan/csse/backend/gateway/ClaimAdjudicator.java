@@ -0,0 +1,19 @@
+package com.pavan.csse.backend.gateway;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Insurer-side adjudication of a batch claim file.
+ */
+public interface ClaimAdjudicator {
+
+    String APPROVED = "APPROVED";
+    String DENIED = "DENIED";
+
+    /**
+     * Submits the claim file and returns the insurer's result file: a header line, then
+     * one {@code payment_id,decision,reason} line per claim in claim file order.
+     */
+    Path adjudicate(String insurer, Path claimFile) throws IOException;
+}
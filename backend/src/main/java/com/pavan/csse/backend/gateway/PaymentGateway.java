@@ -0,0 +1,36 @@
+package com.pavan.csse.backend.gateway;
+
+import java.math.BigDecimal;
+
+/**
+ * Card payment gateway. Implementations make a blocking call; {@link CardPaymentPipeline}
+ * runs them off the request thread with timeout, retry, circuit breaker and bulkhead.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Charges the card. The payment id is the idempotency reference, so a retried
+     * charge for the same payment must not charge twice. Returns approved or declined;
+     * throws {@link PaymentGatewayException} for transient failures worth retrying.
+     */
+    ChargeResult charge(ChargeRequest request);
+
+    record ChargeRequest(Long paymentId, BigDecimal amount, Object details) {
+    }
+
+    record ChargeResult(boolean approved, String reference, String reason) {
+
+        public static ChargeResult approved(String reference) {
+            return new ChargeResult(true, reference, null);
+        }
+
+        public static ChargeResult declined(String reason) {
+            return new ChargeResult(false, null, reason);
+        }
+
+        // The charge could not be made; nothing was charged
+        public static ChargeResult failed(String reason) {
+            return new ChargeResult(false, null, reason);
+        }
+    }
+}
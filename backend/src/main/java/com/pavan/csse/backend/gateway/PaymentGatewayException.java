@@ -0,0 +1,11 @@
+package com.pavan.csse.backend.gateway;
+
+/**
+ * Transient gateway failure (unreachable, overloaded, timed out). The charge may be retried.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+}
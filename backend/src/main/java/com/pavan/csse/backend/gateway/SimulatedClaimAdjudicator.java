@@ -0,0 +1,49 @@
+package com.pavan.csse.backend.gateway;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process stand-in for insurers. Reads the claim file line by line and writes a result
+ * file next to it, approving each claim with the configured probability. Claims without a
+ * policy number are always denied.
+ */
+public class SimulatedClaimAdjudicator implements ClaimAdjudicator {
+
+    private final double approvalRate;
+
+    public SimulatedClaimAdjudicator(double approvalRate) {
+        this.approvalRate = approvalRate;
+    }
+
+    @Override
+    public Path adjudicate(String insurer, Path claimFile) throws IOException {
+        Path resultFile = claimFile.resolveSibling(claimFile.getFileName() + ".result");
+        Path tmp = resultFile.resolveSibling(resultFile.getFileName() + ".tmp");
+        try (BufferedReader reader = Files.newBufferedReader(claimFile);
+             BufferedWriter writer = Files.newBufferedWriter(tmp)) {
+            reader.readLine();
+            writer.write("payment_id,decision,reason");
+            writer.newLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // payment_id,policy_number,... - the first two columns are never quoted
+                String[] columns = line.split(",", 3);
+                if (columns[1].isEmpty()) {
+                    writer.write(columns[0] + "," + DENIED + ",Policy number missing");
+                } else if (ThreadLocalRandom.current().nextDouble() < approvalRate) {
+                    writer.write(columns[0] + "," + APPROVED + ",");
+                } else {
+                    writer.write(columns[0] + "," + DENIED + ",Not covered by policy");
+                }
+                writer.newLine();
+            }
+        }
+        return Files.move(tmp, resultFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
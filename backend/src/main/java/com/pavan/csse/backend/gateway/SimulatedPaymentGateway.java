@@ -0,0 +1,40 @@
+package com.pavan.csse.backend.gateway;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process stand-in for a card gateway with configurable latency and transient
+ * failure rate. Cards whose number ends in "0000" are declined.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final Duration latency;
+    private final double failureRate;
+
+    public SimulatedPaymentGateway(Duration latency, double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public ChargeResult charge(ChargeRequest request) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentGatewayException("Gateway call interrupted");
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new PaymentGatewayException("Gateway unavailable");
+        }
+        if (request.details() instanceof Map<?, ?> card
+                && card.get("number") instanceof String number && number.endsWith("0000")) {
+            return ChargeResult.declined("Card declined");
+        }
+        return ChargeResult.approved("SIM-" + request.paymentId());
+    }
+}
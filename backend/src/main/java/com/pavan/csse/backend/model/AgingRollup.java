@@ -0,0 +1,38 @@
+package com.pavan.csse.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Open invoice balance by aging date (the due date, or the creation date when there is
+ * none). Invoice inserts and payment allocations append delta rows; the nightly
+ * reconciliation folds them into a single row per date.
+ */
+@Entity
+@Table(name = "aging_rollups", indexes = {
+    @Index(name = "idx_aging_rollups_date", columnList = "aging_date")
+})
+@Data
+@NoArgsConstructor
+public class AgingRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aging_date", nullable = false)
+    private LocalDate agingDate;
+
+    @Column(name = "open_count", nullable = false)
+    private long openCount;
+
+    @Column(name = "open_amount", nullable = false)
+    private BigDecimal openAmount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,72 @@
+package com.pavan.csse.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One claim file sent to an insurer. Pending insurance payments are assigned to the
+ * insurer's COLLECTING batch, written to a claim file (SUBMITTED), and settled from the
+ * insurer's result file (COMPLETED). The row doubles as the job's checkpoint: the status
+ * says which step to resume and {@code lastAppliedPaymentId} how far results were applied.
+ */
+@Entity
+@Table(name = "claim_batches", indexes = {
+    @Index(name = "idx_claim_batches_status_insurer", columnList = "status, insurer")
+})
+@Data
+@NoArgsConstructor
+public class ClaimBatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String insurer;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ClaimBatchStatus status = ClaimBatchStatus.COLLECTING;
+
+    @Column(name = "claim_file")
+    private String claimFile;
+
+    @Column(name = "result_file")
+    private String resultFile;
+
+    @Column(name = "payment_count", nullable = false)
+    private int paymentCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "approved_count", nullable = false)
+    private int approvedCount;
+
+    @Column(name = "denied_count", nullable = false)
+    private int deniedCount;
+
+    // Claims missing from the result file, released to be batched again
+    @ColumnDefault("0")
+    @Column(name = "unanswered_count", nullable = false)
+    private int unansweredCount;
+
+    // Results are applied in payment id order; everything up to this id is done
+    @Column(name = "last_applied_payment_id", nullable = false)
+    private long lastAppliedPaymentId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,7 @@
+package com.pavan.csse.backend.model;
+
+public enum ClaimBatchStatus {
+    COLLECTING,
+    SUBMITTED,
+    COMPLETED
+}
@@ -0,0 +1,40 @@
+package com.pavan.csse.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Next offset a named event consumer will read from one partition of the event stream.
+ */
+@Entity
+@Table(name = "consumer_offsets", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_consumer_offsets_consumer_partition", columnNames = {"consumer", "partition_no"})
+})
+@Data
+@NoArgsConstructor
+public class ConsumerOffset {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String consumer;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partition;
+
+    @Column(name = "next_offset", nullable = false)
+    private long nextOffset;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,54 @@
+package com.pavan.csse.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a payment request sent with an {@code Idempotency-Key} header. Keys belong to
+ * the user who sent them. The row is written in the same transaction as the payment, so
+ * the unique owner and key guarantee at most one payment per key even across instances.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_idempotency_keys_owner_key", columnNames = {"owner", "idempotency_key"})
+})
+@Data
+@NoArgsConstructor
+public class IdempotencyKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Username of the principal that sent the key
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body; a key reused with a different body is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "receipt_url")
+    private String receiptUrl;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,28 +1,53 @@
-package main.java.com.pavan.csse.backend.model;
+package com.pavan.csse.backend.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+    // Patient summaries and status-filtered lookups: open balance, overdue by due date
+    @Index(name = "idx_invoices_patient_status_due", columnList = "patient_id, status, due_date"),
+    // Patient invoice listing, keyset-paginated by id
+    @Index(name = "idx_invoices_patient_id", columnList = "patient_id, id")
+})
+@EntityListeners(InvoiceRollupListener.class)
 @Data
 @NoArgsConstructor
 public class Invoice {
+    // Ids per invoices_seq value (pooled-lo); the bulk import allocates ids the same way
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoices_seq")
+    @SequenceGenerator(name = "invoices_seq", sequenceName = "invoices_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    // Nullable: invoices raised before patients were recorded only carry the name
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Patient patient;
+
     @Column(name = "patient_name", nullable = false)
     private String patientName;
 
     @Column(nullable = false)
     private BigDecimal amount;
 
+    // Sum of the payment allocations applied to this invoice
+    @ColumnDefault("0")
+    @Column(name = "amount_paid", nullable = false)
+    private BigDecimal amountPaid = BigDecimal.ZERO;
+
     @Column(name = "due_date")
     private LocalDate dueDate;
 
@@ -33,6 +58,12 @@ public class Invoice {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Optimistic lock; the default fills the column for rows that predate it
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,45 @@
+package com.pavan.csse.backend.model;
+
+import com.pavan.csse.backend.service.ReportRollupService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Keeps the aging rollup in step with invoice inserts and deletes. Balance changes from
+ * payments are recorded by the allocator; any other edit is picked up by the nightly
+ * reconciliation.
+ */
+public class InvoiceRollupListener {
+
+    // Lazy: the service needs the transaction manager, which is built after this listener
+    @Lazy
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @PostPersist
+    public void onCreate(Invoice invoice) {
+        if (invoice.getStatus().isOpen()) {
+            reportRollupService.recordOpenBalance(agingDate(invoice), 1, balance(invoice));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Invoice invoice) {
+        if (invoice.getStatus().isOpen()) {
+            reportRollupService.recordOpenBalance(agingDate(invoice), -1, balance(invoice).negate());
+        }
+    }
+
+    private static LocalDate agingDate(Invoice invoice) {
+        return invoice.getDueDate() != null ? invoice.getDueDate() : invoice.getCreatedAt().toLocalDate();
+    }
+
+    private static BigDecimal balance(Invoice invoice) {
+        return invoice.getAmount().subtract(invoice.getAmountPaid());
+    }
+}
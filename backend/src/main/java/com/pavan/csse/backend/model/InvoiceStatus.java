@@ -1,8 +1,13 @@
-package main.java.com.pavan.csse.backend.model;
+package com.pavan.csse.backend.model;
 
 public enum InvoiceStatus {
     OUTSTANDING,
     PAID,
     PARTIALLY_PAID,
-    CANCELED
+    CANCELED;
+
+    /** True while the invoice still has a balance to collect. */
+    public boolean isOpen() {
+        return this == OUTSTANDING || this == PARTIALLY_PAID;
+    }
 }
@@ -1,21 +1,37 @@
-package main.java.com.pavan.csse.backend.model;
+package com.pavan.csse.backend.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_status_id", columnList = "status, id"),
+    @Index(name = "idx_payments_claim_batch", columnList = "claim_batch_id, id"),
+    @Index(name = "idx_payments_patient_created", columnList = "patient_id, created_at")
+})
 @Data
 @NoArgsConstructor
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Patient patient;
+
     @Column(name = "patient_name")
     private String patientName;
 
@@ -28,9 +44,42 @@ public class Payment {
     @Enumerated(EnumType.STRING)
     private PaymentStatus status = PaymentStatus.PROCESSING;
 
+    // Invoices the payment was made for; card and insurance payments are allocated to them once approved
+    @ElementCollection
+    @CollectionTable(name = "payment_invoices", joinColumns = @JoinColumn(name = "payment_id"))
+    @Column(name = "invoice_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<Long> invoiceIds = new ArrayList<>();
+
+    @Column(name = "gateway_reference")
+    private String gatewayReference;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Column(length = 100)
+    private String insurer;
+
+    @Column(name = "policy_number", length = 100)
+    private String policyNumber;
+
+    // Claim batch an insurance payment was sent in; null while it waits for the next batch
+    @Column(name = "claim_batch_id")
+    private Long claimBatchId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // When the payment became COMPLETED; the day its revenue is reported on
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
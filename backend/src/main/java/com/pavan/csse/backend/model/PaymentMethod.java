@@ -1,4 +1,4 @@
-package main.java.com.pavan.csse.backend.model;
+package com.pavan.csse.backend.model;
 
 public enum PaymentMethod {
     CASH,
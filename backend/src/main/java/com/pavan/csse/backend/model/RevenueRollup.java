@@ -0,0 +1,42 @@
+package com.pavan.csse.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Revenue collected on one day by one payment method. Completing payments appends delta
+ * rows in their own transaction; the nightly reconciliation folds them into a single row
+ * per day and method, so reports sum a handful of rows per day.
+ */
+@Entity
+@Table(name = "revenue_rollups", indexes = {
+    @Index(name = "idx_revenue_rollups_date_method", columnList = "revenue_date, method")
+})
+@Data
+@NoArgsConstructor
+public class RevenueRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "revenue_date", nullable = false)
+    private LocalDate revenueDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentMethod method;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -3,7 +3,9 @@ package com.pavan.csse.backend.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,14 +15,22 @@ import java.util.Collection;
 import java.util.Collections;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    // Keyset pagination of the role and active-user listings, by id and by name
+    @Index(name = "idx_users_role_id", columnList = "role, id"),
+    @Index(name = "idx_users_role_name", columnList = "role, last_name, first_name, id"),
+    @Index(name = "idx_users_active_id", columnList = "is_active, id"),
+    @Index(name = "idx_users_active_name", columnList = "is_active, last_name, first_name, id")
+})
+@EntityListeners(UserSecurityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -48,12 +58,22 @@ public class User implements UserDetails {
     @Column(name = "is_active")
     private Boolean isActive = true;
     
+    // Embedded in issued tokens; bumping it invalidates every token issued before
+    @Column(name = "security_version")
+    private Integer securityVersion = 0;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Password, role and active flag as last loaded or written, to detect security changes
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String loadedSecurityState;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -63,6 +83,20 @@ public class User implements UserDetails {
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        if (loadedSecurityState != null && !loadedSecurityState.equals(securityState())) {
+            securityVersion = (securityVersion != null ? securityVersion : 0) + 1;
+        }
+    }
+    
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    protected void rememberSecurityState() {
+        loadedSecurityState = securityState();
+    }
+    
+    private String securityState() {
+        return password + "|" + role + "|" + isActive;
     }
     
     // UserDetails implementation
@@ -0,0 +1,43 @@
+package com.pavan.csse.backend.model;
+
+import com.pavan.csse.backend.service.UserChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Publishes a {@link UserChangedEvent} for every change to a user row, so the
+ * revocation registry and the user details cache stay in step with the table.
+ */
+public class UserSecurityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreate(User user) {
+        publish(UserChangedEvent.ChangeType.CREATED, user);
+    }
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        publish(UserChangedEvent.ChangeType.UPDATED, user);
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        publish(UserChangedEvent.ChangeType.REMOVED, user);
+    }
+
+    private void publish(UserChangedEvent.ChangeType changeType, User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(
+                changeType,
+                user.getId(),
+                user.getUsername(),
+                user.getRole(),
+                Boolean.TRUE.equals(user.getIsActive()),
+                user.getSecurityVersion() != null ? user.getSecurityVersion() : 0));
+    }
+}
@@ -0,0 +1,17 @@
+package com.pavan.csse.backend.repository;
+
+import com.pavan.csse.backend.dto.AgingTotal;
+import com.pavan.csse.backend.model.AgingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AgingRollupRepository extends JpaRepository<AgingRollup, Long> {
+
+    @Query("select a.agingDate as agingDate, sum(a.openCount) as openCount, sum(a.openAmount) as openAmount "
+            + "from AgingRollup a group by a.agingDate having sum(a.openCount) <> 0 or sum(a.openAmount) <> 0")
+    List<AgingTotal> summarize();
+}
@@ -0,0 +1,16 @@
+package com.pavan.csse.backend.repository;
+
+import com.pavan.csse.backend.model.ClaimBatch;
+import com.pavan.csse.backend.model.ClaimBatchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClaimBatchRepository extends JpaRepository<ClaimBatch, Long> {
+    Optional<ClaimBatch> findFirstByInsurerAndStatusOrderByIdAsc(String insurer, ClaimBatchStatus status);
+
+    List<ClaimBatch> findByStatusOrderByIdAsc(ClaimBatchStatus status);
+}
@@ -0,0 +1,13 @@
+package com.pavan.csse.backend.repository;
+
+import com.pavan.csse.backend.model.ConsumerOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConsumerOffsetRepository extends JpaRepository<ConsumerOffset, Long> {
+
+    List<ConsumerOffset> findByConsumer(String consumer);
+}
@@ -1,7 +1,12 @@
 package com.pavan.csse.backend.repository;
 
+import com.pavan.csse.backend.dto.DoctorSummary;
 import com.pavan.csse.backend.model.Doctor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,9 +14,42 @@ import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+    @EntityGraph(attributePaths = "user")
     Optional<Doctor> findByUserId(Long userId);
+
     Optional<Doctor> findByLicenseNumber(String licenseNumber);
+
+    @EntityGraph(attributePaths = "user")
     List<Doctor> findBySpecialization(String specialization);
+
+    @EntityGraph(attributePaths = "user")
     List<Doctor> findByDepartment(String department);
+
+    // Full list with users in one joined query instead of one users query per row
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Doctor> findAll();
+
     boolean existsByLicenseNumber(String licenseNumber);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Doctor d join d.user u where u.id = :userId")
+    Optional<DoctorSummary> findSummaryByUserId(@Param("userId") Long userId);
+
+    // Keyset pagination: seek past the last row of the previous page instead of OFFSET
+    @Query("select " + SUMMARY_COLUMNS + " from Doctor d join d.user u "
+            + "where d.id > :afterId order by d.id")
+    List<DoctorSummary> findSummariesAfterId(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Doctor d join d.user u "
+            + "where (u.lastName, u.firstName, d.id) > (:lastName, :firstName, :afterId) "
+            + "order by u.lastName, u.firstName, d.id")
+    List<DoctorSummary> findSummariesAfterName(@Param("lastName") String lastName,
+                                               @Param("firstName") String firstName,
+                                               @Param("afterId") long afterId,
+                                               Limit limit);
+
+    String SUMMARY_COLUMNS = "d.id as id, u.firstName as firstName, u.lastName as lastName, u.email as email, "
+            + "d.licenseNumber as licenseNumber, d.specialization as specialization, d.department as department, "
+            + "d.yearsOfExperience as yearsOfExperience, d.consultationFee as consultationFee, "
+            + "d.availableHours as availableHours";
 }
\ No newline at end of file
@@ -1,13 +1,105 @@
-package main.java.com.pavan.csse.backend.repository;
+package com.pavan.csse.backend.repository;
 
+import com.pavan.csse.backend.dto.InvoiceBalance;
+import com.pavan.csse.backend.dto.InvoiceSelection;
+import com.pavan.csse.backend.dto.InvoiceStatusTotal;
+import com.pavan.csse.backend.dto.InvoiceSummary;
+import com.pavan.csse.backend.dto.PatientInvoiceTotals;
 import com.pavan.csse.backend.model.Invoice;
 import com.pavan.csse.backend.model.InvoiceStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+
+    // Statuses that can still take a payment, and those that cannot
+    String OPEN = "com.pavan.csse.backend.model.InvoiceStatus.OUTSTANDING, "
+            + "com.pavan.csse.backend.model.InvoiceStatus.PARTIALLY_PAID";
+
+    String CLOSED = "com.pavan.csse.backend.model.InvoiceStatus.PAID, "
+            + "com.pavan.csse.backend.model.InvoiceStatus.CANCELED";
+
+    // Amount the payment allocated to invoice i
+    String ALLOCATED = "select a.amount from PaymentAllocation a where a.payment.id = :paymentId and a.invoice.id = i.id";
+
+    String SUMMARY_COLUMNS = "i.id as id, i.amount as amount, i.amountPaid as amountPaid, "
+            + "i.status as status, i.dueDate as dueDate";
+
     List<Invoice> findByStatus(InvoiceStatus status);
+
+    @Query("select i.status as status, count(i) as count, coalesce(sum(i.amount), 0) as total "
+            + "from Invoice i group by i.status")
+    List<InvoiceStatusTotal> summarizeByStatus();
+
+    @Query("select count(i) as found, "
+            + "coalesce(sum(case when i.status in (" + CLOSED + ") then 1 else 0 end), 0) as unpayable, "
+            + "coalesce(sum(case when i.status in (" + OPEN + ") then i.amount - i.amountPaid else 0 end), 0) as balance, "
+            + "min(i.patientName) as patientName, "
+            + "min(i.patient.id) as patientId, "
+            + "count(distinct i.patient.id) as patientCount "
+            + "from Invoice i where i.id in :ids")
+    InvoiceSelection summarizeSelection(@Param("ids") Collection<Long> ids);
+
+    // One pass over the patient's slice of idx_invoices_patient_status_due
+    @Query("select count(i) as invoiceCount, "
+            + "coalesce(sum(case when i.status in (" + OPEN + ") then i.amount - i.amountPaid else 0 end), 0) "
+            + "as outstandingTotal, "
+            + "coalesce(sum(case when i.status in (" + OPEN + ") and i.dueDate < :today then 1 else 0 end), 0) "
+            + "as overdueCount "
+            + "from Invoice i where i.patient.id = :patientId")
+    PatientInvoiceTotals summarizePatient(@Param("patientId") Long patientId, @Param("today") LocalDate today);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Invoice i "
+            + "where i.patient.id = :patientId and i.id > :afterId order by i.id")
+    List<InvoiceSummary> findPatientInvoicesAfterId(@Param("patientId") Long patientId,
+                                                    @Param("afterId") long afterId, Limit limit);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Invoice i "
+            + "where i.patient.id = :patientId and i.status = :status and i.id > :afterId order by i.id")
+    List<InvoiceSummary> findPatientInvoicesByStatusAfterId(@Param("patientId") Long patientId,
+                                                            @Param("status") InvoiceStatus status,
+                                                            @Param("afterId") long afterId, Limit limit);
+
+    // Oldest due first, streamed so a payment over thousands of invoices never holds them all
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select i.id as id, i.amount - i.amountPaid as balance from Invoice i "
+            + "where i.id in :ids and i.status in (" + OPEN + ") "
+            + "order by i.dueDate asc nulls last, i.id asc")
+    Stream<InvoiceBalance> streamOpenBalances(@Param("ids") Collection<Long> ids);
+
+    // Full export in id order: fetched a page at a time and loaded read-only, not dirty-checked
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select i from Invoice i order by i.id")
+    Stream<Invoice> streamAllForExport();
+
+    /**
+     * Applies every allocation row of the payment to its invoice in one statement, moving
+     * the invoice to PAID or PARTIALLY_PAID. Conditional on the invoice still being open
+     * and not overpaid, so a concurrent payment shows up as fewer updated rows.
+     */
+    @Modifying
+    @Query("update Invoice i set "
+            + "i.amountPaid = i.amountPaid + (" + ALLOCATED + "), "
+            + "i.status = case when i.amountPaid + (" + ALLOCATED + ") >= i.amount "
+            + "then com.pavan.csse.backend.model.InvoiceStatus.PAID "
+            + "else com.pavan.csse.backend.model.InvoiceStatus.PARTIALLY_PAID end, "
+            + "i.version = i.version + 1 "
+            + "where i.id in (select a.invoice.id from PaymentAllocation a where a.payment.id = :paymentId) "
+            + "and i.status in (" + OPEN + ") "
+            + "and i.amountPaid + (" + ALLOCATED + ") <= i.amount")
+    int applyAllocations(@Param("paymentId") Long paymentId);
 }
@@ -0,0 +1,16 @@
+package com.pavan.csse.backend.repository;
+
+import com.pavan.csse.backend.model.Patient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PatientRepository extends JpaRepository<Patient, Long> {
+
+    @Query("select p.id from Patient p where p.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+}
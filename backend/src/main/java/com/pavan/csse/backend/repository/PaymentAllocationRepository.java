@@ -0,0 +1,28 @@
+package com.pavan.csse.backend.repository;
+
+import com.pavan.csse.backend.dto.AllocatedInvoice;
+import com.pavan.csse.backend.dto.ReceiptLine;
+import com.pavan.csse.backend.model.PaymentAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentAllocationRepository extends JpaRepository<PaymentAllocation, Long> {
+
+    List<PaymentAllocation> findByPaymentIdOrderByIdAsc(Long paymentId);
+
+    List<PaymentAllocation> findByInvoiceIdOrderByIdAsc(Long invoiceId);
+
+    @Query("select a.invoice.id as invoiceId, a.amount as amount from PaymentAllocation a "
+            + "where a.payment.id = :paymentId order by a.id")
+    List<ReceiptLine> findReceiptLines(@Param("paymentId") Long paymentId);
+
+    @Query("select a.payment.id as paymentId, i.id as invoiceId, a.amount as amount, i.status as invoiceStatus "
+            + "from PaymentAllocation a join a.invoice i where a.payment.id in :paymentIds order by a.id")
+    List<AllocatedInvoice> findAllocatedInvoices(@Param("paymentIds") Collection<Long> paymentIds);
+}
@@ -1,13 +1,108 @@
-package main.java.com.pavan.csse.backend.repository;
+package com.pavan.csse.backend.repository;
 
+import com.pavan.csse.backend.dto.ClaimLine;
+import com.pavan.csse.backend.dto.PaymentEventView;
+import com.pavan.csse.backend.dto.PaymentStatusView;
+import com.pavan.csse.backend.dto.PaymentSummary;
+import com.pavan.csse.backend.dto.PendingClaim;
 import com.pavan.csse.backend.model.Payment;
 import com.pavan.csse.backend.model.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-    List<Payment> findByStatus(PaymentStatus status);
+    String INSURANCE_PENDING = "com.pavan.csse.backend.model.PaymentStatus.INSURANCE_PENDING";
+
+    // Most recent payments, selecting only the summary columns
+    List<PaymentSummary> findAllByOrderByCreatedAtDescIdDesc(Limit limit);
+
+    Optional<PaymentStatusView> findStatusById(Long id);
+
+    @Query("select p.id as id, pt.id as patientId, p.patientName as patientName, p.method as method, "
+            + "p.status as status, p.amount as amount, p.gatewayReference as gatewayReference, "
+            + "p.failureReason as failureReason, p.completedAt as completedAt "
+            + "from Payment p left join p.patient pt where p.id in :ids order by p.id")
+    List<PaymentEventView> findEventViews(@Param("ids") Collection<Long> ids);
+
+    // Conditional, so a late gateway answer cannot overwrite a payment already finalized
+    @Modifying
+    @Query("update Payment p set p.status = :status, p.gatewayReference = :reference, p.failureReason = :reason, "
+            + "p.completedAt = :completedAt, p.version = p.version + 1 "
+            + "where p.id = :id and p.status = com.pavan.csse.backend.model.PaymentStatus.PROCESSING")
+    int finishProcessing(@Param("id") Long id, @Param("status") PaymentStatus status,
+                         @Param("reference") String reference, @Param("reason") String reason,
+                         @Param("completedAt") LocalDateTime completedAt);
+
+    boolean existsByIdAndStatus(Long id, PaymentStatus status);
+
+    // A charge approved after the sweep failed the payment: the money was taken, so it is completed unallocated
+    @Modifying
+    @Query("update Payment p set p.status = com.pavan.csse.backend.model.PaymentStatus.COMPLETED, "
+            + "p.gatewayReference = :reference, p.failureReason = :reason, p.completedAt = :completedAt, "
+            + "p.version = p.version + 1 "
+            + "where p.id = :id and p.status = com.pavan.csse.backend.model.PaymentStatus.FAILED "
+            + "and p.gatewayReference is null")
+    int completeFailedPayment(@Param("id") Long id, @Param("reference") String reference,
+                              @Param("reason") String reason, @Param("completedAt") LocalDateTime completedAt);
+
+    @Query("select p.id from Payment p "
+            + "where p.status = com.pavan.csse.backend.model.PaymentStatus.PROCESSING and p.createdAt < :cutoff "
+            + "order by p.id")
+    List<Long> findProcessingIdsBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Keyset pagination over insurance payments not yet in a claim batch
+    @Query("select p.id as id, p.insurer as insurer from Payment p "
+            + "where p.status = " + INSURANCE_PENDING + " and p.claimBatchId is null and p.id > :afterId "
+            + "order by p.id")
+    List<PendingClaim> findUnbatchedClaimsAfterId(@Param("afterId") long afterId, Limit limit);
+
+    @Modifying
+    @Query("update Payment p set p.claimBatchId = :batchId, p.version = p.version + 1 "
+            + "where p.id in :ids and p.status = " + INSURANCE_PENDING + " and p.claimBatchId is null")
+    int assignClaimBatch(@Param("batchId") Long batchId, @Param("ids") Collection<Long> ids);
+
+    // Claims the insurer did not answer go back to the unbatched pool for the next batch
+    @Modifying
+    @Query("update Payment p set p.claimBatchId = null, p.version = p.version + 1 "
+            + "where p.claimBatchId = :batchId and p.status = " + INSURANCE_PENDING)
+    int releaseUnansweredClaims(@Param("batchId") Long batchId);
+
+    // Streamed in id order, which is also the order results are applied in
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.id as id, p.patientName as patientName, p.policyNumber as policyNumber, "
+            + "p.amount as amount, p.createdAt as createdAt from Payment p "
+            + "where p.claimBatchId = :batchId order by p.id")
+    Stream<ClaimLine> streamClaimLines(@Param("batchId") Long batchId);
+
+    // Full export in id order: fetched a page at a time and loaded read-only, not dirty-checked
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select p from Payment p order by p.id")
+    Stream<Payment> streamAllForExport();
+
+    @Query("select p.id from Payment p where p.id in :ids and p.claimBatchId = :batchId "
+            + "and p.status = " + INSURANCE_PENDING)
+    List<Long> findPendingClaimIds(@Param("batchId") Long batchId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Payment p set p.status = :status, p.failureReason = :reason, p.completedAt = :completedAt, "
+            + "p.version = p.version + 1 "
+            + "where p.id in :ids and p.claimBatchId = :batchId and p.status = " + INSURANCE_PENDING)
+    int settleClaims(@Param("batchId") Long batchId, @Param("ids") Collection<Long> ids,
+                     @Param("status") PaymentStatus status, @Param("reason") String reason,
+                     @Param("completedAt") LocalDateTime completedAt);
 }
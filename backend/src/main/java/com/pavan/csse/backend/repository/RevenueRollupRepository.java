@@ -0,0 +1,22 @@
+package com.pavan.csse.backend.repository;
+
+import com.pavan.csse.backend.dto.RevenueTotal;
+import com.pavan.csse.backend.model.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+    // Folds the day's uncompacted deltas into the totals; corrections may cancel a key out
+    @Query("select r.revenueDate as revenueDate, r.method as method, sum(r.paymentCount) as paymentCount, "
+            + "sum(r.amount) as amount from RevenueRollup r where r.revenueDate between :from and :to "
+            + "group by r.revenueDate, r.method having sum(r.paymentCount) <> 0 or sum(r.amount) <> 0 "
+            + "order by r.revenueDate, r.method")
+    List<RevenueTotal> summarize(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
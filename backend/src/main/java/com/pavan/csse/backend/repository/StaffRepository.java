@@ -1,7 +1,12 @@
 package com.pavan.csse.backend.repository;
 
+import com.pavan.csse.backend.dto.StaffSummary;
 import com.pavan.csse.backend.model.Staff;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,10 +14,44 @@ import java.util.Optional;
 
 @Repository
 public interface StaffRepository extends JpaRepository<Staff, Long> {
+    @EntityGraph(attributePaths = "user")
     Optional<Staff> findByUserId(Long userId);
+
     Optional<Staff> findByEmployeeId(String employeeId);
+
+    @EntityGraph(attributePaths = "user")
     List<Staff> findByPosition(String position);
+
+    @EntityGraph(attributePaths = "user")
     List<Staff> findByDepartment(String department);
+
+    @EntityGraph(attributePaths = "user")
     List<Staff> findBySupervisorId(Long supervisorId);
+
+    // Full list with users in one joined query instead of one users query per row
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Staff> findAll();
+
     boolean existsByEmployeeId(String employeeId);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Staff s join s.user u where u.id = :userId")
+    Optional<StaffSummary> findSummaryByUserId(@Param("userId") Long userId);
+
+    // Keyset pagination: seek past the last row of the previous page instead of OFFSET
+    @Query("select " + SUMMARY_COLUMNS + " from Staff s join s.user u "
+            + "where s.id > :afterId order by s.id")
+    List<StaffSummary> findSummariesAfterId(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select " + SUMMARY_COLUMNS + " from Staff s join s.user u "
+            + "where (u.lastName, u.firstName, s.id) > (:lastName, :firstName, :afterId) "
+            + "order by u.lastName, u.firstName, s.id")
+    List<StaffSummary> findSummariesAfterName(@Param("lastName") String lastName,
+                                              @Param("firstName") String firstName,
+                                              @Param("afterId") long afterId,
+                                              Limit limit);
+
+    String SUMMARY_COLUMNS = "s.id as id, u.firstName as firstName, u.lastName as lastName, u.email as email, "
+            + "s.employeeId as employeeId, s.position as position, s.department as department, "
+            + "s.shiftTimings as shiftTimings, s.supervisorId as supervisorId";
 }
\ No newline at end of file
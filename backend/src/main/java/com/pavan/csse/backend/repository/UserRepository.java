@@ -1,9 +1,15 @@
 package com.pavan.csse.backend.repository;
 
+import com.pavan.csse.backend.dto.UserSummary;
 import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.model.UserRole;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +20,44 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(UserRole role);
     List<User> findByIsActiveTrue();
+    List<User> findByIsActiveFalse();
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password, u.updatedAt = CURRENT_TIMESTAMP where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    // Keyset pagination over the listing projection; never selects the password hash
+    @Query("select " + SUMMARY_COLUMNS + " from User u "
+            + "where u.role = :role and u.id > :afterId order by u.id")
+    List<UserSummary> findSummariesByRoleAfterId(@Param("role") UserRole role,
+                                                 @Param("afterId") long afterId,
+                                                 Limit limit);
+
+    @Query("select " + SUMMARY_COLUMNS + " from User u "
+            + "where u.role = :role and (u.lastName, u.firstName, u.id) > (:lastName, :firstName, :afterId) "
+            + "order by u.lastName, u.firstName, u.id")
+    List<UserSummary> findSummariesByRoleAfterName(@Param("role") UserRole role,
+                                                   @Param("lastName") String lastName,
+                                                   @Param("firstName") String firstName,
+                                                   @Param("afterId") long afterId,
+                                                   Limit limit);
+
+    @Query("select " + SUMMARY_COLUMNS + " from User u "
+            + "where u.isActive = true and u.id > :afterId order by u.id")
+    List<UserSummary> findActiveSummariesAfterId(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select " + SUMMARY_COLUMNS + " from User u "
+            + "where u.isActive = true and (u.lastName, u.firstName, u.id) > (:lastName, :firstName, :afterId) "
+            + "order by u.lastName, u.firstName, u.id")
+    List<UserSummary> findActiveSummariesAfterName(@Param("lastName") String lastName,
+                                                   @Param("firstName") String firstName,
+                                                   @Param("afterId") long afterId,
+                                                   Limit limit);
+
+    String SUMMARY_COLUMNS = "u.id as id, u.username as username, u.email as email, u.firstName as firstName, "
+            + "u.lastName as lastName, u.phoneNumber as phoneNumber, u.role as role, u.isActive as isActive, "
+            + "u.createdAt as createdAt";
 }
\ No newline at end of file
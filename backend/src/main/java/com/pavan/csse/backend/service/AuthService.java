@@ -2,6 +2,7 @@ package com.pavan.csse.backend.service;
 
 import com.pavan.csse.backend.dto.LoginRequest;
 import com.pavan.csse.backend.dto.LoginResponse;
+import com.pavan.csse.backend.dto.RefreshTokenRequest;
 import com.pavan.csse.backend.dto.UserRegistrationDto;
 import com.pavan.csse.backend.model.*;
 import com.pavan.csse.backend.repository.DoctorRepository;
@@ -13,7 +14,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,13 +38,13 @@ public class AuthService {
     
     @Autowired
     private JwtUtil jwtUtil;
-    
+
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private RefreshTokenService refreshTokenService;
 
     public LoginResponse login(LoginRequest loginRequest) {
         try {
-            // Authenticate the user
+            // Authenticate the user; the provider loads the user once and returns it as principal
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     loginRequest.getUsername(), 
@@ -52,29 +52,40 @@ public class AuthService {
                 )
             );
 
-            // Load user details
-            UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
-            
-            // Generate JWT token
-            String token = jwtUtil.generateToken(userDetails);
+            if (!(authentication.getPrincipal() instanceof User user)) {
+                throw new RuntimeException("User not found");
+            }
             
-            // Get user information
-            User user = userRepository.findByUsername(loginRequest.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-            return new LoginResponse(
-                token,
-                user.getUsername(),
-                user.getEmail(),
-                user.getRole(),
-                user.getFirstName(),
-                user.getLastName()
-            );
+            return buildLoginResponse(user, refreshTokenService.issue(user));
         } catch (BadCredentialsException e) {
             throw new RuntimeException("Invalid username or password");
         }
     }
 
+    public LoginResponse refresh(RefreshTokenRequest refreshRequest) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+        return buildLoginResponse(rotation.user(), rotation.refreshToken());
+    }
+
+    public void logout(RefreshTokenRequest refreshRequest) {
+        refreshTokenService.revoke(refreshRequest.getRefreshToken());
+    }
+
+    private LoginResponse buildLoginResponse(User user, String refreshToken) {
+        // Short-lived access token, verified statelessly
+        String token = jwtUtil.generateToken(user);
+
+        return new LoginResponse(
+            token,
+            user.getUsername(),
+            user.getEmail(),
+            user.getRole(),
+            user.getFirstName(),
+            user.getLastName(),
+            refreshToken
+        );
+    }
+
     @Transactional
     public User registerUser(UserRegistrationDto registrationDto) {
         // Check if username already exists
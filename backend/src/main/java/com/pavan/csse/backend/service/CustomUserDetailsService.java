@@ -1,21 +1,102 @@
 package com.pavan.csse.backend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${users.cache.max-size:1000}")
+    private long cacheMaxSize = 1000;
+
+    @Value("${users.cache.ttl:5m}")
+    private Duration cacheTtl = Duration.ofMinutes(5);
+
+    private volatile Cache<String, User> cache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
+        return findUser(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
-}
\ No newline at end of file
+
+    /**
+     * Looks the user up through a size- and time-bounded cache keyed by username.
+     * Entries are evicted by {@link #onUserChanged(UserChangedEvent)} when the row changes.
+     */
+    public Optional<User> findUser(String username) {
+        return Optional.ofNullable(cache().get(username,
+                key -> userRepository.findByUsername(key).orElse(null)));
+    }
+
+    /**
+     * Stores a rehashed password after a successful login. Called by the authentication
+     * provider when the stored hash uses an outdated encoding or a lower BCrypt cost.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        cache().invalidate(user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
+
+    // Runs after the change commits, so a concurrent load cannot re-cache the old row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUsername() != null) {
+            cache().invalidate(event.getUsername());
+        }
+    }
+
+    public void evictAll() {
+        cache().invalidateAll();
+    }
+
+    /**
+     * Hit ratio, load latency and eviction counts of the user cache.
+     */
+    public CacheStats getCacheStats() {
+        return cache().stats();
+    }
+
+    public long getCacheSize() {
+        return cache().estimatedSize();
+    }
+
+    private Cache<String, User> cache() {
+        Cache<String, User> current = cache;
+        if (current == null) {
+            synchronized (this) {
+                if (cache == null) {
+                    cache = Caffeine.newBuilder()
+                            .maximumSize(cacheMaxSize)
+                            .expireAfterWrite(cacheTtl)
+                            .recordStats()
+                            .build();
+                }
+                current = cache;
+            }
+        }
+        return current;
+    }
+}
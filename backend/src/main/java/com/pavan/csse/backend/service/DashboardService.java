@@ -0,0 +1,260 @@
+package com.pavan.csse.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pavan.csse.backend.events.EventBus;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.repository.DoctorRepository;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.repository.StaffRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Assembles the role dashboards. Every panel is a single query, the panels of one
+ * dashboard run in parallel, and the serialized payload is cached briefly per user
+ * together with its ETag so polling clients can be answered with 304.
+ */
+@Service
+public class DashboardService {
+
+    public enum Kind { DOCTOR, STAFF, PAYMENTS }
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private ExecutorService dashboardExecutor;
+
+    @Value("${dashboard.cache.ttl:10s}")
+    private Duration cacheTtl = Duration.ofSeconds(10);
+
+    @Value("${dashboard.cache.max-size:10000}")
+    private long cacheMaxSize = 10000;
+
+    @Value("${dashboard.recent-payments:10}")
+    private int recentPayments = 10;
+
+    @Value("${dashboard.panel-timeout:5s}")
+    private Duration panelTimeout = Duration.ofSeconds(5);
+
+    private AsyncCache<String, Snapshot> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached dashboard for the user, building it when missing or expired.
+     */
+    public Snapshot getDashboard(Kind kind, String username) {
+        // Concurrent requests share one in-flight build. The build runs outside the cache's
+        // map lock, so a virtual thread waiting on its panels does not pin its carrier.
+        CompletableFuture<Snapshot> created = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = cache.asMap().putIfAbsent(kind + ":" + username, created);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Snapshot snapshot = build(kind, username);
+            created.complete(snapshot);
+            return snapshot;
+        } catch (Throwable e) {
+            // Failed futures are dropped from the cache, so the next request retries. Errors
+            // too: a future left incomplete would block every later request for this user.
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void evictAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Drops the cached dashboards that show payments and invoice totals whenever a payment
+     * changes, instead of serving them until the TTL runs out.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribeToPaymentEvents() {
+        eventBus.subscribe("dashboards", EventBus.StartPosition.LATEST, event -> evict(Kind.STAFF, Kind.PAYMENTS));
+    }
+
+    private void evict(Kind... kinds) {
+        for (Kind kind : kinds) {
+            cache.asMap().keySet().removeIf(key -> key.startsWith(kind + ":"));
+        }
+    }
+
+    private Snapshot build(Kind kind, String username) {
+        User user = userDetailsService.findUser(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Map<String, CompletableFuture<?>> panels = new LinkedHashMap<>();
+        switch (kind) {
+            case DOCTOR -> {
+                panels.put("doctor", panel(() -> doctorRepository.findSummaryByUserId(user.getId())
+                        .orElseThrow(() -> new RuntimeException("Doctor profile not found"))));
+                panels.put("counts", panel(this::counts));
+            }
+            case STAFF -> {
+                panels.put("staff", panel(() -> staffRepository.findSummaryByUserId(user.getId())
+                        .orElseThrow(() -> new RuntimeException("Staff profile not found"))));
+                panels.put("counts", panel(this::counts));
+                panels.put("recentPayments", panel(this::recentPayments));
+                panels.put("invoiceTotals", panel(invoiceRepository::summarizeByStatus));
+            }
+            case PAYMENTS -> {
+                panels.put("recent", panel(this::recentPayments));
+                panels.put("invoiceTotals", panel(invoiceRepository::summarizeByStatus));
+                panels.put("counts", panel(this::counts));
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (kind == Kind.DOCTOR) {
+            response.put("message", "Welcome to Doctor Dashboard");
+        } else if (kind == Kind.STAFF) {
+            response.put("message", "Welcome to Staff Dashboard");
+        }
+        if (kind != Kind.PAYMENTS) {
+            response.put("user", userPanel(user));
+        }
+        long deadline = System.nanoTime() + panelTimeout.toNanos();
+        for (Map.Entry<String, CompletableFuture<?>> panel : panels.entrySet()) {
+            response.put(panel.getKey(), await(panel.getValue(), deadline));
+        }
+        return snapshot(response);
+    }
+
+    private CompletableFuture<Object> panel(Supplier<?> query) {
+        return CompletableFuture.supplyAsync(query::get, dashboardExecutor);
+    }
+
+    private Object await(CompletableFuture<?> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RuntimeException("Dashboard panel timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading dashboard");
+        }
+    }
+
+    // Public user fields; served from the user cache, so no query
+    private Map<String, Object> userPanel(User user) {
+        Map<String, Object> panel = new LinkedHashMap<>();
+        panel.put("id", user.getId());
+        panel.put("username", user.getUsername());
+        panel.put("email", user.getEmail());
+        panel.put("firstName", user.getFirstName());
+        panel.put("lastName", user.getLastName());
+        panel.put("phoneNumber", user.getPhoneNumber());
+        panel.put("role", user.getRole());
+        panel.put("isActive", user.getIsActive());
+        return panel;
+    }
+
+    private Object recentPayments() {
+        return paymentRepository.findAllByOrderByCreatedAtDescIdDesc(Limit.of(recentPayments));
+    }
+
+    // All counters in one statement via scalar subqueries
+    private Map<String, Long> counts() {
+        Object[] row = entityManager.createQuery(
+                        "select "
+                                + "(select count(i) from Invoice i where i.status = :outstanding), "
+                                + "(select count(p) from Payment p where p.createdAt >= :today), "
+                                + "(select count(d) from Doctor d), "
+                                + "(select count(s) from Staff s)", Object[].class)
+                .setParameter("outstanding", InvoiceStatus.OUTSTANDING)
+                .setParameter("today", LocalDate.now().atStartOfDay())
+                .getSingleResult();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("outstandingInvoices", ((Number) row[0]).longValue());
+        counts.put("paymentsToday", ((Number) row[1]).longValue());
+        counts.put("doctors", ((Number) row[2]).longValue());
+        counts.put("staff", ((Number) row[3]).longValue());
+        return counts;
+    }
+
+    private Snapshot snapshot(Map<String, Object> response) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new Snapshot(body, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not serialize dashboard", e);
+        }
+    }
+
+    /**
+     * Serialized dashboard JSON and its strong ETag.
+     */
+    public record Snapshot(byte[] body, String etag) {
+    }
+}
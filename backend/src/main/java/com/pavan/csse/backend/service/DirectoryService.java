@@ -0,0 +1,138 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.dto.DoctorSummary;
+import com.pavan.csse.backend.dto.KeysetPage;
+import com.pavan.csse.backend.dto.PersonSummary;
+import com.pavan.csse.backend.dto.StaffSummary;
+import com.pavan.csse.backend.dto.UserSummary;
+import com.pavan.csse.backend.model.UserRole;
+import com.pavan.csse.backend.repository.DoctorRepository;
+import com.pavan.csse.backend.repository.StaffRepository;
+import com.pavan.csse.backend.repository.UserRepository;
+import com.pavan.csse.backend.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated listings of doctors, staff and users. Each page is one indexed
+ * seek query over a column projection, so its cost does not grow with the page
+ * number or with the table size.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DirectoryService {
+
+    public static final String SORT_ID = "id";
+    public static final String SORT_NAME = "name";
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${listing.page-size.default:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${listing.page-size.max:100}")
+    private int maxPageSize = 100;
+
+    public KeysetPage<DoctorSummary> listDoctors(String sort, String cursor, Integer size) {
+        return page(sort, cursor, size, new PageQuery<>() {
+            @Override
+            public List<DoctorSummary> afterId(long id, Limit limit) {
+                return doctorRepository.findSummariesAfterId(id, limit);
+            }
+
+            @Override
+            public List<DoctorSummary> afterName(KeysetCursor c, Limit limit) {
+                return doctorRepository.findSummariesAfterName(c.lastName(), c.firstName(), c.id(), limit);
+            }
+        });
+    }
+
+    public KeysetPage<StaffSummary> listStaff(String sort, String cursor, Integer size) {
+        return page(sort, cursor, size, new PageQuery<>() {
+            @Override
+            public List<StaffSummary> afterId(long id, Limit limit) {
+                return staffRepository.findSummariesAfterId(id, limit);
+            }
+
+            @Override
+            public List<StaffSummary> afterName(KeysetCursor c, Limit limit) {
+                return staffRepository.findSummariesAfterName(c.lastName(), c.firstName(), c.id(), limit);
+            }
+        });
+    }
+
+    public KeysetPage<UserSummary> listUsersByRole(UserRole role, String sort, String cursor, Integer size) {
+        return page(sort, cursor, size, new PageQuery<>() {
+            @Override
+            public List<UserSummary> afterId(long id, Limit limit) {
+                return userRepository.findSummariesByRoleAfterId(role, id, limit);
+            }
+
+            @Override
+            public List<UserSummary> afterName(KeysetCursor c, Limit limit) {
+                return userRepository.findSummariesByRoleAfterName(role, c.lastName(), c.firstName(), c.id(), limit);
+            }
+        });
+    }
+
+    public KeysetPage<UserSummary> listActiveUsers(String sort, String cursor, Integer size) {
+        return page(sort, cursor, size, new PageQuery<>() {
+            @Override
+            public List<UserSummary> afterId(long id, Limit limit) {
+                return userRepository.findActiveSummariesAfterId(id, limit);
+            }
+
+            @Override
+            public List<UserSummary> afterName(KeysetCursor c, Limit limit) {
+                return userRepository.findActiveSummariesAfterName(c.lastName(), c.firstName(), c.id(), limit);
+            }
+        });
+    }
+
+    private <T extends PersonSummary> KeysetPage<T> page(String sort, String cursor, Integer size,
+                                                         PageQuery<T> query) {
+        String order = sort == null || sort.isBlank() ? SORT_ID : sort;
+        if (!SORT_ID.equals(order) && !SORT_NAME.equals(order)) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort + " (expected id or name)");
+        }
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        KeysetCursor position = KeysetCursor.decode(cursor, order);
+
+        // One extra row tells whether another page exists without a COUNT query
+        Limit limit = Limit.of(pageSize + 1);
+        List<T> rows = SORT_ID.equals(order)
+                ? query.afterId(position.id(), limit)
+                : query.afterName(position, limit);
+
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null, false);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        T last = items.get(pageSize - 1);
+        KeysetCursor next = new KeysetCursor(order, nullToEmpty(last.getLastName()),
+                nullToEmpty(last.getFirstName()), last.getId());
+        return new KeysetPage<>(List.copyOf(items), next.encode(), true);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private interface PageQuery<T> {
+        List<T> afterId(long id, Limit limit);
+
+        List<T> afterName(KeysetCursor cursor, Limit limit);
+    }
+}
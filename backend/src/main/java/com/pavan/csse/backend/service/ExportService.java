@@ -0,0 +1,236 @@
+package com.pavan.csse.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.Patient;
+import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full exports of payments and invoices, as CSV or NDJSON, optionally gzipped. Rows are
+ * read through a streamed query in a read-only transaction, fetched a page at a time,
+ * written as they arrive and detached once written, so memory stays flat whatever the
+ * size of the table.
+ */
+@Service
+public class ExportService {
+
+    // Rows written between flushes of the output, and between clears of the persistence context
+    private static final int FLUSH_EVERY = 1000;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final List<Column<Payment>> PAYMENT_COLUMNS = List.of(
+            new Column<>("id", Payment::getId),
+            new Column<>("patient_id", payment -> patientId(payment.getPatient())),
+            new Column<>("patient_name", Payment::getPatientName),
+            new Column<>("amount", Payment::getAmount),
+            new Column<>("method", Payment::getMethod),
+            new Column<>("status", Payment::getStatus),
+            new Column<>("gateway_reference", Payment::getGatewayReference),
+            new Column<>("failure_reason", Payment::getFailureReason),
+            new Column<>("insurer", Payment::getInsurer),
+            new Column<>("policy_number", Payment::getPolicyNumber),
+            new Column<>("claim_batch_id", Payment::getClaimBatchId),
+            new Column<>("created_at", Payment::getCreatedAt),
+            new Column<>("completed_at", Payment::getCompletedAt));
+
+    private static final List<Column<Invoice>> INVOICE_COLUMNS = List.of(
+            new Column<>("id", Invoice::getId),
+            new Column<>("patient_id", invoice -> patientId(invoice.getPatient())),
+            new Column<>("patient_name", Invoice::getPatientName),
+            new Column<>("amount", Invoice::getAmount),
+            new Column<>("amount_paid", Invoice::getAmountPaid),
+            new Column<>("due_date", Invoice::getDueDate),
+            new Column<>("status", Invoice::getStatus),
+            new Column<>("created_at", Invoice::getCreatedAt));
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    private record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    /** Writes every payment, in id order; returns the number of rows written. */
+    @Transactional(readOnly = true)
+    public long exportPayments(Format format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<Payment> payments = paymentRepository.streamAllForExport()) {
+            return export(payments, PAYMENT_COLUMNS, format, gzip, out);
+        }
+    }
+
+    /** Writes every invoice, in id order; returns the number of rows written. */
+    @Transactional(readOnly = true)
+    public long exportInvoices(Format format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<Invoice> invoices = invoiceRepository.streamAllForExport()) {
+            return export(invoices, INVOICE_COLUMNS, format, gzip, out);
+        }
+    }
+
+    // The caller owns the output stream, so it is flushed (and a gzip trailer written) but not closed
+    private <T> long export(Stream<T> rows, List<Column<T>> columns, Format format, boolean gzip,
+                            OutputStream out) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                compressed != null ? compressed : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter<T> rowWriter = format == Format.CSV ? new CsvRowWriter<>(writer, columns)
+                : new JsonRowWriter<>(objectMapper, writer, columns);
+
+        long count = 0;
+        for (T row : (Iterable<T>) rows::iterator) {
+            rowWriter.write(row);
+            entityManager.detach(row);
+            if (++count % FLUSH_EVERY == 0) {
+                // Detaching a row leaves the patient proxy it referenced; this drops those too
+                entityManager.clear();
+                rowWriter.flush();
+            }
+        }
+        rowWriter.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+        return count;
+    }
+
+    // The patient's id, read from the lazy proxy without loading the patient
+    private static Long patientId(Patient patient) {
+        return patient != null ? patient.getId() : null;
+    }
+
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    // RFC 4180, the format CsvReader reads: a header line, fields quoted only when they need it
+    private static final class CsvRowWriter<T> implements RowWriter<T> {
+        private final Writer writer;
+        private final List<Column<T>> columns;
+
+        CsvRowWriter(Writer writer, List<Column<T>> columns) throws IOException {
+            this.writer = writer;
+            this.columns = columns;
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns.get(i).name());
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(row);
+                if (value != null) {
+                    writeField(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeField(String field) throws IOException {
+            if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    // One JSON object per line, values serialised as the API serialises them
+    private static final class JsonRowWriter<T> implements RowWriter<T> {
+        private final JsonGenerator generator;
+        private final List<Column<T>> columns;
+
+        JsonRowWriter(ObjectMapper objectMapper, Writer writer, List<Column<T>> columns) throws IOException {
+            this.generator = objectMapper.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (Column<T> column : columns) {
+                generator.writeFieldName(column.name());
+                generator.writeObject(column.value().apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.pavan.csse.backend.service;
+
+/**
+ * Thrown when an idempotency key is presented again with a different request body.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
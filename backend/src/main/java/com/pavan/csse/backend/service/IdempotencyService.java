@@ -0,0 +1,167 @@
+package com.pavan.csse.backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pavan.csse.backend.dto.ProcessPaymentResponse;
+import com.pavan.csse.backend.model.IdempotencyKey;
+import com.pavan.csse.backend.repository.IdempotencyKeyRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Makes payment requests carrying an {@code Idempotency-Key} run at most once per user:
+ * keys are scoped to the principal that sent them, so two users never share one. Recent
+ * outcomes and requests still in flight are kept in a bounded in-memory LRU, so a retry
+ * storm on one instance waits for the first attempt instead of queueing on the database.
+ * The {@code idempotency_keys} table, written in the payment's own transaction, is the
+ * source of truth across instances and restarts.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Value("${payments.idempotency.ttl:24h}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${payments.idempotency.cache.max-size:10000}")
+    private long cacheMaxSize = 10000;
+
+    private AsyncCache<Scope, Stored> recent;
+
+    @PostConstruct
+    public void init() {
+        recent = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    /**
+     * Runs the action once per key and returns its response; later calls with the same
+     * key and body get the stored response back. The action must persist the outcome
+     * through {@link #record} inside the transaction that creates the payment.
+     */
+    public Outcome execute(String owner, String key, String requestHash, Supplier<ProcessPaymentResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        CompletableFuture<Stored> created = new CompletableFuture<>();
+        CompletableFuture<Stored> existing = recent.asMap().putIfAbsent(new Scope(owner, key), created);
+        if (existing != null) {
+            return replay(await(existing), requestHash);
+        }
+
+        try {
+            Optional<IdempotencyKey> stored = idempotencyKeyRepository.findByOwnerAndIdempotencyKey(owner, key);
+            if (stored.isPresent()) {
+                Stored outcome = Stored.of(stored.get());
+                created.complete(outcome);
+                return replay(outcome, requestHash);
+            }
+
+            ProcessPaymentResponse response;
+            try {
+                response = action.get();
+            } catch (DataIntegrityViolationException e) {
+                // Another instance committed this key first and our transaction rolled back
+                Stored outcome = Stored.of(idempotencyKeyRepository.findByOwnerAndIdempotencyKey(owner, key)
+                        .orElseThrow(() -> e));
+                created.complete(outcome);
+                return replay(outcome, requestHash);
+            }
+            created.complete(new Stored(requestHash, response));
+            return new Outcome(response, false);
+        } catch (Throwable e) {
+            // Failed attempts are not remembered, so the client may retry with the same key.
+            // Errors too: a future left incomplete would block every retry with this key.
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the outcome for the owner's key. Call inside the transaction that created the payment.
+     */
+    public void record(String owner, String key, String requestHash, ProcessPaymentResponse response) {
+        IdempotencyKey record = new IdempotencyKey();
+        record.setOwner(owner);
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setPaymentId(response.getPaymentId());
+        record.setStatus(response.getStatus());
+        record.setReceiptUrl(response.getReceiptUrl());
+        idempotencyKeyRepository.saveAndFlush(record);
+    }
+
+    public void evictAll() {
+        recent.synchronous().invalidateAll();
+    }
+
+    // Keys older than the TTL may be reused; the LRU entries expire on the same schedule
+    @Scheduled(fixedDelayString = "${payments.idempotency.cleanup-interval:3600000}")
+    @Transactional
+    public int purgeExpired() {
+        return idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    public static String hash(byte[] requestBody) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(requestBody));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Outcome replay(Stored stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used with a different request");
+        }
+        return new Outcome(stored.response(), true);
+    }
+
+    private Stored await(CompletableFuture<Stored> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Response for a payment request; {@code replayed} is true when it was stored earlier.
+     */
+    public record Outcome(ProcessPaymentResponse response, boolean replayed) {
+    }
+
+    private record Scope(String owner, String key) {
+    }
+
+    private record Stored(String requestHash, ProcessPaymentResponse response) {
+
+        static Stored of(IdempotencyKey record) {
+            return new Stored(record.getRequestHash(),
+                    new ProcessPaymentResponse(record.getPaymentId(), record.getStatus(), record.getReceiptUrl()));
+        }
+    }
+}
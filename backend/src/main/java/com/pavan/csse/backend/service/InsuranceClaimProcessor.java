@@ -0,0 +1,350 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.dto.ClaimLine;
+import com.pavan.csse.backend.dto.PendingClaim;
+import com.pavan.csse.backend.gateway.ClaimAdjudicator;
+import com.pavan.csse.backend.model.ClaimBatch;
+import com.pavan.csse.backend.model.ClaimBatchStatus;
+import com.pavan.csse.backend.model.PaymentStatus;
+import com.pavan.csse.backend.repository.ClaimBatchRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Batches INSURANCE_PENDING payments into one claim file per insurer and settles them
+ * from the insurer's results. Each step commits as it goes and is recorded on the
+ * {@link ClaimBatch} row, so a run that dies part-way is resumed by the next one:
+ * <ol>
+ *   <li>collect: page through unbatched payments in id order and assign them to the
+ *       insurer's COLLECTING batch, one transaction per page;</li>
+ *   <li>submit: stream the batch's payments into the claim file and mark it SUBMITTED;</li>
+ *   <li>settle: read the result file and apply it in chunks, each chunk one transaction
+ *       with bulk status updates; approved claims are allocated to their invoices. Claims
+ *       the result file leaves out are released from the batch, so the next run batches
+ *       them again instead of leaving them pending.</li>
+ * </ol>
+ */
+@Service
+public class InsuranceClaimProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(InsuranceClaimProcessor.class);
+
+    static final String UNKNOWN_INSURER = "UNKNOWN";
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ClaimBatchRepository claimBatchRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ClaimAdjudicator claimAdjudicator;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${insurance.claims.page-size:500}")
+    private int pageSize = 500;
+
+    @Value("${insurance.claims.chunk-size:200}")
+    private int chunkSize = 200;
+
+    @Value("${insurance.claims.directory:${java.io.tmpdir}/csse-claims}")
+    private Path directory;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.claims.interval:900000}",
+            initialDelayString = "${insurance.claims.interval:900000}")
+    public void runScheduled() {
+        run();
+    }
+
+    /**
+     * Runs all three steps. Returns the number of batches completed, or -1 when a run
+     * is already in progress on this instance.
+     */
+    public int run() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            int collected = collect();
+            if (collected > 0) {
+                log.info("Assigned {} insurance payments to claim batches", collected);
+            }
+            int completed = 0;
+            for (ClaimBatch batch : claimBatchRepository.findByStatusOrderByIdAsc(ClaimBatchStatus.COLLECTING)) {
+                submit(batch);
+            }
+            for (ClaimBatch batch : claimBatchRepository.findByStatusOrderByIdAsc(ClaimBatchStatus.SUBMITTED)) {
+                try {
+                    settle(batch);
+                    completed++;
+                } catch (RuntimeException e) {
+                    // Left SUBMITTED at its checkpoint; the next run picks it up again
+                    log.error("Claim batch {} could not be settled", batch.getId(), e);
+                }
+            }
+            return completed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Claim file I/O failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int collect() {
+        int collected = 0;
+        long afterId = 0;
+        List<PendingClaim> page;
+        do {
+            page = paymentRepository.findUnbatchedClaimsAfterId(afterId, Limit.of(pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<PendingClaim> claims = page;
+            collected += transactionTemplate.execute(status -> assign(claims));
+            afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == pageSize);
+        return collected;
+    }
+
+    private int assign(List<PendingClaim> page) {
+        Map<String, List<Long>> idsByInsurer = page.stream().collect(Collectors.groupingBy(
+                claim -> Objects.requireNonNullElse(claim.getInsurer(), UNKNOWN_INSURER),
+                LinkedHashMap::new, Collectors.mapping(PendingClaim::getId, Collectors.toList())));
+        int assigned = 0;
+        for (Map.Entry<String, List<Long>> entry : idsByInsurer.entrySet()) {
+            ClaimBatch batch = claimBatchRepository
+                    .findFirstByInsurerAndStatusOrderByIdAsc(entry.getKey(), ClaimBatchStatus.COLLECTING)
+                    .orElseGet(() -> newBatch(entry.getKey()));
+            assigned += paymentRepository.assignClaimBatch(batch.getId(), entry.getValue());
+        }
+        return assigned;
+    }
+
+    private ClaimBatch newBatch(String insurer) {
+        ClaimBatch batch = new ClaimBatch();
+        batch.setInsurer(insurer);
+        return claimBatchRepository.save(batch);
+    }
+
+    /**
+     * Writes the claim file to a temporary name and moves it into place, so the file is
+     * either complete or absent; a rerun after a crash simply rewrites it.
+     */
+    private void submit(ClaimBatch batch) throws IOException {
+        Files.createDirectories(directory);
+        Path claimFile = directory.resolve("claims-" + slug(batch.getInsurer()) + "-" + batch.getId() + ".csv");
+        Path tmp = claimFile.resolveSibling(claimFile.getFileName() + ".tmp");
+        BatchTotals totals;
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp)) {
+            totals = readOnlyTemplate.execute(status -> writeClaimLines(batch.getId(), writer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(tmp, claimFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        batch.setClaimFile(claimFile.toString());
+        batch.setPaymentCount(totals.count());
+        batch.setTotalAmount(totals.amount());
+        batch.setStatus(ClaimBatchStatus.SUBMITTED);
+        claimBatchRepository.save(batch);
+    }
+
+    private BatchTotals writeClaimLines(Long batchId, BufferedWriter writer) {
+        int count = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        try (Stream<ClaimLine> lines = paymentRepository.streamClaimLines(batchId)) {
+            writer.write("payment_id,policy_number,amount,service_date,patient_name");
+            writer.newLine();
+            for (Iterator<ClaimLine> it = lines.iterator(); it.hasNext(); ) {
+                ClaimLine line = it.next();
+                writer.write(line.getId() + "," + Objects.requireNonNullElse(line.getPolicyNumber(), "") + ","
+                        + line.getAmount().toPlainString() + ","
+                        + (line.getCreatedAt() == null ? "" : line.getCreatedAt().toLocalDate()) + ","
+                        + csv(line.getPatientName()));
+                writer.newLine();
+                count++;
+                amount = amount.add(line.getAmount());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new BatchTotals(count, amount);
+    }
+
+    /**
+     * Applies the insurer's results past the batch checkpoint, one chunk per transaction.
+     * The checkpoint moves with each chunk, so a crash repeats at most one chunk, and the
+     * updates only touch payments still pending, so a repeated chunk changes nothing.
+     */
+    private void settle(ClaimBatch batch) throws IOException {
+        if (batch.getResultFile() == null) {
+            Path resultFile = claimAdjudicator.adjudicate(batch.getInsurer(), Path.of(batch.getClaimFile()));
+            batch.setResultFile(resultFile.toString());
+            batch = claimBatchRepository.save(batch);
+        }
+        Long batchId = batch.getId();
+        long checkpoint = batch.getLastAppliedPaymentId();
+        List<ClaimResult> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(batch.getResultFile()))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                ClaimResult result = ClaimResult.parse(line);
+                if (result.paymentId() <= checkpoint) {
+                    continue;
+                }
+                chunk.add(result);
+                if (chunk.size() == chunkSize) {
+                    applyChunk(batchId, chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(batchId, chunk);
+        }
+
+        ClaimBatch completed = transactionTemplate.execute(status -> {
+            ClaimBatch settled = claimBatchRepository.findById(batchId).orElseThrow();
+            settled.setUnansweredCount(paymentRepository.releaseUnansweredClaims(batchId));
+            settled.setStatus(ClaimBatchStatus.COMPLETED);
+            settled.setCompletedAt(LocalDateTime.now());
+            return claimBatchRepository.save(settled);
+        });
+        log.info("Claim batch {} for {} settled: {} approved, {} denied", batchId, completed.getInsurer(),
+                completed.getApprovedCount(), completed.getDeniedCount());
+        if (completed.getUnansweredCount() > 0) {
+            log.warn("Claim batch {} for {}: {} claims missing from the results, released to be claimed again",
+                    batchId, completed.getInsurer(), completed.getUnansweredCount());
+        }
+    }
+
+    private void applyChunk(Long batchId, List<ClaimResult> chunk) {
+        paymentService.withRetry(() -> {
+            List<Long> ids = chunk.stream().map(ClaimResult::paymentId).toList();
+            Set<Long> pending = new HashSet<>(paymentRepository.findPendingClaimIds(batchId, ids));
+
+            List<Long> approved = new ArrayList<>();
+            Map<String, List<Long>> deniedByReason = new LinkedHashMap<>();
+            for (ClaimResult result : chunk) {
+                if (!pending.contains(result.paymentId())) {
+                    continue;
+                }
+                if (result.approved()) {
+                    approved.add(result.paymentId());
+                } else {
+                    deniedByReason.computeIfAbsent(result.reason(), reason -> new ArrayList<>()).add(result.paymentId());
+                }
+            }
+
+            if (!approved.isEmpty()) {
+                settle(batchId, approved, PaymentStatus.COMPLETED, null, LocalDateTime.now());
+                approved.forEach(paymentService::allocateToOpenInvoices);
+                reportRollupService.recordRevenue(approved);
+            }
+            for (Map.Entry<String, List<Long>> entry : deniedByReason.entrySet()) {
+                settle(batchId, entry.getValue(), PaymentStatus.FAILED, entry.getKey(), null);
+            }
+            List<Long> settled = new ArrayList<>(approved);
+            deniedByReason.values().forEach(settled::addAll);
+            int denied = settled.size() - approved.size();
+            outboxService.recordPaymentsChanged(settled);
+
+            ClaimBatch batch = claimBatchRepository.findById(batchId).orElseThrow();
+            batch.setApprovedCount(batch.getApprovedCount() + approved.size());
+            batch.setDeniedCount(batch.getDeniedCount() + denied);
+            batch.setLastAppliedPaymentId(chunk.get(chunk.size() - 1).paymentId());
+            return claimBatchRepository.save(batch);
+        });
+    }
+
+    /**
+     * Settles claims read as pending. If another settlement got to any of them first, the
+     * chunk is rolled back and retried, re-reading which claims are still pending, so a
+     * claim is never allocated or counted as revenue twice.
+     */
+    private void settle(Long batchId, List<Long> ids, PaymentStatus status, String reason, LocalDateTime completedAt) {
+        int updated = paymentRepository.settleClaims(batchId, ids, status, reason, completedAt);
+        if (updated != ids.size()) {
+            throw new OptimisticLockingFailureException(
+                    (ids.size() - updated) + " claims of batch " + batchId + " were settled concurrently");
+        }
+    }
+
+    private static String slug(String insurer) {
+        String slug = insurer.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+        return slug.isEmpty() ? "insurer" : slug;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private record BatchTotals(int count, BigDecimal amount) {
+    }
+
+    private record ClaimResult(long paymentId, boolean approved, String reason) {
+
+        static ClaimResult parse(String line) {
+            String[] columns = line.split(",", 3);
+            String reason = columns.length > 2 && !columns[2].isBlank() ? columns[2] : "Claim denied";
+            return new ClaimResult(Long.parseLong(columns[0]), ClaimAdjudicator.APPROVED.equals(columns[1]), reason);
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.pavan.csse.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.dto.InvoiceImportError;
+import com.pavan.csse.backend.dto.InvoiceImportSummary;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.repository.PatientRepository;
+import com.pavan.csse.backend.util.CsvReader;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Bulk invoice import from CSV. The file is parsed as it arrives, chunks of rows are
+ * validated in parallel, and the valid rows of each chunk are written in order, in one
+ * transaction per chunk: with PostgreSQL {@code COPY}, otherwise (H2 in tests) with a
+ * batched insert. Only a bounded number of chunks is in flight, so memory does not grow
+ * with the file. The result is NDJSON: one line per rejected row, then a summary.
+ */
+@Service
+public class InvoiceImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceImportService.class);
+
+    private static final Set<String> COLUMNS = Set.of("patient_id", "patient_name", "amount", "due_date");
+    private static final int MAX_RECORD_LENGTH = 4096;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("1000000000000");
+
+    private static final String COLUMN_LIST =
+            "id, patient_id, patient_name, amount, amount_paid, due_date, status, created_at, version";
+    private static final String COPY_SQL = "copy invoices (" + COLUMN_LIST + ") from stdin with (format csv)";
+    private static final String INSERT_SQL = "insert into invoices (" + COLUMN_LIST + ") values (?, ?, ?, ?, 0, ?, ?, ?, 0)";
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${invoices.import.chunk-size:5000}")
+    private int chunkSize = 5000;
+
+    @Value("${invoices.import.parallelism:4}")
+    private int parallelism = 4;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("invoice-import-", 1).factory());
+
+    public InvoiceImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private record Row(long line, List<String> fields) {
+    }
+
+    private record ValidRow(Long patientId, String patientName, BigDecimal amount, LocalDate dueDate) {
+    }
+
+    private record Chunk(long rows, List<ValidRow> valid, List<InvoiceImportError> errors, String failure, boolean last) {
+        static final Chunk END = new Chunk(0, List.of(), List.of(), null, true);
+    }
+
+    /** An import whose header has been read and checked; {@link #writeTo} runs it. */
+    public final class Import {
+        private final CsvReader reader;
+        private final Map<String, Integer> columns;
+
+        private Import(CsvReader reader, Map<String, Integer> columns) {
+            this.reader = reader;
+            this.columns = columns;
+        }
+
+        /** Imports the rows and streams the result; returns the summary written last. */
+        public InvoiceImportSummary writeTo(OutputStream out) throws IOException {
+            BlockingQueue<Future<Chunk>> chunks = new ArrayBlockingQueue<>(parallelism);
+            Future<?> parser = workers.submit(() -> parse(chunks));
+            InvoiceImportSummary summary = new InvoiceImportSummary();
+            try {
+                while (true) {
+                    Chunk chunk = next(chunks);
+                    if (chunk.rows() > 0) {
+                        write(chunk.valid());
+                        summary.setRows(summary.getRows() + chunk.rows());
+                        summary.setImported(summary.getImported() + chunk.valid().size());
+                        summary.setRejected(summary.getRejected() + chunk.errors().size());
+                        for (InvoiceImportError error : chunk.errors()) {
+                            writeLine(out, error);
+                        }
+                        out.flush();
+                    }
+                    if (chunk.failure() != null) {
+                        summary.setError(chunk.failure());
+                    }
+                    if (chunk.last()) {
+                        break;
+                    }
+                }
+            } catch (DataAccessException e) {
+                log.error("Invoice import stopped after {} rows", summary.getRows(), e);
+                summary.setError("Import stopped after " + summary.getRows() + " rows: " + e.getMostSpecificCause().getMessage());
+            } catch (RuntimeException e) {
+                // The response is already committed, so whatever stopped the import goes in the summary
+                log.error("Invoice import stopped after {} rows", summary.getRows(), e);
+                summary.setError("Import stopped after " + summary.getRows() + " rows: " + e.getMessage());
+            } finally {
+                parser.cancel(true);
+                chunks.forEach(chunk -> chunk.cancel(true));
+                reader.close();
+            }
+            writeLine(out, summary);
+            out.flush();
+            log.info("Invoice import: {} rows, {} imported, {} rejected", summary.getRows(),
+                    summary.getImported(), summary.getRejected());
+            return summary;
+        }
+
+        // Producer: reads chunks of rows and queues their validation, blocking while the queue is full
+        private void parse(BlockingQueue<Future<Chunk>> chunks) {
+            List<Row> rows = new ArrayList<>(chunkSize);
+            try {
+                try {
+                    List<String> fields;
+                    while ((fields = reader.readRecord()) != null) {
+                        rows.add(new Row(reader.getRecordLine(), fields));
+                        if (rows.size() == chunkSize) {
+                            List<Row> full = rows;
+                            chunks.put(workers.submit(() -> validate(full)));
+                            rows = new ArrayList<>(chunkSize);
+                        }
+                    }
+                } catch (IllegalArgumentException | IOException e) {
+                    String failure = "Cannot read line " + reader.getRecordLine() + ": " + e.getMessage();
+                    List<Row> remaining = rows;
+                    chunks.put(workers.submit(() -> validate(remaining)));
+                    chunks.put(CompletableFuture.completedFuture(new Chunk(0, List.of(), List.of(), failure, true)));
+                    return;
+                }
+                List<Row> remaining = rows;
+                chunks.put(workers.submit(() -> validate(remaining)));
+                chunks.put(CompletableFuture.completedFuture(Chunk.END));
+            } catch (InterruptedException e) {
+                // The import was abandoned
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Chunk next(BlockingQueue<Future<Chunk>> chunks) throws IOException {
+            try {
+                return chunks.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Invoice import interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof DataAccessException dataAccess) {
+                    throw dataAccess;
+                }
+                throw new IllegalStateException("Invoice validation failed", e.getCause());
+            }
+        }
+
+        private Chunk validate(List<Row> rows) {
+            List<ValidRow> parsed = new ArrayList<>(rows.size());
+            List<InvoiceImportError> errors = new ArrayList<>();
+            Set<Long> patientIds = new HashSet<>();
+            for (Row row : rows) {
+                try {
+                    ValidRow valid = parse(row.fields());
+                    parsed.add(valid);
+                    if (valid.patientId() != null) {
+                        patientIds.add(valid.patientId());
+                    }
+                } catch (IllegalArgumentException e) {
+                    parsed.add(null);
+                    errors.add(new InvoiceImportError(row.line(), e.getMessage()));
+                }
+            }
+            Set<Long> knownPatients = patientIds.isEmpty()
+                    ? Set.of() : new HashSet<>(patientRepository.findExistingIds(patientIds));
+
+            List<ValidRow> valid = new ArrayList<>(parsed.size());
+            for (int i = 0; i < parsed.size(); i++) {
+                ValidRow row = parsed.get(i);
+                if (row == null) {
+                    continue;
+                }
+                if (row.patientId() != null && !knownPatients.contains(row.patientId())) {
+                    errors.add(new InvoiceImportError(rows.get(i).line(), "Unknown patient " + row.patientId()));
+                } else {
+                    valid.add(row);
+                }
+            }
+            errors.sort(Comparator.comparingLong(InvoiceImportError::getLine));
+            return new Chunk(rows.size(), valid, errors, null, false);
+        }
+
+        private ValidRow parse(List<String> fields) {
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " fields, found " + fields.size());
+            }
+            String patientName = field(fields, "patient_name");
+            if (patientName == null) {
+                throw new IllegalArgumentException("Patient name is required");
+            }
+            if (patientName.length() > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Patient name is longer than " + MAX_NAME_LENGTH + " characters");
+            }
+
+            String amountField = field(fields, "amount");
+            if (amountField == null) {
+                throw new IllegalArgumentException("Amount is required");
+            }
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(amountField);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid amount: " + amountField);
+            }
+            if (amount.signum() <= 0 || amount.compareTo(MAX_AMOUNT) >= 0 || amount.stripTrailingZeros().scale() > 2) {
+                throw new IllegalArgumentException("Amount must be positive, below " + MAX_AMOUNT.toPlainString()
+                        + " and have at most two decimals: " + amountField);
+            }
+
+            Long patientId = null;
+            String patientField = field(fields, "patient_id");
+            if (patientField != null) {
+                try {
+                    patientId = Long.valueOf(patientField);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid patient id: " + patientField);
+                }
+            }
+
+            LocalDate dueDate = null;
+            String dueDateField = field(fields, "due_date");
+            if (dueDateField != null) {
+                try {
+                    dueDate = LocalDate.parse(dueDateField);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid due date, expected yyyy-mm-dd: " + dueDateField);
+                }
+            }
+            return new ValidRow(patientId, patientName, amount.setScale(2), dueDate);
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private void writeLine(OutputStream out, Object value) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Reads and checks the CSV header. It must name {@code patient_name} and {@code amount},
+     * and may name {@code patient_id} and {@code due_date}, in any order.
+     */
+    public Import start(InputStream csv) throws IOException {
+        CsvReader reader = new CsvReader(csv, MAX_RECORD_LENGTH);
+        List<String> header;
+        try {
+            header = reader.readRecord();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid CSV header: " + e.getMessage());
+        }
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (!COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + header.get(i));
+            }
+            if (columns.put(column, i) != null) {
+                throw new IllegalArgumentException("Duplicate CSV column: " + column);
+            }
+        }
+        if (!columns.containsKey("patient_name") || !columns.containsKey("amount")) {
+            throw new IllegalArgumentException("The CSV header must name patient_name and amount");
+        }
+        return new Import(reader, columns);
+    }
+
+    // One transaction per chunk: the rows, and their share of the aging rollup
+    private void write(List<ValidRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (connection.isWrapperFor(PGConnection.class)) {
+                    copy(connection, rows, now);
+                } else {
+                    insert(connection, rows, now);
+                }
+                return null;
+            });
+            Map<LocalDate, List<ValidRow>> byAgingDate = new TreeMap<>();
+            for (ValidRow row : rows) {
+                LocalDate agingDate = row.dueDate() != null ? row.dueDate() : now.toLocalDate();
+                byAgingDate.computeIfAbsent(agingDate, d -> new ArrayList<>()).add(row);
+            }
+            byAgingDate.forEach((agingDate, group) -> reportRollupService.recordOpenBalance(agingDate, group.size(),
+                    group.stream().map(ValidRow::amount).reduce(BigDecimal.ZERO, BigDecimal::add)));
+        });
+    }
+
+    private void copy(Connection connection, List<ValidRow> rows, LocalDateTime now) throws SQLException {
+        long[] ids = allocateIds(connection, rows.size(),
+                "select nextval('invoices_seq') from generate_series(1, ?)");
+        StringBuilder csv = new StringBuilder(rows.size() * 64);
+        String createdAt = Timestamp.valueOf(now).toString();
+        for (int i = 0; i < rows.size(); i++) {
+            ValidRow row = rows.get(i);
+            csv.append(ids[i]).append(',')
+                    .append(row.patientId() != null ? row.patientId().toString() : "").append(',')
+                    .append('"').append(row.patientName().replace("\"", "\"\"")).append("\",")
+                    .append(row.amount().toPlainString()).append(",0,")
+                    .append(row.dueDate() != null ? row.dueDate().toString() : "").append(',')
+                    .append(InvoiceStatus.OUTSTANDING.name()).append(',')
+                    .append(createdAt).append(",0\n");
+        }
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        try {
+            copyManager.copyIn(COPY_SQL, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into invoices failed", e);
+        }
+    }
+
+    private void insert(Connection connection, List<ValidRow> rows, LocalDateTime now) throws SQLException {
+        long[] ids = allocateIds(connection, rows.size(),
+                "select next value for invoices_seq from system_range(1, ?)");
+        Timestamp createdAt = Timestamp.valueOf(now);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < rows.size(); i++) {
+                ValidRow row = rows.get(i);
+                insert.setLong(1, ids[i]);
+                insert.setObject(2, row.patientId(), Types.BIGINT);
+                insert.setString(3, row.patientName());
+                insert.setBigDecimal(4, row.amount());
+                insert.setObject(5, row.dueDate() != null ? Date.valueOf(row.dueDate()) : null, Types.DATE);
+                insert.setString(6, InvoiceStatus.OUTSTANDING.name());
+                insert.setTimestamp(7, createdAt);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // Each sequence value is the low end of a block of Invoice.ID_ALLOCATION_SIZE ids, as with the entity's pooled-lo ids
+    private static long[] allocateIds(Connection connection, int count, String nextValuesSql) throws SQLException {
+        int blocks = (count + Invoice.ID_ALLOCATION_SIZE - 1) / Invoice.ID_ALLOCATION_SIZE;
+        long[] ids = new long[count];
+        try (PreparedStatement nextValues = connection.prepareStatement(nextValuesSql)) {
+            nextValues.setInt(1, blocks);
+            try (ResultSet rs = nextValues.executeQuery()) {
+                int i = 0;
+                while (rs.next() && i < count) {
+                    long low = rs.getLong(1);
+                    for (int j = 0; j < Invoice.ID_ALLOCATION_SIZE && i < count; j++) {
+                        ids[i++] = low + j;
+                    }
+                }
+                if (i < count) {
+                    throw new SQLException("invoices_seq returned too few values");
+                }
+            }
+        }
+        return ids;
+    }
+}
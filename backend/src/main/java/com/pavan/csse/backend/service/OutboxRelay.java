@@ -0,0 +1,98 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.events.DomainEvent;
+import com.pavan.csse.backend.events.EventBus;
+import com.pavan.csse.backend.model.OutboxEvent;
+import com.pavan.csse.backend.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves committed outbox rows onto the event bus in id order, a batch at a time, and
+ * stamps them as published. A crash between the two republishes the batch, so
+ * consumers see each event at least once and can deduplicate by event id.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${events.relay.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${events.outbox.retention:7d}")
+    private Duration retention = Duration.ofDays(7);
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(fixedDelayString = "${events.relay.interval:1000}", initialDelayString = "${events.relay.interval:1000}")
+    public void runScheduled() {
+        relay();
+    }
+
+    /**
+     * Publishes everything committed so far and returns the number of events published.
+     * Returns 0 without waiting when a relay pass is already running.
+     */
+    public int relay() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            int published = 0;
+            while (true) {
+                List<OutboxEvent> batch = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                eventBus.publish(batch.stream()
+                        .map(e -> DomainEvent.unpositioned(e.getId(), e.getEventType(), e.getEventKey(),
+                                e.getAggregateId(), e.getPayload(), e.getCreatedAt()))
+                        .toList());
+                List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxEventRepository.markPublished(ids, LocalDateTime.now()));
+                published += batch.size();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            // Also retries consumers that failed on an earlier event
+            eventBus.wakeUp();
+            return published;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.outbox.cleanup-interval:3600000}")
+    public void purgePublished() {
+        Integer deleted = new TransactionTemplate(transactionManager).execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+    }
+}
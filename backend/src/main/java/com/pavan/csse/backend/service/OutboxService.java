@@ -0,0 +1,91 @@
+package com.pavan.csse.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.dto.AllocatedInvoice;
+import com.pavan.csse.backend.dto.PaymentChangedEvent;
+import com.pavan.csse.backend.dto.PaymentEventView;
+import com.pavan.csse.backend.model.OutboxEvent;
+import com.pavan.csse.backend.repository.OutboxEventRepository;
+import com.pavan.csse.backend.repository.PaymentAllocationRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Writes payment events to the outbox in the transaction that changed the payment, so
+ * an event exists exactly when its change was committed. {@link OutboxRelay} publishes
+ * them afterwards.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentAllocationRepository paymentAllocationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Records the current state of the payment as a {@code PAYMENT_<status>} event. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPaymentChanged(Long paymentId) {
+        recordPaymentsChanged(List.of(paymentId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPaymentsChanged(Collection<Long> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return;
+        }
+        Map<Long, List<PaymentChangedEvent.Allocation>> allocations = new HashMap<>();
+        for (AllocatedInvoice allocated : paymentAllocationRepository.findAllocatedInvoices(paymentIds)) {
+            allocations.computeIfAbsent(allocated.getPaymentId(), id -> new ArrayList<>()).add(new PaymentChangedEvent.Allocation(
+                    allocated.getInvoiceId(), allocated.getAmount(), allocated.getInvoiceStatus()));
+        }
+
+        List<OutboxEvent> events = new ArrayList<>(paymentIds.size());
+        for (PaymentEventView payment : paymentRepository.findEventViews(paymentIds)) {
+            PaymentChangedEvent payload = new PaymentChangedEvent(payment.getId(), payment.getPatientId(),
+                    payment.getPatientName(), payment.getMethod(), payment.getStatus(), payment.getAmount(),
+                    payment.getGatewayReference(), payment.getFailureReason(), payment.getCompletedAt(),
+                    allocations.getOrDefault(payment.getId(), List.of()));
+            OutboxEvent event = new OutboxEvent();
+            event.setEventKey(key(payment));
+            event.setEventType("PAYMENT_" + payment.getStatus().name());
+            event.setAggregateId(payment.getId());
+            event.setPayload(json(payload));
+            events.add(event);
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    // Ordering is per patient; payments on name-only invoices fall back to the name
+    private static String key(PaymentEventView payment) {
+        if (payment.getPatientId() != null) {
+            return "patient:" + payment.getPatientId();
+        }
+        if (payment.getPatientName() != null) {
+            String key = "name:" + payment.getPatientName();
+            return key.length() > 100 ? key.substring(0, 100) : key;
+        }
+        return "payment:" + payment.getId();
+    }
+
+    private String json(PaymentChangedEvent payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize payment event", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.dto.InvoiceSummary;
+import com.pavan.csse.backend.dto.PatientInvoiceTotals;
+import com.pavan.csse.backend.dto.PatientInvoicesPage;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PatientRepository;
+import com.pavan.csse.backend.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A patient's invoices, keyset-paginated by id, with outstanding and overdue totals
+ * aggregated in the database over all of them.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PatientService {
+
+    private static final String SORT = "invoice";
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Value("${listing.page-size.default:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${listing.page-size.max:100}")
+    private int maxPageSize = 100;
+
+    public PatientInvoicesPage listInvoices(Long patientId, InvoiceStatus status, String cursor, Integer size) {
+        if (!patientRepository.existsById(patientId)) {
+            throw new IllegalArgumentException("Patient not found");
+        }
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        long afterId = KeysetCursor.decode(cursor, SORT).id();
+
+        // One extra row tells whether another page exists without a COUNT query
+        Limit limit = Limit.of(pageSize + 1);
+        List<InvoiceSummary> rows = status == null
+                ? invoiceRepository.findPatientInvoicesAfterId(patientId, afterId, limit)
+                : invoiceRepository.findPatientInvoicesByStatusAfterId(patientId, status, afterId, limit);
+        PatientInvoiceTotals totals = invoiceRepository.summarizePatient(patientId, LocalDate.now());
+
+        if (rows.size() <= pageSize) {
+            return new PatientInvoicesPage(totals, rows, null, false);
+        }
+        List<InvoiceSummary> items = List.copyOf(rows.subList(0, pageSize));
+        String next = new KeysetCursor(SORT, "", "", items.get(pageSize - 1).getId()).encode();
+        return new PatientInvoicesPage(totals, items, next, true);
+    }
+}
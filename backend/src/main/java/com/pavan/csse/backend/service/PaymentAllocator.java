@@ -0,0 +1,96 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.dto.InvoiceBalance;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Spreads a payment over invoices, oldest due date first. Open balances are streamed
+ * and allocation rows are written in JDBC batches, so memory stays constant however
+ * many invoices the payment covers. The invoices themselves are then moved to PAID or
+ * PARTIALLY_PAID by a single statement driven by the allocation rows, and the aging
+ * rollup is reduced by what was allocated.
+ */
+@Service
+public class PaymentAllocator {
+
+    private static final String INSERT_ALLOCATION =
+            "insert into payment_allocations (payment_id, invoice_id, amount, created_at) values (?, ?, ?, ?)";
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Value("${payments.allocation.batch-size:500}")
+    private int batchSize = 500;
+
+    /**
+     * Allocates up to {@code amount} to the open invoices among {@code invoiceIds} and
+     * returns the amount actually allocated; anything beyond the open balance is left
+     * unallocated. {@code expectedBalance} is the open balance the caller validated.
+     * Throws {@link OptimisticLockingFailureException} when a concurrent payment changed
+     * one of the invoices since, rolling back the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal allocate(Long paymentId, Collection<Long> invoiceIds, BigDecimal amount, BigDecimal expectedBalance) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        BigDecimal remaining = amount;
+        BigDecimal seenBalance = BigDecimal.ZERO;
+        int allocations = 0;
+
+        try (Stream<InvoiceBalance> balances = invoiceRepository.streamOpenBalances(invoiceIds)) {
+            Iterator<InvoiceBalance> it = balances.iterator();
+            while (remaining.signum() > 0 && it.hasNext()) {
+                InvoiceBalance invoice = it.next();
+                seenBalance = seenBalance.add(invoice.getBalance());
+                BigDecimal share = remaining.min(invoice.getBalance());
+                if (share.signum() <= 0) {
+                    continue;
+                }
+                batch.add(new Object[]{paymentId, invoice.getId(), share, now});
+                remaining = remaining.subtract(share);
+                allocations++;
+                if (batch.size() == batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_ALLOCATION, batch);
+                    batch.clear();
+                }
+            }
+        }
+        // Ran out of invoices with money left: some were paid after the caller validated them
+        if (remaining.signum() > 0 && seenBalance.compareTo(expectedBalance) != 0) {
+            throw new OptimisticLockingFailureException("Invoices were paid by a concurrent payment");
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ALLOCATION, batch);
+        }
+
+        if (allocations > 0 && invoiceRepository.applyAllocations(paymentId) != allocations) {
+            throw new OptimisticLockingFailureException("Invoices were paid by a concurrent payment");
+        }
+        if (allocations > 0) {
+            reportRollupService.recordAllocations(paymentId);
+        }
+        return amount.subtract(remaining);
+    }
+}
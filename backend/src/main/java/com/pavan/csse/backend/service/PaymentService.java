@@ -1,61 +1,338 @@
-package main.java.com.pavan.csse.backend.service;
+package com.pavan.csse.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.dto.InvoiceSelection;
+import com.pavan.csse.backend.dto.PaymentStatusView;
 import com.pavan.csse.backend.dto.ProcessPaymentRequest;
 import com.pavan.csse.backend.dto.ProcessPaymentResponse;
+import com.pavan.csse.backend.gateway.CardPaymentPipeline;
+import com.pavan.csse.backend.gateway.PaymentGateway.ChargeRequest;
+import com.pavan.csse.backend.gateway.PaymentGateway.ChargeResult;
 import com.pavan.csse.backend.model.*;
 import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PatientRepository;
 import com.pavan.csse.backend.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 @Service
 public class PaymentService {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
+    private static final Pattern POLICY_NUMBER = Pattern.compile("[A-Za-z0-9./-]{1,100}");
+
     private final PaymentRepository paymentRepository;
     private final InvoiceRepository invoiceRepository;
+    private final PatientRepository patientRepository;
+    private final IdempotencyService idempotencyService;
+    private final PaymentAllocator paymentAllocator;
+    private final CardPaymentPipeline cardPaymentPipeline;
+    private final ReportRollupService reportRollupService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${payments.settlement.max-attempts:3}")
+    private int settlementMaxAttempts = 3;
+
+    @Value("${payments.settlement.backoff:20ms}")
+    private Duration settlementBackoff = Duration.ofMillis(20);
 
-    public PaymentService(PaymentRepository paymentRepository, InvoiceRepository invoiceRepository) {
+    @Value("${payments.gateway.stale-after:5m}")
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    public PaymentService(PaymentRepository paymentRepository, InvoiceRepository invoiceRepository,
+                          PatientRepository patientRepository, IdempotencyService idempotencyService, PaymentAllocator paymentAllocator,
+                          CardPaymentPipeline cardPaymentPipeline, ReportRollupService reportRollupService,
+                          OutboxService outboxService, PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper) {
         this.paymentRepository = paymentRepository;
         this.invoiceRepository = invoiceRepository;
+        this.patientRepository = patientRepository;
+        this.idempotencyService = idempotencyService;
+        this.paymentAllocator = paymentAllocator;
+        this.cardPaymentPipeline = cardPaymentPipeline;
+        this.reportRollupService = reportRollupService;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
     }
 
-    public ProcessPaymentResponse processPayment(ProcessPaymentRequest req) {
-        // Simple validation: ensure invoices exist and are outstanding
-        List<Invoice> invoices = invoiceRepository.findAllById(req.getInvoiceIds());
-        if (invoices.isEmpty()) {
-            throw new IllegalArgumentException("No invoices found");
+    /**
+     * Processes the payment in one transaction. With an idempotency key, a retried request
+     * from the same user returns the response stored for the first attempt without touching
+     * payments or invoices.
+     */
+    public IdempotencyService.Outcome processPayment(ProcessPaymentRequest req, String username, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new IdempotencyService.Outcome(processAndCharge(req, null, null, null), false);
+        }
+        String requestHash = requestHash(req);
+        // A replay returns the stored PROCESSING response and never charges the card again
+        return idempotencyService.execute(username, idempotencyKey, requestHash,
+                () -> processAndCharge(req, username, idempotencyKey, requestHash));
+    }
+
+    /**
+     * Records the payment and, for a card payment, hands the charge to the gateway pipeline
+     * once the PROCESSING row is committed. The outcome arrives in {@link #completeCardPayment}.
+     */
+    private ProcessPaymentResponse processAndCharge(ProcessPaymentRequest req, String username,
+                                                    String idempotencyKey, String requestHash) {
+        ProcessPaymentResponse response = withRetry(() -> process(req, username, idempotencyKey, requestHash));
+        if (req.getMethod() == PaymentMethod.CARD) {
+            Long paymentId = response.getPaymentId();
+            // Not charged once the stale sweep has failed the payment
+            boolean queued = cardPaymentPipeline.submit(new ChargeRequest(paymentId, req.getAmount(), req.getDetails()),
+                    () -> paymentRepository.existsByIdAndStatus(paymentId, PaymentStatus.PROCESSING),
+                    result -> completeCardPayment(paymentId, result));
+            if (!queued) {
+                completeCardPayment(paymentId, ChargeResult.failed("Card gateway busy, please retry"));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Applies the gateway's answer to a PROCESSING card payment. An approved charge is
+     * allocated to whatever is still open on its invoices; a declined or failed one leaves
+     * the invoices untouched. Answers for payments no longer PROCESSING are ignored, except
+     * an approval for a payment the stale sweep failed: that money was taken, so the payment
+     * is completed unallocated and flagged for a refund.
+     */
+    public void completeCardPayment(Long paymentId, ChargeResult result) {
+        try {
+            withRetry(() -> finishCardPayment(paymentId, result));
+        } catch (IllegalStateException e) {
+            // The card was charged but the invoices kept changing; keep the money on record
+            log.error("Card payment {} approved but not allocated", paymentId, e);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (paymentRepository.finishProcessing(paymentId, PaymentStatus.COMPLETED, result.reference(),
+                        "Approved but not allocated to invoices", LocalDateTime.now()) > 0) {
+                    reportRollupService.recordRevenue(List.of(paymentId));
+                    outboxService.recordPaymentChanged(paymentId);
+                }
+            });
+        }
+    }
+
+    private Boolean finishCardPayment(Long paymentId, ChargeResult result) {
+        PaymentStatus status = result.approved() ? PaymentStatus.COMPLETED : PaymentStatus.FAILED;
+        LocalDateTime completedAt = result.approved() ? LocalDateTime.now() : null;
+        if (paymentRepository.finishProcessing(paymentId, status, result.reference(), result.reason(), completedAt) == 0) {
+            if (result.approved()) {
+                recordLateApproval(paymentId, result);
+            }
+            return false;
+        }
+        if (result.approved()) {
+            allocateToOpenInvoices(paymentId);
+            reportRollupService.recordRevenue(List.of(paymentId));
+        }
+        outboxService.recordPaymentChanged(paymentId);
+        return true;
+    }
+
+    private void recordLateApproval(Long paymentId, ChargeResult result) {
+        log.error("Card payment {} approved by the gateway ({}) after it was no longer PROCESSING; refund needed",
+                paymentId, result.reference());
+        if (paymentRepository.completeFailedPayment(paymentId, result.reference(),
+                "Approved after the payment had failed; not allocated to invoices, refund needed",
+                LocalDateTime.now()) > 0) {
+            reportRollupService.recordRevenue(List.of(paymentId));
+            outboxService.recordPaymentChanged(paymentId);
+        }
+    }
+
+    /**
+     * Allocates an approved card or insurance payment to whatever is still open on the
+     * invoices it was made for. Must run inside the transaction that approved it.
+     */
+    void allocateToOpenInvoices(Long paymentId) {
+        Payment payment = getPayment(paymentId);
+        if (payment.getInvoiceIds().isEmpty()) {
+            return;
         }
+        Set<Long> invoiceIds = new LinkedHashSet<>(payment.getInvoiceIds());
+        BigDecimal openBalance = invoiceRepository.summarizeSelection(invoiceIds).getBalance();
+        paymentAllocator.allocate(paymentId, invoiceIds, payment.getAmount(), openBalance);
+    }
 
-        BigDecimal total = invoices.stream().map(Invoice::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-        if (req.getAmount() == null || req.getAmount().compareTo(total) < 0) {
-            throw new IllegalArgumentException("Amount is less than invoice total - partial payments not supported in this version");
+    /**
+     * Fails card payments whose gateway answer never arrived, e.g. because the server
+     * restarted while the charge was queued. A charge still queued is then not sent; one
+     * already in flight that is approved is handled by {@link #completeCardPayment}.
+     */
+    @Scheduled(fixedDelayString = "${payments.gateway.sweep-interval:60000}")
+    public void failStalePayments() {
+        List<Long> failed = transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (Long id : paymentRepository.findProcessingIdsBefore(LocalDateTime.now().minus(staleAfter))) {
+                // Skips payments whose answer arrived in the meantime
+                if (paymentRepository.finishProcessing(id, PaymentStatus.FAILED, null,
+                        "No response from card gateway", null) > 0) {
+                    ids.add(id);
+                }
+            }
+            outboxService.recordPaymentsChanged(ids);
+            return ids;
+        });
+        if (failed != null && !failed.isEmpty()) {
+            log.warn("Failed {} card payments stuck in PROCESSING", failed.size());
+        }
+    }
+
+    public PaymentStatusView getPaymentStatus(Long id) {
+        return paymentRepository.findStatusById(id).orElseThrow(() -> new IllegalArgumentException("Payment not found"));
+    }
+
+    /**
+     * Runs the work in a transaction, retrying it when a concurrent write wins the optimistic
+     * check. A retry re-reads the balances, so an invoice settled in the meantime fails
+     * validation or receives a smaller share instead of being paid twice.
+     */
+    <T> T withRetry(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= settlementMaxAttempts) {
+                    throw new IllegalStateException("Invoices are being settled concurrently, please retry");
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private ProcessPaymentResponse process(ProcessPaymentRequest req, String username,
+                                           String idempotencyKey, String requestHash) {
+        if (req.getInvoiceIds() == null || req.getInvoiceIds().isEmpty()) {
+            throw new IllegalArgumentException("No invoices found");
+        }
+        if (req.getAmount() == null || req.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+        Set<Long> invoiceIds = new LinkedHashSet<>(req.getInvoiceIds());
+        // Validated with one aggregate query; the invoices themselves are streamed by the allocator
+        InvoiceSelection selection = invoiceRepository.summarizeSelection(invoiceIds);
+        if (selection.getFound() == 0) {
+            throw new IllegalArgumentException("No invoices found");
+        }
+        if (selection.getFound() != invoiceIds.size()) {
+            throw new IllegalArgumentException("Invoice not found");
+        }
+        if (selection.getUnpayable() > 0) {
+            throw new IllegalArgumentException("One or more invoices are not outstanding");
+        }
+        if (selection.getPatientCount() > 1) {
+            throw new IllegalArgumentException("Invoices belong to different patients");
+        }
+        if (req.getPatientId() != null && selection.getPatientId() != null
+                && !req.getPatientId().equals(selection.getPatientId())) {
+            throw new IllegalArgumentException("Invoices do not belong to the patient");
+        }
+        // There is no customer credit to hold a remainder, so nothing beyond the open balance is taken
+        if (req.getAmount().compareTo(selection.getBalance()) > 0) {
+            throw new IllegalArgumentException("Amount exceeds the outstanding balance");
         }
 
         Payment p = new Payment();
         p.setAmount(req.getAmount());
         p.setMethod(req.getMethod());
-        p.setPatientName(invoices.get(0).getPatientName());
+        p.setPatientName(selection.getPatientName());
+        if (selection.getPatientId() != null) {
+            p.setPatient(patientRepository.getReferenceById(selection.getPatientId()));
+        }
 
-        // Mock processing for card
-        if (req.getMethod() == PaymentMethod.CARD) {
-            // pretend to call a gateway; randomly fail if card details indicate failure
-            p.setStatus(PaymentStatus.COMPLETED);
-        } else if (req.getMethod() == PaymentMethod.INSURANCE) {
+        if (req.getMethod() == PaymentMethod.INSURANCE) {
+            String insurer = detail(req.getDetails(), "insurer");
+            if (insurer == null || insurer.length() > 100) {
+                throw new IllegalArgumentException("Insurer is required for insurance payments");
+            }
+            String policyNumber = detail(req.getDetails(), "policyNumber");
+            if (policyNumber != null && !POLICY_NUMBER.matcher(policyNumber).matches()) {
+                throw new IllegalArgumentException("Invalid policy number");
+            }
+            // Invoices stay outstanding until the claim batch job settles the claim
             p.setStatus(PaymentStatus.INSURANCE_PENDING);
-            // mark invoices still outstanding until claim succeeds
+            p.setInsurer(insurer);
+            p.setPolicyNumber(policyNumber);
+            p.getInvoiceIds().addAll(invoiceIds);
+        } else if (req.getMethod() == PaymentMethod.CARD) {
+            // Charged asynchronously; invoices are allocated when the gateway approves
+            p.setStatus(PaymentStatus.PROCESSING);
+            p.getInvoiceIds().addAll(invoiceIds);
         } else {
             p.setStatus(PaymentStatus.COMPLETED);
-            // mark invoices paid
-            invoices.forEach(inv -> inv.setStatus(InvoiceStatus.PAID));
-            invoiceRepository.saveAll(invoices);
+            p.setCompletedAt(LocalDateTime.now());
         }
 
-        Payment saved = paymentRepository.save(p);
+        // Flushed now: ids come from a sequence, so the insert would otherwise wait for commit,
+        // and the allocation, rollup and outbox SQL below read the row
+        Payment saved = paymentRepository.saveAndFlush(p);
+        if (saved.getStatus() == PaymentStatus.COMPLETED) {
+            // Partial amounts pay the oldest invoices first; the last one touched may stay PARTIALLY_PAID
+            BigDecimal allocated = paymentAllocator.allocate(saved.getId(), invoiceIds, saved.getAmount(),
+                    selection.getBalance());
+            // Revenue is the full amount, so all of it must have gone to invoices; a retry re-validates
+            if (allocated.compareTo(saved.getAmount()) != 0) {
+                throw new OptimisticLockingFailureException("Invoices were paid by a concurrent payment");
+            }
+            reportRollupService.recordRevenue(List.of(saved.getId()));
+        }
+        outboxService.recordPaymentChanged(saved.getId());
 
         String receiptUrl = "/api/payments/" + saved.getId() + "/receipt";
-        return new ProcessPaymentResponse(saved.getId(), saved.getStatus().name(), receiptUrl);
+        ProcessPaymentResponse response = new ProcessPaymentResponse(saved.getId(), saved.getStatus().name(), receiptUrl);
+        if (idempotencyKey != null) {
+            idempotencyService.record(username, idempotencyKey, requestHash, response);
+        }
+        return response;
+    }
+
+    private static String detail(Object details, String key) {
+        if (details instanceof Map<?, ?> map && map.get(key) instanceof String value && !value.isBlank()) {
+            return value.trim();
+        }
+        return null;
+    }
+
+    private void backOff(int attempt) {
+        long maxMillis = settlementBackoff.toMillis() << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying payment");
+        }
+    }
+
+    private String requestHash(ProcessPaymentRequest req) {
+        try {
+            return IdempotencyService.hash(objectMapper.writeValueAsBytes(req));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid payment request");
+        }
     }
 
     public Payment getPayment(Long id) {
@@ -0,0 +1,331 @@
+package com.pavan.csse.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.config.JwtUserPrincipal;
+import com.pavan.csse.backend.dto.PaymentChangedEvent;
+import com.pavan.csse.backend.dto.PaymentEventView;
+import com.pavan.csse.backend.dto.PaymentStatusUpdate;
+import com.pavan.csse.backend.events.DomainEvent;
+import com.pavan.csse.backend.events.EventBus;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes payment status changes to connected clients over Server-Sent Events, fed by the
+ * payment events on the event bus. An open stream holds no thread: fan-out only offers
+ * the update to each matching client's bounded buffer, and a client's buffer is written
+ * out by a virtual thread that exists only while there is something to send. A client
+ * whose buffer overflows, or whose write stalls past the write timeout, is disconnected
+ * so it cannot hold up anyone else; it reconnects and reads the current status again.
+ * A stream never outlives the access token it was opened with, and is closed as soon as
+ * its user is deactivated, deleted, changes role or has their tokens revoked; the client
+ * then reconnects with a fresh token, if it can get one.
+ */
+@Service
+public class PaymentStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentStreamService.class);
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${payments.stream.buffer-size:64}")
+    private int bufferSize = 64;
+
+    @Value("${payments.stream.max-per-user:5}")
+    private int maxPerUser = 5;
+
+    @Value("${payments.stream.max-clients:10000}")
+    private int maxClients = 10000;
+
+    @Value("${payments.stream.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    @Value("${payments.stream.write-timeout:10s}")
+    private Duration writeTimeout = Duration.ofSeconds(10);
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> streamsPerUser = new ConcurrentHashMap<>();
+    private final ExecutorService writers =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("payment-stream-", 1).factory());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribeToPaymentEvents() {
+        eventBus.subscribe("payment-stream", EventBus.StartPosition.LATEST, this::onPaymentEvent);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(client -> client.close(false));
+        writers.shutdownNow();
+    }
+
+    /**
+     * Opens a stream of status updates for one payment, one patient's payments, or all
+     * payments when both filters are null; only admins and staff may stream all payments,
+     * as only they may see the payments dashboard. A stream for a single payment starts
+     * with its current status, so a client never misses a change made before it connected.
+     * With a token-based principal the stream times out when the token expires.
+     */
+    public SseEmitter open(Authentication authentication, Long paymentId, Long patientId) {
+        if (paymentId == null && patientId == null && !canSeeAllPayments(authentication)) {
+            throw new AccessDeniedException("Only admins and staff may stream all payments");
+        }
+        String username = authentication.getName();
+        JwtUserPrincipal principal = authentication.getPrincipal() instanceof JwtUserPrincipal jwt ? jwt : null;
+        long timeoutMillis = timeout.toMillis();
+        if (principal != null && principal.getExpiresAt() != null) {
+            long untilExpiry = Duration.between(Instant.now(), principal.getExpiresAt()).toMillis();
+            if (untilExpiry <= 0) {
+                throw new IllegalArgumentException("Access token has expired");
+            }
+            timeoutMillis = Math.min(timeoutMillis, untilExpiry);
+        }
+        if (clients.size() >= maxClients) {
+            throw new StreamLimitExceededException("Too many open payment streams, please retry later");
+        }
+        streamsPerUser.compute(username, (u, count) -> {
+            if (count != null && count >= maxPerUser) {
+                throw new StreamLimitExceededException("At most " + maxPerUser + " payment streams per user");
+            }
+            return count == null ? 1 : count + 1;
+        });
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Client client = new Client(emitter, username, principal, paymentId, patientId);
+        emitter.onCompletion(() -> client.close(false));
+        emitter.onTimeout(() -> client.close(true));
+        emitter.onError(error -> client.close(true));
+        clients.add(client);
+
+        if (paymentId != null) {
+            List<PaymentEventView> current = paymentRepository.findEventViews(List.of(paymentId));
+            if (current.isEmpty()) {
+                client.close(true);
+                throw new IllegalArgumentException("Payment not found");
+            }
+            PaymentEventView payment = current.get(0);
+            client.offer(update(null, new PaymentStatusUpdate(payment.getId(), payment.getPatientId(),
+                    payment.getPatientName(), payment.getMethod(), payment.getStatus(), payment.getAmount(),
+                    payment.getFailureReason())));
+        } else {
+            // Flushes the response headers so the client sees the stream as open
+            client.offer(SseEmitter.event().comment("connected").build());
+        }
+        return emitter;
+    }
+
+    private static boolean canSeeAllPayments(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(authority -> authority.equals("ROLE_ADMIN") || authority.equals("ROLE_STAFF"));
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /** Closes the streams of a user whose change revokes the tokens they were opened with. */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getChangeType() == UserChangedEvent.ChangeType.CREATED || clients.isEmpty()) {
+            return;
+        }
+        for (Client client : clients) {
+            if (client.revokedBy(event)) {
+                log.info("Closing payment stream of {} after a change to the user", client.username);
+                client.close(true);
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds clients whose write has been
+     * stuck longer than the write timeout.
+     */
+    @Scheduled(fixedDelayString = "${payments.stream.heartbeat-interval:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("heartbeat").build();
+        for (Client client : clients) {
+            long started = client.writeStartedAt;
+            if (started != 0 && now - started > writeTimeout.toNanos()) {
+                log.info("Disconnecting stalled payment stream of {}", client.username);
+                client.close(true);
+            } else {
+                client.offer(ping);
+            }
+        }
+    }
+
+    void onPaymentEvent(DomainEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        PaymentChangedEvent payment;
+        try {
+            payment = objectMapper.readValue(event.payload(), PaymentChangedEvent.class);
+        } catch (JsonProcessingException e) {
+            log.error("Skipping unreadable payment event {}", event.eventId(), e);
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> update = update(event.eventId(), new PaymentStatusUpdate(payment.getPaymentId(),
+                payment.getPatientId(), payment.getPatientName(), payment.getMethod(), payment.getStatus(),
+                payment.getAmount(), payment.getFailureReason()));
+        for (Client client : clients) {
+            if (client.matches(payment)) {
+                client.offer(update);
+            }
+        }
+    }
+
+    // Built once and shared by every client it is sent to
+    private static Set<ResponseBodyEmitter.DataWithMediaType> update(Long eventId, PaymentStatusUpdate update) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (eventId != null) {
+            builder.id(eventId.toString());
+        }
+        return builder.name("payment").data(update, MediaType.APPLICATION_JSON).build();
+    }
+
+    private final class Client {
+        private final SseEmitter emitter;
+        private final String username;
+        // The token's claims; null for a principal not built from a token
+        private final JwtUserPrincipal principal;
+        private final Long paymentId;
+        private final Long patientId;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // System.nanoTime() when the current write started; 0 while idle
+        private volatile long writeStartedAt;
+
+        private Client(SseEmitter emitter, String username, JwtUserPrincipal principal, Long paymentId, Long patientId) {
+            this.emitter = emitter;
+            this.username = username;
+            this.principal = principal;
+            this.paymentId = paymentId;
+            this.patientId = patientId;
+        }
+
+        private boolean matches(PaymentChangedEvent payment) {
+            if (paymentId != null) {
+                return paymentId.equals(payment.getPaymentId());
+            }
+            return patientId == null || patientId.equals(payment.getPatientId());
+        }
+
+        // The same checks UserRevocationRegistry applies to the token on each request
+        private boolean revokedBy(UserChangedEvent event) {
+            if (principal == null) {
+                return username.equals(event.getUsername())
+                        && (event.getChangeType() == UserChangedEvent.ChangeType.REMOVED || !event.isActive());
+            }
+            return principal.getId().equals(event.getUserId())
+                    && (event.getChangeType() == UserChangedEvent.ChangeType.REMOVED
+                    || !event.isActive()
+                    || event.getRole() != principal.getRole()
+                    || event.getSecurityVersion() > principal.getSecurityVersion());
+        }
+
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                log.info("Disconnecting slow payment stream of {}", username);
+                close(true);
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (writing.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    writing.set(false);
+                    close(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    writeStartedAt = System.nanoTime();
+                    emitter.send(event);
+                    writeStartedAt = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away
+                close(false);
+            } finally {
+                writeStartedAt = 0;
+                writing.set(false);
+            }
+            // An offer may have raced with the end of the loop
+            if (!buffer.isEmpty() && !closed.get()) {
+                scheduleDrain();
+            }
+        }
+
+        /** Removes the client; {@code complete} also ends the response, when it is still open. */
+        private void close(boolean complete) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            clients.remove(this);
+            streamsPerUser.compute(username, (u, count) -> count == null || count <= 1 ? null : count - 1);
+            buffer.clear();
+            if (complete) {
+                // Off the caller's thread: completing waits for a stalled write to give up
+                try {
+                    writers.execute(() -> {
+                        try {
+                            emitter.complete();
+                        } catch (RuntimeException e) {
+                            // Already completed by the container
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Shutting down; the container closes the connection
+                }
+            }
+        }
+    }
+}
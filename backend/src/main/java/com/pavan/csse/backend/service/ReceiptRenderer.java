@@ -0,0 +1,127 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.dto.ReceiptView;
+import com.pavan.csse.backend.util.SimplePdfWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lays out a receipt as HTML or PDF, writing to the stream as it goes. Output depends
+ * only on the view, never on the clock or locale.
+ */
+final class ReceiptRenderer {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final float MARGIN = 56;
+    private static final float LINE_HEIGHT = 16;
+
+    private ReceiptRenderer() {
+    }
+
+    static void html(ReceiptView receipt, OutputStream out) throws IOException {
+        BufferedWriter w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n<title>Receipt #"
+                + receipt.getPaymentId() + "</title>\n<style>body{font-family:Helvetica,Arial,sans-serif;margin:2em;}"
+                + "table{border-collapse:collapse;}th,td{padding:4px 12px;text-align:left;}"
+                + "td.amount{text-align:right;}thead th{border-bottom:1px solid #888;}</style>\n</head>\n<body>\n");
+        w.write("<h1>Payment Receipt</h1>\n<table class=\"summary\">\n");
+        for (String[] field : fields(receipt)) {
+            w.write("<tr><th>" + escape(field[0]) + "</th><td>" + escape(field[1]) + "</td></tr>\n");
+        }
+        w.write("</table>\n");
+        if (!receipt.getLines().isEmpty()) {
+            w.write("<h2>Applied to invoices</h2>\n<table class=\"lines\">\n"
+                    + "<thead><tr><th>Invoice</th><th>Amount</th></tr></thead>\n<tbody>\n");
+            for (ReceiptView.Line line : receipt.getLines()) {
+                w.write("<tr><td>#" + line.getInvoiceId() + "</td><td class=\"amount\">"
+                        + money(line.getAmount()) + "</td></tr>\n");
+            }
+            w.write("</tbody>\n</table>\n");
+        }
+        w.write("</body>\n</html>\n");
+        w.flush();
+    }
+
+    static void pdf(ReceiptView receipt, OutputStream out) throws IOException {
+        SimplePdfWriter pdf = new SimplePdfWriter(out);
+        pdf.beginPage();
+        float y = SimplePdfWriter.PAGE_HEIGHT - MARGIN;
+        pdf.text(MARGIN, y, 20, true, "Payment Receipt");
+        y -= 2 * LINE_HEIGHT;
+        for (String[] field : fields(receipt)) {
+            pdf.text(MARGIN, y, 11, true, field[0]);
+            pdf.text(MARGIN + 120, y, 11, false, field[1]);
+            y -= LINE_HEIGHT;
+        }
+        if (!receipt.getLines().isEmpty()) {
+            y -= LINE_HEIGHT;
+            pdf.text(MARGIN, y, 13, true, "Applied to invoices");
+            y -= LINE_HEIGHT;
+            for (ReceiptView.Line line : receipt.getLines()) {
+                if (y < MARGIN) {
+                    pdf.endPage();
+                    pdf.beginPage();
+                    y = SimplePdfWriter.PAGE_HEIGHT - MARGIN;
+                }
+                pdf.text(MARGIN, y, 11, false, "Invoice #" + line.getInvoiceId());
+                pdf.text(MARGIN + 240, y, 11, false, money(line.getAmount()));
+                y -= LINE_HEIGHT;
+            }
+        }
+        pdf.finish();
+    }
+
+    private static List<String[]> fields(ReceiptView receipt) {
+        List<String[]> fields = new ArrayList<>();
+        fields.add(new String[]{"Receipt", "#" + receipt.getPaymentId()});
+        if (receipt.getCreatedAt() != null) {
+            fields.add(new String[]{"Date", DATE_TIME.format(receipt.getCreatedAt())});
+        }
+        if (receipt.getPatientName() != null) {
+            fields.add(new String[]{"Patient", receipt.getPatientName()});
+        }
+        fields.add(new String[]{"Amount", money(receipt.getAmount())});
+        fields.add(new String[]{"Method", String.valueOf(receipt.getMethod())});
+        fields.add(new String[]{"Status", String.valueOf(receipt.getStatus())});
+        if (receipt.getInsurer() != null) {
+            fields.add(new String[]{"Insurer", receipt.getInsurer()});
+        }
+        if (receipt.getReference() != null) {
+            fields.add(new String[]{"Reference", receipt.getReference()});
+        }
+        if (receipt.getFailureReason() != null) {
+            fields.add(new String[]{"Reason", receipt.getFailureReason()});
+        }
+        return fields;
+    }
+
+    private static String money(BigDecimal amount) {
+        return amount == null ? "" : amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                case '\'' -> sb.append("&#39;");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,217 @@
+package com.pavan.csse.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pavan.csse.backend.dto.ReceiptView;
+import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.model.PaymentStatus;
+import com.pavan.csse.backend.repository.PaymentAllocationRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Renders payment receipts. A completed payment's receipt never changes, so it is rendered
+ * once into an on-disk cache whose file names are the SHA-256 of the receipt content and
+ * format; the hash doubles as a strong ETag. A small in-memory index maps payments to
+ * their cached files so repeat downloads skip the database. Receipts of any other payment
+ * are rendered on every request and never cached: even a failed card payment can still
+ * complete, when the gateway approves it after the stale sweep gave up on it.
+ */
+@Service
+public class ReceiptService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptService.class);
+
+    // Part of the cache key: bump it when the layout changes so old renderings are not served
+    private static final String LAYOUT_VERSION = "1";
+
+
+    public enum Format {
+        HTML(MediaType.TEXT_HTML_VALUE + ";charset=UTF-8", "html"),
+        PDF(MediaType.APPLICATION_PDF_VALUE, "pdf");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported receipt format: " + value);
+        }
+    }
+
+    /**
+     * A receipt ready to send: either a cached file with its ETag, or a view to render
+     * straight to the response.
+     */
+    public record Receipt(ReceiptView view, Path file, String etag) {
+        public boolean cached() {
+            return file != null;
+        }
+    }
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentAllocationRepository paymentAllocationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${receipts.cache.directory:${java.io.tmpdir}/csse-receipts}")
+    private Path directory;
+
+    @Value("${receipts.cache.index-size:10000}")
+    private long indexSize = 10000;
+
+    @Value("${receipts.cache.ttl:30d}")
+    private Duration ttl = Duration.ofDays(30);
+
+    private Cache<String, Path> index;
+
+    @PostConstruct
+    public void init() {
+        index = Caffeine.newBuilder().maximumSize(indexSize).build();
+    }
+
+    public ReceiptView getReceipt(Long paymentId) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new IllegalArgumentException("Payment not found"));
+        List<ReceiptView.Line> lines = paymentAllocationRepository.findReceiptLines(paymentId).stream()
+                .map(line -> new ReceiptView.Line(line.getInvoiceId(), line.getAmount()))
+                .toList();
+        return new ReceiptView(payment.getId(), payment.getPatientName(), payment.getAmount(), payment.getMethod(),
+                payment.getStatus(), payment.getCreatedAt(), payment.getGatewayReference(), payment.getInsurer(),
+                payment.getFailureReason(), lines);
+    }
+
+    /**
+     * Returns the cached rendering of a completed payment, rendering it on first use, or
+     * the live view of a payment that can still change.
+     */
+    public Receipt prepare(Long paymentId, Format format) throws IOException {
+        String indexKey = paymentId + ":" + format;
+        Path indexed = index.getIfPresent(indexKey);
+        if (indexed != null && Files.exists(indexed)) {
+            return new Receipt(null, indexed, etag(indexed));
+        }
+
+        ReceiptView view = getReceipt(paymentId);
+        if (view.getStatus() != PaymentStatus.COMPLETED) {
+            return new Receipt(view, null, null);
+        }
+        String hash = contentHash(view, format);
+        Path file = directory.resolve(hash.substring(0, 2)).resolve(hash + "." + format.extension());
+        if (!Files.exists(file)) {
+            renderToFile(view, format, file);
+        }
+        index.put(indexKey, file);
+        return new Receipt(view, file, "\"" + hash + "\"");
+    }
+
+    public void render(ReceiptView view, Format format, OutputStream out) throws IOException {
+        if (format == Format.PDF) {
+            ReceiptRenderer.pdf(view, out);
+        } else {
+            ReceiptRenderer.html(view, out);
+        }
+    }
+
+    /**
+     * Removes cached renderings older than the TTL; they are rendered again on demand.
+     */
+    @Scheduled(fixedDelayString = "${receipts.cache.cleanup-interval:86400000}")
+    public void purgeExpired() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(ttl));
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Receipt cache cleanup failed", e);
+        }
+        index.invalidateAll();
+    }
+
+    // Rendered under a temporary name and moved into place, so a cached file is always complete
+    private void renderToFile(ReceiptView view, Format format, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), "receipt-", ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                render(view, format, out);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private String contentHash(ReceiptView view, Format format) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((LAYOUT_VERSION + ":" + format + ":").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(view)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not hash receipt", e);
+        }
+    }
+
+    private static String etag(Path file) {
+        String name = file.getFileName().toString();
+        return "\"" + name.substring(0, name.lastIndexOf('.')).toLowerCase(Locale.ROOT) + "\"";
+    }
+}
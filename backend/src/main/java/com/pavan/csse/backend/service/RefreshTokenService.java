@@ -0,0 +1,129 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.model.RefreshToken;
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Access tokens stay short-lived and are
+ * verified statelessly; this is the only place a long-lived credential is checked
+ * against the database.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration:604800000}")
+    private Long refreshExpiration = 604800000L;
+
+    /**
+     * Starts a new token family for the user and returns the raw token.
+     */
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new one in the same family. A token that was
+     * already rotated or revoked is treated as stolen and revokes the whole family.
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = find(rawToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(current.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new RuntimeException("Refresh token has been revoked");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new RuntimeException("Refresh token has expired");
+        }
+
+        User user = current.getUser();
+        if (!Boolean.TRUE.equals(user.getIsActive())
+                || UserRevocationRegistry.securityVersionOf(user) != current.getSecurityVersion()) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new RuntimeException("Refresh token has been revoked");
+        }
+
+        return new Rotation(user, create(user, current.getFamilyId()));
+    }
+
+    /**
+     * Revokes the family the token belongs to, ending that login session.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        RefreshToken current = find(rawToken);
+        refreshTokenRepository.revokeFamily(current.getFamilyId(), LocalDateTime.now());
+    }
+
+    @Transactional
+    public int revokeAll(Long userId) {
+        return refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+    }
+
+    // Revoked tokens are kept until they expire so reuse can still be detected
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:3600000}")
+    @Transactional
+    public int purgeExpired() {
+        return refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private RefreshToken find(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new RuntimeException("Refresh token is required");
+        }
+        return refreshTokenRepository.findByTokenHashWithUser(hash(rawToken))
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+    }
+
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(rawToken));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setUser(user);
+        refreshToken.setSecurityVersion(UserRevocationRegistry.securityVersionOf(user));
+        refreshToken.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000L));
+        refreshTokenRepository.save(refreshToken);
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
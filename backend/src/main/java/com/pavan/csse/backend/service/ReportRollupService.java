@@ -0,0 +1,248 @@
+package com.pavan.csse.backend.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Maintains the revenue and aging rollups behind the reports. Writers append delta rows
+ * inside the transaction that changed the payment or invoice, so concurrent payments
+ * never contend on a shared aggregate row and a rolled back payment leaves no trace.
+ * The nightly reconciliation recomputes both rollups from the base tables, logs and
+ * corrects any drift, and replaces the accumulated deltas with one row per key.
+ */
+@Service
+public class ReportRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportRollupService.class);
+
+    private static final String AGING_DATE = "coalesce(i.due_date, cast(i.created_at as date))";
+
+    // Transaction resource holding the aging deltas not yet written
+    private static final Object PENDING_AGING = new Object();
+
+    private static final String INSERT_AGING =
+            "insert into aging_rollups (aging_date, open_count, open_amount, created_at) values (?, ?, ?, ?)";
+
+    // Invoices an allocation closed are PAID now and were open before it
+    private static final String INSERT_ALLOCATED =
+            "insert into aging_rollups (aging_date, open_count, open_amount, created_at) "
+            + "select " + AGING_DATE + ", -sum(case when i.status = 'PAID' then 1 else 0 end), -sum(a.amount), ? "
+            + "from payment_allocations a join invoices i on i.id = a.invoice_id "
+            + "where a.payment_id = ? group by " + AGING_DATE;
+
+    private static final String INSERT_REVENUE =
+            "insert into revenue_rollups (revenue_date, method, payment_count, amount, created_at) "
+            + "select cast(p.completed_at as date), p.method, count(*), sum(p.amount), :now from payments p "
+            + "where p.id in (:ids) and p.status = 'COMPLETED' and p.completed_at is not null "
+            + "group by cast(p.completed_at as date), p.method";
+
+    private static final Rollup REVENUE = new Rollup("revenue_rollups",
+            List.of("revenue_date", "method"), "payment_count", "amount",
+            "select cast(p.completed_at as date), p.method, count(*), sum(p.amount) from payments p "
+            + "where p.status = 'COMPLETED' and p.completed_at is not null "
+            + "group by cast(p.completed_at as date), p.method");
+
+    private static final Rollup AGING = new Rollup("aging_rollups",
+            List.of("aging_date"), "open_count", "open_amount",
+            "select " + AGING_DATE + ", count(*), sum(i.amount - i.amount_paid) from invoices i "
+            + "where i.status in ('OUTSTANDING', 'PARTIALLY_PAID') group by " + AGING_DATE);
+
+    public record Reconciliation(int revenueMismatches, int agingMismatches) {
+    }
+
+    private record Rollup(String table, List<String> keyColumns, String countColumn, String amountColumn,
+                          String expectedSql) {
+    }
+
+    private record Totals(long count, BigDecimal amount) {
+        Totals plus(Totals other) {
+            return new Totals(count + other.count, amount.add(other.amount));
+        }
+
+        boolean matches(Totals other) {
+            return other != null && count == other.count && amount.compareTo(other.amount) == 0;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate snapshotTemplate;
+
+    public ReportRollupService(PlatformTransactionManager transactionManager) {
+        // One snapshot for the whole pass: base tables and rollup rows are read as of the same
+        // moment, and deltas committed after it survive the compaction untouched
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Records a change to the open balance of invoices aging from {@code agingDate}. Invoice
+     * callbacks call this while Hibernate flushes, so the deltas are summed per aging date
+     * and written in one batch when the flush ends: a bulk insert of invoices costs one
+     * rollup statement rather than one per invoice.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOpenBalance(LocalDate agingDate, long count, BigDecimal amount) {
+        pendingAging().merge(agingDate, new Totals(count, amount), Totals::plus);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<LocalDate, Totals> pendingAging() {
+        Map<LocalDate, Totals> pending = (Map<LocalDate, Totals>) TransactionSynchronizationManager.getResource(PENDING_AGING);
+        if (pending == null) {
+            pending = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_AGING, pending);
+            entityManager.unwrap(Session.class).addEventListeners(new BaseSessionEventListener() {
+                @Override
+                public void flushEnd(int numberOfEntities, int numberOfCollections) {
+                    writePendingAging();
+                }
+            });
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    writePendingAging();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_AGING);
+                }
+            });
+        }
+        return pending;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writePendingAging() {
+        Map<LocalDate, Totals> pending = (Map<LocalDate, Totals>) TransactionSynchronizationManager.getResource(PENDING_AGING);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        pending.forEach((agingDate, totals) ->
+                rows.add(new Object[]{Date.valueOf(agingDate), totals.count(), totals.amount(), now}));
+        pending.clear();
+        jdbcTemplate.batchUpdate(INSERT_AGING, rows);
+    }
+
+    /** Takes a payment's allocations off the open balance of the invoices they were applied to. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAllocations(Long paymentId) {
+        jdbcTemplate.update(INSERT_ALLOCATED, Timestamp.valueOf(LocalDateTime.now()), paymentId);
+    }
+
+    /** Adds the given payments to the revenue of the day they completed; others are ignored. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRevenue(Collection<Long> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return;
+        }
+        namedParameterJdbcTemplate.update(INSERT_REVENUE, new MapSqlParameterSource()
+                .addValue("ids", paymentIds)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    @Scheduled(cron = "${reports.reconciliation.cron:0 30 2 * * *}")
+    public void runScheduled() {
+        Reconciliation result = reconcile();
+        log.info("Report rollups reconciled: {} revenue and {} aging mismatches corrected",
+                result.revenueMismatches(), result.agingMismatches());
+    }
+
+    /**
+     * Verifies both rollups against the base tables and rewrites them as one row per key.
+     * Returns how many keys had drifted.
+     */
+    public Reconciliation reconcile() {
+        return snapshotTemplate.execute(status -> new Reconciliation(reconcile(REVENUE), reconcile(AGING)));
+    }
+
+    private int reconcile(Rollup rollup) {
+        String keys = String.join(", ", rollup.keyColumns());
+        Map<List<Object>, Totals> expected = totals(rollup, rollup.expectedSql());
+        Map<List<Object>, Totals> actual = totals(rollup, "select " + keys + ", sum(" + rollup.countColumn()
+                + "), sum(" + rollup.amountColumn() + ") from " + rollup.table() + " group by " + keys);
+
+        Set<List<Object>> allKeys = new HashSet<>(expected.keySet());
+        allKeys.addAll(actual.keySet());
+        int mismatches = 0;
+        for (List<Object> key : allKeys) {
+            Totals want = expected.getOrDefault(key, new Totals(0, BigDecimal.ZERO));
+            Totals have = actual.getOrDefault(key, new Totals(0, BigDecimal.ZERO));
+            if (!want.matches(have)) {
+                mismatches++;
+                log.warn("{} drifted for {}: expected {} / {}, found {} / {}", rollup.table(), key,
+                        want.count(), want.amount(), have.count(), have.amount());
+            }
+        }
+
+        // Only rows visible in this snapshot are deleted; later deltas stay on top of the totals
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + rollup.table(), Long.class);
+        jdbcTemplate.update("delete from " + rollup.table() + " where id <= ?", maxId);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(expected.size());
+        expected.forEach((key, totals) -> {
+            List<Object> row = new ArrayList<>(key);
+            row.set(0, Date.valueOf((LocalDate) key.get(0)));
+            row.add(totals.count());
+            row.add(totals.amount());
+            row.add(now);
+            rows.add(row.toArray());
+        });
+        if (!rows.isEmpty()) {
+            String columns = keys + ", " + rollup.countColumn() + ", " + rollup.amountColumn() + ", created_at";
+            String placeholders = String.join(", ", Collections.nCopies(rollup.keyColumns().size() + 3, "?"));
+            jdbcTemplate.batchUpdate("insert into " + rollup.table() + " (" + columns + ") values (" + placeholders + ")", rows);
+        }
+        return mismatches;
+    }
+
+    // Rows are (date, further keys..., count, amount); the date is always the first key
+    private Map<List<Object>, Totals> totals(Rollup rollup, String sql) {
+        int keyCount = rollup.keyColumns().size();
+        Map<List<Object>, Totals> totals = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            List<Object> key = new ArrayList<>(keyCount);
+            key.add(rs.getObject(1, LocalDate.class));
+            for (int i = 2; i <= keyCount; i++) {
+                key.add(rs.getString(i));
+            }
+            BigDecimal amount = rs.getBigDecimal(keyCount + 2);
+            totals.put(key, new Totals(rs.getLong(keyCount + 1), amount != null ? amount : BigDecimal.ZERO));
+        });
+        return totals;
+    }
+}
@@ -0,0 +1,92 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.dto.AgingReport;
+import com.pavan.csse.backend.dto.AgingTotal;
+import com.pavan.csse.backend.dto.RevenueReport;
+import com.pavan.csse.backend.dto.RevenueTotal;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.repository.AgingRollupRepository;
+import com.pavan.csse.backend.repository.RevenueRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revenue and receivables aging reports. Both read the rollups maintained by
+ * {@link ReportRollupService}, so their cost grows with the number of days covered
+ * rather than the number of payments or invoices.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReportService {
+
+    // Upper bound of days past due for each bucket; the last one is open-ended
+    private static final int[] BUCKET_LIMITS = {30, 60, 90};
+    private static final String[] BUCKET_LABELS = {"0-30", "31-60", "61-90", "90+"};
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private AgingRollupRepository agingRollupRepository;
+
+    @Value("${reports.revenue.max-days:366}")
+    private int maxRevenueDays = 366;
+
+    public RevenueReport revenue(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRevenueDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxRevenueDays + " days");
+        }
+        List<RevenueTotal> days = revenueRollupRepository.summarize(from, to);
+        Map<PaymentMethod, BigDecimal> totalsByMethod = new EnumMap<>(PaymentMethod.class);
+        BigDecimal total = BigDecimal.ZERO;
+        for (RevenueTotal day : days) {
+            totalsByMethod.merge(day.getMethod(), day.getAmount(), BigDecimal::add);
+            total = total.add(day.getAmount());
+        }
+        return new RevenueReport(from, to, days, totalsByMethod, total);
+    }
+
+    public AgingReport aging(LocalDate asOf) {
+        long[] counts = new long[BUCKET_LABELS.length];
+        BigDecimal[] amounts = new BigDecimal[BUCKET_LABELS.length];
+        Arrays.fill(amounts, BigDecimal.ZERO);
+        for (AgingTotal row : agingRollupRepository.summarize()) {
+            int bucket = bucket(ChronoUnit.DAYS.between(row.getAgingDate(), asOf));
+            counts[bucket] += row.getOpenCount();
+            amounts[bucket] = amounts[bucket].add(row.getOpenAmount());
+        }
+
+        List<AgingReport.Bucket> buckets = new ArrayList<>(BUCKET_LABELS.length);
+        long totalCount = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (int i = 0; i < BUCKET_LABELS.length; i++) {
+            buckets.add(new AgingReport.Bucket(BUCKET_LABELS[i], counts[i], amounts[i]));
+            totalCount += counts[i];
+            totalAmount = totalAmount.add(amounts[i]);
+        }
+        return new AgingReport(asOf, buckets, totalCount, totalAmount);
+    }
+
+    private static int bucket(long daysPastDue) {
+        for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+            if (daysPastDue <= BUCKET_LIMITS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_LIMITS.length;
+    }
+}
@@ -0,0 +1,11 @@
+package com.pavan.csse.backend.service;
+
+/**
+ * Thrown when opening another payment stream would exceed the per-user or server-wide limit.
+ */
+public class StreamLimitExceededException extends RuntimeException {
+
+    public StreamLimitExceededException(String message) {
+        super(message);
+    }
+}
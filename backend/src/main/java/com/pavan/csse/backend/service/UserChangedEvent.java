@@ -0,0 +1,27 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published whenever a user row is inserted, updated or deleted. Carries a snapshot
+ * of the security-relevant fields so listeners do not touch the managed entity.
+ */
+@Data
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        REMOVED
+    }
+
+    private ChangeType changeType;
+    private Long userId;
+    private String username;
+    private UserRole role;
+    private boolean active;
+    private int securityVersion;
+}
@@ -0,0 +1,111 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory record of users whose security state changed (deactivated, role changed,
+ * security version bumped or deleted), fed by {@link UserChangedEvent}s. Authentication
+ * is rebuilt from token claims without a database lookup, so this registry is what
+ * rejects tokens issued before such a change. Only changed users are tracked, and only
+ * for one access-token lifetime: after that every token issued before the change has
+ * expired, and refresh tokens re-check the user, so the entry can be pruned.
+ */
+@Service
+public class UserRevocationRegistry {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.expiration}")
+    private Long accessTokenTtl = 900000L;
+
+    private final Map<Long, SecurityState> states = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInactiveUsers() {
+        userRepository.findByIsActiveFalse().forEach(this::record);
+    }
+
+    // After commit only: a rolled-back update must not revoke tokens it never changed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        switch (event.getChangeType()) {
+            case UPDATED -> states.put(event.getUserId(), new SecurityState(
+                    event.getRole() != null ? event.getRole().name() : null,
+                    event.isActive(),
+                    event.getSecurityVersion(),
+                    System.currentTimeMillis()));
+            case REMOVED -> states.put(event.getUserId(),
+                    new SecurityState(null, false, Integer.MAX_VALUE, System.currentTimeMillis()));
+            default -> {
+                // A new user has no tokens to revoke yet
+            }
+        }
+    }
+
+    public void record(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        states.put(user.getId(), new SecurityState(
+                user.getRole() != null ? user.getRole().name() : null,
+                Boolean.TRUE.equals(user.getIsActive()),
+                securityVersionOf(user),
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * Returns true when a token carrying the given claims must no longer be accepted.
+     */
+    public boolean isRevoked(Long userId, String role, int securityVersion) {
+        SecurityState state = states.get(userId);
+        if (state == null) {
+            return false;
+        }
+        return !state.active
+                || !Objects.equals(state.role, role)
+                || securityVersion < state.securityVersion;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:60000}")
+    public void pruneExpired() {
+        pruneExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * Drops entries recorded more than one access-token lifetime before {@code nowMillis}.
+     */
+    public int pruneExpired(long nowMillis) {
+        long cutoff = nowMillis - accessTokenTtl;
+        int before = states.size();
+        states.values().removeIf(state -> state.recordedAt < cutoff);
+        return before - states.size();
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    public static int securityVersionOf(User user) {
+        return user.getSecurityVersion() != null ? user.getSecurityVersion() : 0;
+    }
+
+    private record SecurityState(String role, boolean active, int securityVersion, long recordedAt) {
+    }
+}
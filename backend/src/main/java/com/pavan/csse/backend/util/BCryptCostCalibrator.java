@@ -0,0 +1,47 @@
+package com.pavan.csse.backend.util;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the highest BCrypt cost whose hash time on this machine fits a latency budget.
+ * Each extra cost step doubles the work, so costs are tried upwards from the minimum
+ * and the search stops at the first one over budget.
+ */
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration budget, int minStrength, int maxStrength) {
+        if (minStrength < 4 || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalArgumentException("Invalid BCrypt strength range " + minStrength + ".." + maxStrength);
+        }
+        // Warm up so the first measurement is not dominated by class loading and JIT
+        new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long elapsed = measure(strength);
+            if (elapsed > budget.toNanos()) {
+                break;
+            }
+            chosen = strength;
+            // The next step takes about twice as long; skip measuring it if that is over budget
+            if (elapsed * 2 > budget.toNanos()) {
+                break;
+            }
+        }
+        return chosen;
+    }
+
+    static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,110 @@
+package com.pavan.csse.backend.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: comma separated fields, optionally enclosed in double quotes
+ * (a doubled quote escapes one), quoted fields may span lines, LF or CRLF line ends. One
+ * record is held at a time, so a file of any size is read in constant memory. Blank lines
+ * are skipped and a leading byte order mark is ignored. A malformed record throws
+ * {@link IllegalArgumentException}; the reader cannot resynchronise after that.
+ */
+public class CsvReader implements Closeable {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private long line = 1;
+    private long recordLine;
+    private int recordLength;
+    private boolean started;
+
+    public CsvReader(InputStream in, int maxRecordLength) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /** Returns the next record's fields, or null at the end of the input. */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        recordLength = 0;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        while (true) {
+            field.setLength(0);
+            if (c == '"') {
+                while (true) {
+                    c = read();
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    }
+                    append(field, c);
+                }
+                if (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                    throw new IllegalArgumentException("Unexpected character after quoted field");
+                }
+            } else {
+                while (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                    if (c == '"') {
+                        throw new IllegalArgumentException("Quote inside an unquoted field");
+                    }
+                    append(field, c);
+                    c = read();
+                }
+            }
+            fields.add(field.toString());
+            if (c != ',') {
+                // A CR is left for the next call to skip with the LF after it
+                return fields;
+            }
+            c = read();
+        }
+    }
+
+    /** Line on which the last record returned, or the malformed one, started. */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (++recordLength > maxRecordLength) {
+            throw new IllegalArgumentException("Record longer than " + maxRecordLength + " characters");
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        int c = reader.read();
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,14 @@
+package com.pavan.csse.backend.util;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when the password hashing pool cannot take or finish a hash in time. The request
+ * itself is fine, so callers answer 503 with a Retry-After instead of failing it.
+ */
+public class HashingPoolSaturatedException extends AuthenticationServiceException {
+
+    public HashingPoolSaturatedException(String message) {
+        super(message);
+    }
+}
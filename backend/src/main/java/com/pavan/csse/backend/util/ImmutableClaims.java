@@ -0,0 +1,120 @@
+package com.pavan.csse.backend.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only copy of a token's claims, safe to hand to every request that presents the
+ * same token. Typed getters delegate to a private copy so their conversions match jjwt's;
+ * every mutator throws {@link UnsupportedOperationException}.
+ */
+final class ImmutableClaims extends AbstractMap<String, Object> implements Claims {
+
+    private final Claims copy;
+    private final Map<String, Object> view;
+
+    ImmutableClaims(Claims claims) {
+        this.copy = Jwts.claims(claims);
+        this.view = Collections.unmodifiableMap(copy);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return view.entrySet();
+    }
+
+    @Override
+    public Object get(Object key) {
+        return view.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return view.containsKey(key);
+    }
+
+    @Override
+    public <T> T get(String claimName, Class<T> requiredType) {
+        return copy.get(claimName, requiredType);
+    }
+
+    @Override
+    public String getIssuer() {
+        return copy.getIssuer();
+    }
+
+    @Override
+    public String getSubject() {
+        return copy.getSubject();
+    }
+
+    @Override
+    public String getAudience() {
+        return copy.getAudience();
+    }
+
+    @Override
+    public Date getExpiration() {
+        return copy.getExpiration();
+    }
+
+    @Override
+    public Date getNotBefore() {
+        return copy.getNotBefore();
+    }
+
+    @Override
+    public Date getIssuedAt() {
+        return copy.getIssuedAt();
+    }
+
+    @Override
+    public String getId() {
+        return copy.getId();
+    }
+
+    @Override
+    public Claims setIssuer(String iss) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setSubject(String sub) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setAudience(String aud) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setExpiration(Date exp) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setNotBefore(Date nbf) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setIssuedAt(Date iat) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setId(String jti) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Cached JWT claims are read-only");
+    }
+}
@@ -0,0 +1,116 @@
+package com.pavan.csse.backend.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of verified JWT claims, keyed by a SHA-256 hash of the token.
+ * A token is parsed and its signature verified once; later requests carrying the
+ * same token reuse the claims until the token's expiration time. Each entry expires
+ * at its own {@code exp}, and size-based eviction makes room once the cache is full.
+ * Callers share the cached claims, so they get a read-only copy.
+ */
+@Component
+public class JwtClaimsCache {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired(required = false)
+    private Clock clock = Clock.systemUTC();
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    private volatile Cache<String, Claims> cache;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    /**
+     * Returns the verified claims of the token, parsing it only on a cache miss.
+     * Throws the same {@link io.jsonwebtoken.JwtException}s as {@link JwtUtil#extractAllClaims(String)}.
+     */
+    public Claims getClaims(String token) {
+        return cache().get(hash(token), key -> verify(token));
+    }
+
+    public void evictExpired() {
+        cache().cleanUp();
+    }
+
+    public void clear() {
+        cache().invalidateAll();
+    }
+
+    public int size() {
+        return (int) cache().estimatedSize();
+    }
+
+    public long getHitCount() {
+        return cache().stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache().stats().missCount();
+    }
+
+    private Claims verify(String token) {
+        Claims claims = jwtUtil.extractAllClaims(token);
+        // The parser checks expiry against the system time; this cache goes by its own clock
+        if (millisToExpiry(claims) <= 0) {
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + claims.getExpiration());
+        }
+        return new ImmutableClaims(claims);
+    }
+
+    private long millisToExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null ? expiration.getTime() - clock.millis() : Long.MAX_VALUE;
+    }
+
+    private Cache<String, Claims> cache() {
+        Cache<String, Claims> current = cache;
+        if (current == null) {
+            synchronized (this) {
+                if (cache == null) {
+                    cache = Caffeine.newBuilder()
+                            .maximumSize(maxSize)
+                            .expireAfter(Expiry.creating((String key, Claims claims) ->
+                                    Duration.ofMillis(Math.max(0, millisToExpiry(claims)))))
+                            .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                            .recordStats()
+                            .build();
+                }
+                current = cache;
+            }
+        }
+        return current;
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,12 +1,17 @@
 package com.pavan.csse.backend.util;
 
+import com.pavan.csse.backend.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,14 +20,46 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Key id written to the "kid" header of newly signed tokens
+    @Value("${jwt.key-id:primary}")
+    private String keyId = "primary";
+
+    // Keys still accepted for verification after a rotation, as "kid:secret,kid:secret"
+    @Value("${jwt.previous-keys:}")
+    private String previousKeys = "";
+
+    private volatile SigningKeys signingKeys;
+
+    /**
+     * Builds the signing key, the verification keys and the parser once. The parser
+     * is immutable and thread-safe, so it is shared by every request.
+     */
+    @PostConstruct
+    public void init() {
+        signingKeys = new SigningKeys(keyId, secret, previousKeys);
+    }
+
+    private SigningKeys keys() {
+        SigningKeys keys = signingKeys;
+        if (keys == null) {
+            synchronized (this) {
+                if (signingKeys == null) {
+                    init();
+                }
+                keys = signingKeys;
+            }
+        }
+        return keys;
     }
 
     public String extractUsername(String token) {
@@ -38,51 +75,103 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+    public Claims extractAllClaims(String token) {
+        return keys().parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            // Enough to rebuild the principal without loading the user on each request
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole() != null ? user.getRole().name() : null);
+            claims.put(CLAIM_SECURITY_VERSION, user.getSecurityVersion() != null ? user.getSecurityVersion() : 0);
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        SigningKeys keys = keys();
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keys.activeKeyId)
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(keys.activeKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateClaims(extractAllClaims(token), userDetails);
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username != null && username.equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date()));
+    }
+
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
+            extractAllClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Immutable key set: the active key used for signing plus every key accepted for
+     * verification, looked up by the token's "kid" header. Tokens without a "kid"
+     * (issued before rotation support) are verified with the active key.
+     */
+    private static final class SigningKeys extends SigningKeyResolverAdapter {
+
+        private final String activeKeyId;
+        private final Key activeKey;
+        private final Map<String, Key> verificationKeys;
+        private final JwtParser parser;
+
+        SigningKeys(String activeKeyId, String activeSecret, String previousKeys) {
+            this.activeKeyId = activeKeyId;
+            this.activeKey = Keys.hmacShaKeyFor(activeSecret.getBytes(StandardCharsets.UTF_8));
+
+            Map<String, Key> keys = new HashMap<>();
+            if (previousKeys != null && !previousKeys.isBlank()) {
+                for (String entry : previousKeys.split(",")) {
+                    String[] parts = entry.trim().split(":", 2);
+                    if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+                        throw new IllegalArgumentException("Invalid jwt.previous-keys entry, expected kid:secret");
+                    }
+                    keys.put(parts[0], Keys.hmacShaKeyFor(parts[1].getBytes(StandardCharsets.UTF_8)));
+                }
+            }
+            keys.put(activeKeyId, activeKey);
+            this.verificationKeys = Collections.unmodifiableMap(keys);
+            this.parser = Jwts.parserBuilder()
+                    .setSigningKeyResolver(this)
+                    .build();
+        }
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            String kid = header.getKeyId();
+            if (kid == null) {
+                return activeKey;
+            }
+            Key key = verificationKeys.get(kid);
+            if (key == null) {
+                throw new SignatureException("Unknown signing key id: " + kid);
+            }
+            return key;
+        }
+    }
+}
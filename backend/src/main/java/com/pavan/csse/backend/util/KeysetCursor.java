@@ -0,0 +1,45 @@
+package com.pavan.csse.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated listing: the sort order plus the sort key of
+ * the last row returned. Encoded as URL-safe Base64 so clients treat it as a token.
+ */
+public record KeysetCursor(String sort, String lastName, String firstName, long id) {
+
+    private static final String SEPARATOR = "\u0000";
+
+    /**
+     * Position before the first row of any listing.
+     */
+    public static KeysetCursor start(String sort) {
+        return new KeysetCursor(sort, "", "", 0L);
+    }
+
+    public String encode() {
+        String raw = sort + SEPARATOR + lastName + SEPARATOR + firstName + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}; a missing token means the first page.
+     */
+    public static KeysetCursor decode(String token, String expectedSort) {
+        if (token == null || token.isBlank()) {
+            return start(expectedSort);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 4 || !parts[0].equals(expectedSort)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(parts[0], parts[1], parts[2], Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.pavan.csse.backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal PDF 1.4 writer for text documents on A4 pages using the standard Helvetica
+ * fonts. Objects are written to the target stream as soon as each page ends, so only the
+ * current page is held in memory. Output is deterministic: the same calls produce the
+ * same bytes, which is what lets rendered documents be cached by content hash.
+ */
+public class SimplePdfWriter {
+
+    public static final float PAGE_WIDTH = 595;
+    public static final float PAGE_HEIGHT = 842;
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT_REGULAR = 3;
+    private static final int FONT_BOLD = 4;
+
+    private final OutputStream out;
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageObjects = new ArrayList<>();
+    private long position;
+    private ByteArrayOutputStream page;
+
+    public SimplePdfWriter(OutputStream out) throws IOException {
+        this.out = out;
+        // Object numbers 1 and 2 are written last, once every page is known
+        offsets.add(0L);
+        offsets.add(0L);
+        write("%PDF-1.4\n%âãÏÓ\n");
+        object(FONT_REGULAR, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+        object(FONT_BOLD, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+    }
+
+    public void beginPage() {
+        if (page != null) {
+            throw new IllegalStateException("Page already open");
+        }
+        page = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Draws text with its baseline starting at (x, y), measured in points from the
+     * bottom-left corner. Characters outside Latin-1 are replaced with '?'.
+     */
+    public void text(float x, float y, float size, boolean bold, String text) {
+        content("BT /F" + (bold ? 2 : 1) + " " + number(size) + " Tf " + number(x) + " " + number(y)
+                + " Td (" + escape(text) + ") Tj ET\n");
+    }
+
+    public void line(float x1, float y1, float x2, float y2) {
+        content("0.5 w " + number(x1) + " " + number(y1) + " m " + number(x2) + " " + number(y2) + " l S\n");
+    }
+
+    public void endPage() throws IOException {
+        if (page == null) {
+            throw new IllegalStateException("No page open");
+        }
+        byte[] content = page.toByteArray();
+        page = null;
+        int contentObject = nextObject();
+        begin(contentObject);
+        write("<< /Length " + content.length + " >>\nstream\n");
+        write(content);
+        write("\nendstream\nendobj\n");
+        int pageObject = nextObject();
+        object(pageObject, "<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 "
+                + number(PAGE_WIDTH) + " " + number(PAGE_HEIGHT) + "] /Resources << /Font << /F1 "
+                + FONT_REGULAR + " 0 R /F2 " + FONT_BOLD + " 0 R >> >> /Contents " + contentObject + " 0 R >>");
+        pageObjects.add(pageObject);
+    }
+
+    /**
+     * Writes the page tree, catalog and cross-reference table. Flushes but does not
+     * close the target stream.
+     */
+    public void finish() throws IOException {
+        if (page != null) {
+            endPage();
+        }
+        StringBuilder kids = new StringBuilder();
+        for (int pageObject : pageObjects) {
+            kids.append(pageObject).append(" 0 R ");
+        }
+        object(PAGES, "<< /Type /Pages /Kids [" + kids.toString().trim() + "] /Count " + pageObjects.size() + " >>");
+        object(CATALOG, "<< /Type /Catalog /Pages " + PAGES + " 0 R >>");
+
+        long xref = position;
+        StringBuilder table = new StringBuilder("xref\n0 " + (offsets.size() + 1) + "\n0000000000 65535 f \n");
+        for (long offset : offsets) {
+            table.append(String.format(Locale.ROOT, "%010d 00000 n \n", offset));
+        }
+        write(table.toString());
+        write("trailer\n<< /Size " + (offsets.size() + 1) + " /Root " + CATALOG + " 0 R >>\nstartxref\n"
+                + xref + "\n%%EOF\n");
+        out.flush();
+    }
+
+    private int nextObject() {
+        offsets.add(0L);
+        return offsets.size();
+    }
+
+    private void object(int number, String body) throws IOException {
+        begin(number);
+        write(body + "\nendobj\n");
+    }
+
+    private void begin(int number) throws IOException {
+        if (number > offsets.size()) {
+            offsets.add(0L);
+        }
+        offsets.set(number - 1, position);
+        write(number + " 0 obj\n");
+    }
+
+    private void content(String operators) {
+        if (page == null) {
+            throw new IllegalStateException("No page open");
+        }
+        page.writeBytes(operators.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void write(String s) throws IOException {
+        write(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    private static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 32 || c > 255) {
+                sb.append('?');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String number(float value) {
+        return value == Math.rint(value) ? Integer.toString((int) value) : String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,134 @@
+package com.pavan.csse.backend.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyed token buckets without locks. Each bucket is a single {@link AtomicLong} holding
+ * its "theoretical arrival time" (the GCRA form of a token bucket): taking a token
+ * pushes it forward by one refill interval, and a request is allowed while it stays
+ * within {@code capacity} intervals of now. Buckets live in a {@link ConcurrentHashMap},
+ * whose striped bins keep lookups of different keys from contending.
+ *
+ * <p>Memory is bounded by {@code maxBuckets}: full buckets idle for longer than
+ * {@code idleTimeout} are evicted, and when the map is still full a new key takes the
+ * place of a sampled bucket, preferring one that is already full. Dropping a full
+ * bucket loses nothing, since a new bucket starts full too, so flooding the map with
+ * made-up keys neither locks out new clients nor resets the ones being throttled
+ * unless every sampled bucket is still draining.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final long MIN_SWEEP_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final int EVICTION_SAMPLE_SIZE = 64;
+
+    private final long capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long idleTimeoutNanos;
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep;
+
+    public TokenBucketRateLimiter(long capacity, Duration refillPeriod, Duration idleTimeout, int maxBuckets) {
+        this(capacity, refillPeriod, idleTimeout, maxBuckets, System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(long capacity, Duration refillPeriod, Duration idleTimeout, int maxBuckets,
+                                  LongSupplier nanoClock) {
+        if (capacity < 1 || refillPeriod.isNegative() || refillPeriod.isZero() || maxBuckets < 1) {
+            throw new IllegalArgumentException("Rate limit capacity, refill period and max buckets must be positive");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = intervalNanos * capacity;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxBuckets = maxBuckets;
+        this.nanoClock = nanoClock;
+        this.lastSweep = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes one token from the bucket for {@code key}.
+     *
+     * @return 0 when the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucketFor(key, now);
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + intervalNanos;
+            long excess = newTat - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Removes buckets that have been full for longer than the idle timeout. A request
+     * racing with the removal at worst lands on a fresh, full bucket, which is the
+     * state the removed bucket was in anyway.
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        lastSweep.set(now);
+        long cutoff = now - idleTimeoutNanos;
+        int before = buckets.size();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - cutoff < 0);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            long previous = lastSweep.get();
+            if (now - previous >= MIN_SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(previous, now)) {
+                evictIdle();
+            }
+            // Retry when another thread removed the same victim, so each new key frees a slot
+            while (buckets.size() >= maxBuckets && !evictOneFor(now)) {
+                Thread.onSpinWait();
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    // Removes the first full bucket among a bounded sample, else the one closest to full
+    private boolean evictOneFor(long now) {
+        Map.Entry<String, AtomicLong> victim = null;
+        long victimTat = 0;
+        int sampled = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            long tat = entry.getValue().get();
+            if (victim == null || tat - victimTat < 0) {
+                victim = entry;
+                victimTat = tat;
+            }
+            if (tat - now <= 0 || ++sampled >= EVICTION_SAMPLE_SIZE) {
+                break;
+            }
+        }
+        return victim != null && buckets.remove(victim.getKey(), victim.getValue());
+    }
+}
@@ -0,0 +1,23 @@
+-- Scopes idempotency keys to the user who sent them: adds idempotency_keys.owner and
+-- replaces the unique key with a unique (owner, idempotency_key). Run against Postgres
+-- before the first start of this version; it is safe to run again.
+--
+-- Rows stored before the upgrade have no owner and are given an empty one, so they are
+-- never replayed; a retry of such a request within the key TTL creates a new payment.
+-- Run it when no payment requests are in flight.
+
+do $$
+declare
+    c record;
+begin
+    for c in select conname from pg_constraint
+             where conrelid = 'idempotency_keys'::regclass and contype = 'u'
+    loop
+        execute format('alter table idempotency_keys drop constraint %I', c.conname);
+    end loop;
+end $$;
+
+alter table idempotency_keys add column if not exists owner varchar(255);
+update idempotency_keys set owner = '' where owner is null;
+alter table idempotency_keys alter column owner set not null;
+alter table idempotency_keys add constraint uk_idempotency_keys_owner_key unique (owner, idempotency_key);
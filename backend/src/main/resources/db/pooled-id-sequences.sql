@@ -0,0 +1,41 @@
+-- Moves users, doctors, staff, patients, payments and invoices from IDENTITY columns to
+-- the pooled-lo sequences the entities now use (allocationSize = 50). Run once against
+-- Postgres before the first start of this version.
+--
+-- Each sequence hands out the low end of a block of 50 ids, so it increments by 50 and
+-- starts just past the highest existing id. The identity defaults are dropped so that no
+-- insert can take an id from the old identity sequence.
+--
+-- It is safe to run again, even while instances are running: a sequence only ever moves
+-- forward, to the later of its own next value and the highest id + 1, so blocks already
+-- handed out (and not yet used up) are never issued a second time.
+
+create sequence if not exists users_seq increment by 50 start with 1;
+select setval('users_seq', greatest((select coalesce(max(id), 0) + 1 from users),
+    (select case when is_called then last_value + 50 else last_value end from users_seq)), false);
+alter table users alter column id drop identity if exists;
+
+create sequence if not exists doctors_seq increment by 50 start with 1;
+select setval('doctors_seq', greatest((select coalesce(max(id), 0) + 1 from doctors),
+    (select case when is_called then last_value + 50 else last_value end from doctors_seq)), false);
+alter table doctors alter column id drop identity if exists;
+
+create sequence if not exists staff_seq increment by 50 start with 1;
+select setval('staff_seq', greatest((select coalesce(max(id), 0) + 1 from staff),
+    (select case when is_called then last_value + 50 else last_value end from staff_seq)), false);
+alter table staff alter column id drop identity if exists;
+
+create sequence if not exists patients_seq increment by 50 start with 1;
+select setval('patients_seq', greatest((select coalesce(max(id), 0) + 1 from patients),
+    (select case when is_called then last_value + 50 else last_value end from patients_seq)), false);
+alter table patients alter column id drop identity if exists;
+
+create sequence if not exists payments_seq increment by 50 start with 1;
+select setval('payments_seq', greatest((select coalesce(max(id), 0) + 1 from payments),
+    (select case when is_called then last_value + 50 else last_value end from payments_seq)), false);
+alter table payments alter column id drop identity if exists;
+
+create sequence if not exists invoices_seq increment by 50 start with 1;
+select setval('invoices_seq', greatest((select coalesce(max(id), 0) + 1 from invoices),
+    (select case when is_called then last_value + 50 else last_value end from invoices_seq)), false);
+alter table invoices alter column id drop identity if exists;
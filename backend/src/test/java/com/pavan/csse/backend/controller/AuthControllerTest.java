@@ -7,12 +7,16 @@ import com.pavan.csse.backend.dto.UserRegistrationDto;
 import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.model.UserRole;
 import com.pavan.csse.backend.service.AuthService;
+import com.pavan.csse.backend.support.WebMvcSecurityTestConfig;
+import com.pavan.csse.backend.util.HashingPoolSaturatedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -24,6 +28,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AuthController.class)
+@Import(WebMvcSecurityTestConfig.class)
 class AuthControllerTest {
 
     @Autowired
@@ -132,6 +137,51 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.error").value("Username already exists"));
     }
 
+    @Test
+    void testLoginWithSaturatedHashingPool() throws Exception {
+        // Arrange
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new HashingPoolSaturatedException("Too many concurrent login attempts, please retry"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void testLoginWithUserLookupFailureIsNotReportedAsBusy() throws Exception {
+        // Arrange - e.g. the database is down while loading the user
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new InternalAuthenticationServiceException("Could not open JDBC Connection"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist("Retry-After"));
+    }
+
+    @Test
+    void testRegisterWithSaturatedHashingPool() throws Exception {
+        // Arrange
+        when(authService.registerUser(any(UserRegistrationDto.class)))
+                .thenThrow(new HashingPoolSaturatedException("Too many concurrent login attempts, please retry"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/register")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registrationDto)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void testTestEndpoint() throws Exception {
         // Act & Assert
@@ -156,6 +206,7 @@ class AuthControllerTest {
         LoginRequest incompleteRequest = new LoginRequest();
         incompleteRequest.setUsername("testuser");
         // password is null
+        when(authService.login(any(LoginRequest.class))).thenThrow(new RuntimeException("Invalid username or password"));
 
         // Act & Assert
         mockMvc.perform(post("/api/auth/login")
@@ -1,20 +1,30 @@
 package com.pavan.csse.backend.controller;
 
+import com.pavan.csse.backend.dto.KeysetPage;
+import com.pavan.csse.backend.dto.DoctorSummary;
 import com.pavan.csse.backend.model.Doctor;
 import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.model.UserRole;
 import com.pavan.csse.backend.repository.DoctorRepository;
-import com.pavan.csse.backend.repository.UserRepository;
+import com.pavan.csse.backend.service.CustomUserDetailsService;
+import com.pavan.csse.backend.service.DashboardService;
+import com.pavan.csse.backend.service.DirectoryService;
+import com.pavan.csse.backend.support.WebMvcSecurityTestConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.when;
@@ -22,6 +32,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(DoctorController.class)
+@Import(WebMvcSecurityTestConfig.class)
 class DoctorControllerTest {
 
     @Autowired
@@ -30,8 +41,15 @@ class DoctorControllerTest {
     @MockBean
     private DoctorRepository doctorRepository;
 
+    // The mock from WebMvcSecurityTestConfig
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
     @MockBean
-    private UserRepository userRepository;
+    private DirectoryService directoryService;
+
+    @MockBean
+    private DashboardService dashboardService;
 
     private User doctorUser;
     private Doctor doctor;
@@ -69,12 +87,14 @@ class DoctorControllerTest {
     @WithMockUser(username = "doctor1", roles = "DOCTOR")
     void testGetDashboardSuccess() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("doctor1")).thenReturn(Optional.of(doctorUser));
-        when(doctorRepository.findByUserId(1L)).thenReturn(Optional.of(doctor));
+        String body = "{\"message\":\"Welcome to Doctor Dashboard\",\"user\":{\"username\":\"doctor1\"},\"doctor\":{\"licenseNumber\":\"MD123456\",\"specialization\":\"Cardiology\"}}";
+        when(dashboardService.getDashboard(DashboardService.Kind.DOCTOR, "doctor1"))
+                .thenReturn(new DashboardService.Snapshot(body.getBytes(StandardCharsets.UTF_8), "\"etag-1\""));
 
         // Act & Assert
         mockMvc.perform(get("/api/doctor/dashboard"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"etag-1\""))
                 .andExpect(jsonPath("$.message").value("Welcome to Doctor Dashboard"))
                 .andExpect(jsonPath("$.doctor.licenseNumber").value("MD123456"))
                 .andExpect(jsonPath("$.doctor.specialization").value("Cardiology"))
@@ -85,7 +105,8 @@ class DoctorControllerTest {
     @WithMockUser(username = "nonexistent", roles = "DOCTOR")
     void testGetDashboardUserNotFound() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(dashboardService.getDashboard(DashboardService.Kind.DOCTOR, "nonexistent"))
+                .thenThrow(new RuntimeException("User not found"));
 
         // Act & Assert
         mockMvc.perform(get("/api/doctor/dashboard"))
@@ -97,8 +118,8 @@ class DoctorControllerTest {
     @WithMockUser(username = "doctor1", roles = "DOCTOR")
     void testGetDashboardDoctorProfileNotFound() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("doctor1")).thenReturn(Optional.of(doctorUser));
-        when(doctorRepository.findByUserId(1L)).thenReturn(Optional.empty());
+        when(dashboardService.getDashboard(DashboardService.Kind.DOCTOR, "doctor1"))
+                .thenThrow(new RuntimeException("Doctor profile not found"));
 
         // Act & Assert
         mockMvc.perform(get("/api/doctor/dashboard"))
@@ -110,7 +131,7 @@ class DoctorControllerTest {
     @WithMockUser(username = "doctor1", roles = "DOCTOR")
     void testGetProfileSuccess() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("doctor1")).thenReturn(Optional.of(doctorUser));
+        when(userDetailsService.findUser("doctor1")).thenReturn(Optional.of(doctorUser));
         when(doctorRepository.findByUserId(1L)).thenReturn(Optional.of(doctor));
 
         // Act & Assert
@@ -126,7 +147,7 @@ class DoctorControllerTest {
     @WithMockUser(username = "doctor1", roles = "DOCTOR")
     void testGetProfileDoctorNotFound() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("doctor1")).thenReturn(Optional.of(doctorUser));
+        when(userDetailsService.findUser("doctor1")).thenReturn(Optional.of(doctorUser));
         when(doctorRepository.findByUserId(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -139,13 +160,20 @@ class DoctorControllerTest {
     @WithMockUser(roles = "DOCTOR")
     void testGetAllDoctors() throws Exception {
         // Arrange
-        when(doctorRepository.findAll()).thenReturn(doctors);
+        ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+        List<DoctorSummary> rows = List.of(
+                projections.createProjection(DoctorSummary.class, Map.of("id", 1L, "lastName", "Smith")),
+                projections.createProjection(DoctorSummary.class, Map.of("id", 2L, "lastName", "Jones")));
+        when(directoryService.listDoctors("name", null, 2)).thenReturn(new KeysetPage<>(rows, "next-cursor", true));
 
         // Act & Assert
-        mockMvc.perform(get("/api/doctor/all"))
+        mockMvc.perform(get("/api/doctor/all").param("sort", "name").param("size", "2"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].lastName").value("Smith"))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasMore").value(true));
     }
 
     @Test
@@ -165,7 +193,7 @@ class DoctorControllerTest {
     @WithMockUser(roles = "DOCTOR")
     void testGetAllDoctorsException() throws Exception {
         // Arrange
-        when(doctorRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(directoryService.listDoctors(null, null, null)).thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
         mockMvc.perform(get("/api/doctor/all"))
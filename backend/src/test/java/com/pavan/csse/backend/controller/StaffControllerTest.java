@@ -1,20 +1,30 @@
 package com.pavan.csse.backend.controller;
 
+import com.pavan.csse.backend.dto.KeysetPage;
+import com.pavan.csse.backend.dto.StaffSummary;
 import com.pavan.csse.backend.model.Staff;
 import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.model.UserRole;
 import com.pavan.csse.backend.repository.StaffRepository;
-import com.pavan.csse.backend.repository.UserRepository;
+import com.pavan.csse.backend.service.CustomUserDetailsService;
+import com.pavan.csse.backend.service.DashboardService;
+import com.pavan.csse.backend.service.DirectoryService;
+import com.pavan.csse.backend.support.WebMvcSecurityTestConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.when;
@@ -22,6 +32,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(StaffController.class)
+@Import(WebMvcSecurityTestConfig.class)
 class StaffControllerTest {
 
     @Autowired
@@ -30,8 +41,15 @@ class StaffControllerTest {
     @MockBean
     private StaffRepository staffRepository;
 
+    // The mock from WebMvcSecurityTestConfig
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
     @MockBean
-    private UserRepository userRepository;
+    private DirectoryService directoryService;
+
+    @MockBean
+    private DashboardService dashboardService;
 
     private User staffUser;
     private Staff staff;
@@ -67,12 +85,14 @@ class StaffControllerTest {
     @WithMockUser(username = "staff1", roles = "STAFF")
     void testGetDashboardSuccess() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("staff1")).thenReturn(Optional.of(staffUser));
-        when(staffRepository.findByUserId(1L)).thenReturn(Optional.of(staff));
+        String body = "{\"message\":\"Welcome to Staff Dashboard\",\"user\":{\"username\":\"staff1\"},\"staff\":{\"employeeId\":\"EMP001\",\"position\":\"Registered Nurse\"}}";
+        when(dashboardService.getDashboard(DashboardService.Kind.STAFF, "staff1"))
+                .thenReturn(new DashboardService.Snapshot(body.getBytes(StandardCharsets.UTF_8), "\"etag-1\""));
 
         // Act & Assert
         mockMvc.perform(get("/api/staff/dashboard"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"etag-1\""))
                 .andExpect(jsonPath("$.message").value("Welcome to Staff Dashboard"))
                 .andExpect(jsonPath("$.staff.employeeId").value("EMP001"))
                 .andExpect(jsonPath("$.staff.position").value("Registered Nurse"))
@@ -83,7 +103,8 @@ class StaffControllerTest {
     @WithMockUser(username = "nonexistent", roles = "STAFF")
     void testGetDashboardUserNotFound() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(dashboardService.getDashboard(DashboardService.Kind.STAFF, "nonexistent"))
+                .thenThrow(new RuntimeException("User not found"));
 
         // Act & Assert
         mockMvc.perform(get("/api/staff/dashboard"))
@@ -95,8 +116,8 @@ class StaffControllerTest {
     @WithMockUser(username = "staff1", roles = "STAFF")
     void testGetDashboardStaffProfileNotFound() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("staff1")).thenReturn(Optional.of(staffUser));
-        when(staffRepository.findByUserId(1L)).thenReturn(Optional.empty());
+        when(dashboardService.getDashboard(DashboardService.Kind.STAFF, "staff1"))
+                .thenThrow(new RuntimeException("Staff profile not found"));
 
         // Act & Assert
         mockMvc.perform(get("/api/staff/dashboard"))
@@ -108,7 +129,7 @@ class StaffControllerTest {
     @WithMockUser(username = "staff1", roles = "STAFF")
     void testGetProfileSuccess() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("staff1")).thenReturn(Optional.of(staffUser));
+        when(userDetailsService.findUser("staff1")).thenReturn(Optional.of(staffUser));
         when(staffRepository.findByUserId(1L)).thenReturn(Optional.of(staff));
 
         // Act & Assert
@@ -124,7 +145,7 @@ class StaffControllerTest {
     @WithMockUser(username = "staff1", roles = "STAFF")
     void testGetProfileStaffNotFound() throws Exception {
         // Arrange
-        when(userRepository.findByUsername("staff1")).thenReturn(Optional.of(staffUser));
+        when(userDetailsService.findUser("staff1")).thenReturn(Optional.of(staffUser));
         when(staffRepository.findByUserId(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -137,13 +158,20 @@ class StaffControllerTest {
     @WithMockUser(roles = "STAFF")
     void testGetAllStaff() throws Exception {
         // Arrange
-        when(staffRepository.findAll()).thenReturn(staffList);
+        ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+        List<StaffSummary> rows = List.of(
+                projections.createProjection(StaffSummary.class, Map.of("id", 1L, "lastName", "Smith")),
+                projections.createProjection(StaffSummary.class, Map.of("id", 2L, "lastName", "Jones")));
+        when(directoryService.listStaff("name", null, 2)).thenReturn(new KeysetPage<>(rows, "next-cursor", true));
 
         // Act & Assert
-        mockMvc.perform(get("/api/staff/all"))
+        mockMvc.perform(get("/api/staff/all").param("sort", "name").param("size", "2"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].lastName").value("Smith"))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasMore").value(true));
     }
 
     @Test
@@ -163,7 +191,7 @@ class StaffControllerTest {
     @WithMockUser(roles = "STAFF")
     void testGetAllStaffException() throws Exception {
         // Arrange
-        when(staffRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(directoryService.listStaff(null, null, null)).thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
         mockMvc.perform(get("/api/staff/all"))
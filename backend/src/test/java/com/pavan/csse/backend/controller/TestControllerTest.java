@@ -2,11 +2,13 @@ package com.pavan.csse.backend.controller;
 
 import com.pavan.csse.backend.dto.LoginResponse;
 import com.pavan.csse.backend.service.AuthService;
+import com.pavan.csse.backend.support.WebMvcSecurityTestConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.HashMap;
@@ -20,6 +22,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TestController.class)
+@Import(WebMvcSecurityTestConfig.class)
 class TestControllerTest {
 
     @Autowired
@@ -0,0 +1,195 @@
+package com.pavan.csse.backend.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileEventSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testOffsetsAreContiguousAndReadableAcrossIndexSlots() {
+        // Arrange
+        FileEventSink sink = new FileEventSink(directory, 2, objectMapper);
+
+        // Act: enough events to span several index slots, appended in uneven batches
+        for (int start = 0; start < 1000; start += 300) {
+            sink.append(1, events(start, Math.min(300, 1000 - start)));
+        }
+
+        // Assert
+        assertEquals(1000, sink.endOffset(1));
+        assertEquals(0, sink.endOffset(0));
+        List<DomainEvent> read = sink.read(1, 510, 20);
+        assertEquals(20, read.size());
+        assertEquals(510, read.get(0).offset());
+        assertEquals(510, read.get(0).eventId());
+        assertEquals(1, read.get(0).partition());
+        assertEquals(529, read.get(19).eventId());
+        assertEquals(2, sink.read(1, 998, 50).size());
+        assertTrue(sink.read(1, 1000, 50).isEmpty());
+        sink.close();
+    }
+
+    @Test
+    void testReopenResumesAfterLastCompleteEvent() throws Exception {
+        // Arrange: a crash left half an event at the end of the log
+        FileEventSink sink = new FileEventSink(directory, 1, objectMapper);
+        sink.append(0, events(0, 3));
+        sink.close();
+        Files.writeString(directory.resolve("partition-0-00000000000000000000.ndjson"), "{\"partition\":0,\"off", StandardOpenOption.APPEND);
+
+        // Act
+        FileEventSink reopened = new FileEventSink(directory, 1, objectMapper);
+        List<DomainEvent> appended = reopened.append(0, events(3, 1));
+
+        // Assert
+        assertEquals(3, appended.get(0).offset());
+        assertEquals(4, reopened.endOffset(0));
+        assertEquals(3, reopened.read(0, 3, 10).get(0).eventId());
+        reopened.close();
+    }
+
+    @Test
+    void testFullSegmentRollsOverAndOffsetsContinue() {
+        // Arrange: segments roll after roughly 100 events
+        FileEventSink sink = segmented(200 * 100, Duration.ofDays(1), Duration.ofDays(7));
+
+        // Act
+        for (int start = 0; start < 1000; start += 50) {
+            sink.append(0, events(start, 50));
+        }
+
+        // Assert
+        assertTrue(segmentFiles() > 5, "segments: " + segmentFiles());
+        assertEquals(1000, sink.endOffset(0));
+        List<DomainEvent> all = new ArrayList<>();
+        for (long offset = 0; offset < 1000; offset = all.get(all.size() - 1).offset() + 1) {
+            all.addAll(sink.read(0, offset, 300));
+        }
+        assertEquals(1000, all.size());
+        assertEquals(999, all.get(999).eventId());
+        sink.close();
+    }
+
+    @Test
+    void testExpiredSegmentsAreDeletedAndReadsSkipToTheOldestRetained() {
+        // Arrange: one segment per day
+        FileEventSink sink = segmented(Long.MAX_VALUE, Duration.ofDays(1), Duration.ofDays(7));
+        for (int day = 0; day < 10; day++) {
+            sink.append(0, events(day * 10, 10));
+            now = now.plus(Duration.ofDays(1));
+        }
+
+        // Act
+        sink.append(0, events(100, 10));
+
+        // Assert: the segments of days 0 to 3, last appended to 7 or more days ago, are gone
+        assertEquals(7, segmentFiles());
+        assertEquals(40, sink.startOffset(0));
+        assertEquals(110, sink.endOffset(0));
+        List<DomainEvent> read = sink.read(0, 0, 5);
+        assertEquals(40, read.get(0).offset());
+        sink.close();
+    }
+
+    @Test
+    void testReopenRestoresSegmentsAndPurgesExpiredOnes() {
+        // Arrange
+        FileEventSink sink = segmented(Long.MAX_VALUE, Duration.ofDays(1), Duration.ofDays(7));
+        sink.append(0, events(0, 300));
+        now = now.plus(Duration.ofDays(1));
+        sink.append(0, events(300, 300));
+        sink.close();
+
+        // Act
+        FileEventSink reopened = segmented(Long.MAX_VALUE, Duration.ofDays(1), Duration.ofDays(7));
+
+        // Assert
+        assertEquals(600, reopened.endOffset(0));
+        assertEquals(0, reopened.startOffset(0));
+        assertEquals(299, reopened.read(0, 299, 10).get(0).eventId());
+        assertEquals(560, reopened.read(0, 560, 10).get(0).eventId());
+        assertEquals(600, reopened.append(0, events(600, 1)).get(0).offset());
+        reopened.close();
+    }
+
+    @Test
+    void testLegacySingleFileLogIsAdoptedAsFirstSegment() throws Exception {
+        // Arrange: a log written before segments existed
+        FileEventSink sink = new FileEventSink(directory, 1, objectMapper);
+        sink.append(0, events(0, 5));
+        sink.close();
+        Files.move(directory.resolve("partition-0-00000000000000000000.ndjson"), directory.resolve("partition-0.ndjson"));
+
+        // Act
+        FileEventSink reopened = new FileEventSink(directory, 1, objectMapper);
+
+        // Assert
+        assertEquals(5, reopened.endOffset(0));
+        assertEquals(4, reopened.read(0, 4, 10).get(0).eventId());
+        assertFalse(Files.exists(directory.resolve("partition-0.ndjson")));
+        reopened.close();
+    }
+
+    private FileEventSink segmented(long segmentBytes, Duration segmentAge, Duration retention) {
+        return new FileEventSink(directory, 1, objectMapper, segmentBytes, segmentAge, retention, clock);
+    }
+
+    private long segmentFiles() {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("partition-0-")).count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<DomainEvent> events(int firstId, int count) {
+        List<DomainEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(DomainEvent.unpositioned(firstId + i, "PAYMENT_COMPLETED", "patient:1", firstId + i,
+                    "{\"paymentId\":" + (firstId + i) + "}", LocalDateTime.of(2025, 1, 1, 12, 0)));
+        }
+        return events;
+    }
+}
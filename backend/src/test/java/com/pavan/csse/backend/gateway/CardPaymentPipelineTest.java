@@ -0,0 +1,173 @@
+package com.pavan.csse.backend.gateway;
+
+import com.pavan.csse.backend.gateway.PaymentGateway.ChargeRequest;
+import com.pavan.csse.backend.gateway.PaymentGateway.ChargeResult;
+import com.pavan.csse.backend.util.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardPaymentPipelineTest {
+
+    private CardPaymentPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void testTransientFailureIsRetried() throws Exception {
+        // Arrange: the first call fails, the second approves
+        AtomicInteger calls = new AtomicInteger();
+        pipeline = pipeline(request -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new PaymentGatewayException("Gateway unavailable");
+            }
+            return ChargeResult.approved("REF-" + request.paymentId());
+        }, 1, 10, Duration.ofSeconds(1), new CircuitBreaker(5, Duration.ofSeconds(30)));
+
+        // Act
+        ChargeResult result = charge(1L);
+
+        // Assert
+        assertTrue(result.approved());
+        assertEquals("REF-1", result.reference());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testTimedOutCallsFailAfterMaxAttempts() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        pipeline = pipeline(request -> {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ChargeResult.approved("late");
+        }, 1, 10, Duration.ofMillis(50), new CircuitBreaker(5, Duration.ofSeconds(30)));
+
+        ChargeResult result = charge(2L);
+
+        assertFalse(result.approved());
+        assertEquals("Gateway timed out", result.reason());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testDeclineIsNotRetried() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        pipeline = pipeline(request -> {
+            calls.incrementAndGet();
+            return ChargeResult.declined("Card declined");
+        }, 1, 10, Duration.ofSeconds(1), new CircuitBreaker(5, Duration.ofSeconds(30)));
+
+        ChargeResult result = charge(3L);
+
+        assertFalse(result.approved());
+        assertEquals("Card declined", result.reason());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testOpenCircuitFailsFastWithoutCallingGateway() throws Exception {
+        // Arrange: two failures open a breaker with threshold 2
+        AtomicInteger calls = new AtomicInteger();
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+        pipeline = pipeline(request -> {
+            calls.incrementAndGet();
+            throw new PaymentGatewayException("Gateway unavailable");
+        }, 1, 10, Duration.ofSeconds(1), breaker);
+        charge(4L);
+        int callsWhenOpened = calls.get();
+
+        // Act
+        ChargeResult result = charge(5L);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, pipeline.getCircuitState());
+        assertFalse(result.approved());
+        assertEquals(callsWhenOpened, calls.get());
+    }
+
+    @Test
+    void testChargeNoLongerPendingIsNotSent() throws Exception {
+        // Arrange: the payment was given up on after the first attempt failed
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean pending = new AtomicBoolean(true);
+        pipeline = pipeline(request -> {
+            calls.incrementAndGet();
+            pending.set(false);
+            throw new PaymentGatewayException("Gateway unavailable");
+        }, 1, 10, Duration.ofSeconds(1), new CircuitBreaker(5, Duration.ofSeconds(30)));
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean called = new AtomicBoolean();
+
+        // Act
+        assertTrue(pipeline.submit(request(9L), pending::get, result -> called.set(true)));
+        pipeline.submit(request(10L), () -> {
+            done.countDown();
+            return false;
+        }, result -> { });
+
+        // Assert: no retry and no callback
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertFalse(called.get());
+    }
+
+    @Test
+    void testSubmitRejectedWhenQueueIsFull() throws Exception {
+        // Arrange: one worker blocked on the gateway and a queue of one
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        pipeline = pipeline(request -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ChargeResult.approved("ok");
+        }, 1, 1, Duration.ofSeconds(5), new CircuitBreaker(5, Duration.ofSeconds(30)));
+        assertTrue(pipeline.submit(request(6L), result -> { }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(pipeline.submit(request(7L), result -> { }));
+
+        // Act
+        boolean accepted = pipeline.submit(request(8L), result -> { });
+
+        // Assert
+        assertFalse(accepted);
+        assertEquals(1, pipeline.getQueueSize());
+        release.countDown();
+    }
+
+    private CardPaymentPipeline pipeline(PaymentGateway gateway, int workers, int queueCapacity,
+                                         Duration timeout, CircuitBreaker breaker) {
+        return new CardPaymentPipeline(gateway, breaker, workers, queueCapacity, timeout, 3, Duration.ofMillis(1));
+    }
+
+    private ChargeResult charge(Long paymentId) throws Exception {
+        CompletableFuture<ChargeResult> outcome = new CompletableFuture<>();
+        assertTrue(pipeline.submit(request(paymentId), outcome::complete));
+        return outcome.get(10, TimeUnit.SECONDS);
+    }
+
+    private ChargeRequest request(Long paymentId) {
+        return new ChargeRequest(paymentId, new BigDecimal("10.00"), null);
+    }
+}
@@ -1,8 +1,11 @@
 package com.pavan.csse.backend.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pavan.csse.backend.dto.LoginRequest;
+import com.pavan.csse.backend.dto.RefreshTokenRequest;
 import com.pavan.csse.backend.dto.UserRegistrationDto;
+import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.model.UserRole;
 import com.pavan.csse.backend.repository.DoctorRepository;
 import com.pavan.csse.backend.repository.StaffRepository;
@@ -10,21 +13,23 @@ import com.pavan.csse.backend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureTestMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
-@AutoConfigureTestMvc
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class AuthIntegrationTest {
@@ -235,6 +240,133 @@ class AuthIntegrationTest {
                 .andExpect(jsonPath("$.token").exists());
     }
 
+    @Test
+    void testTokenRejectedAfterUserDeactivated() throws Exception {
+        // Register and login
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createValidDoctorDto())))
+                .andExpect(status().isCreated());
+
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("testdoctor", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        String token = objectMapper.readTree(loginResult.getResponse().getContentAsString())
+                .get("token").asText();
+
+        mockMvc.perform(get("/api/doctor/profile")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // Deactivate the user; the still-unexpired token must stop working
+        User user = userRepository.findByUsername("testdoctor").orElseThrow();
+        user.setIsActive(false);
+        userRepository.save(user);
+
+        mockMvc.perform(get("/api/doctor/profile")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRefreshTokenRotationAndReuseDetection() throws Exception {
+        // Register and login
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createValidDoctorDto())))
+                .andExpect(status().isCreated());
+
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("testdoctor", "password123"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andReturn();
+        String firstRefresh = objectMapper.readTree(loginResult.getResponse().getContentAsString())
+                .get("refreshToken").asText();
+
+        // Refresh returns a new access token and a rotated refresh token
+        MvcResult refreshResult = mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(firstRefresh))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("testdoctor"))
+                .andReturn();
+        JsonNode refreshed = objectMapper.readTree(refreshResult.getResponse().getContentAsString());
+        String secondRefresh = refreshed.get("refreshToken").asText();
+        assertNotEquals(firstRefresh, secondRefresh);
+
+        mockMvc.perform(get("/api/doctor/profile")
+                .header("Authorization", "Bearer " + refreshed.get("token").asText()))
+                .andExpect(status().isOk());
+
+        // Replaying the rotated token is rejected and revokes the whole family
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(firstRefresh))))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(secondRefresh))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testLogoutRevokesRefreshToken() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createValidDoctorDto())))
+                .andExpect(status().isCreated());
+
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("testdoctor", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        String refreshToken = objectMapper.readTree(loginResult.getResponse().getContentAsString())
+                .get("refreshToken").asText();
+
+        mockMvc.perform(post("/api/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(refreshToken))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testLegacyPasswordHashUpgradedOnLogin() throws Exception {
+        // Arrange - a user stored with a plain BCrypt hash from before the delegating encoder
+        User user = new User();
+        user.setUsername("legacyuser");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+        user.setEmail("legacy@example.com");
+        user.setFirstName("Legacy");
+        user.setLastName("User");
+        user.setRole(UserRole.ADMIN);
+        user.setIsActive(true);
+        userRepository.save(user);
+
+        // Act
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("legacyuser", "password123"))))
+                .andExpect(status().isOk());
+
+        // Assert - rehashed with the configured encoder and still usable
+        String stored = userRepository.findByUsername("legacyuser").orElseThrow().getPassword();
+        assertTrue(stored.startsWith("{bcrypt}"));
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("legacyuser", "password123"))))
+                .andExpect(status().isOk());
+    }
+
     private UserRegistrationDto createValidDoctorDto() {
         UserRegistrationDto dto = new UserRegistrationDto();
         dto.setUsername("testdoctor");
@@ -0,0 +1,202 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.gateway.PaymentGateway.ChargeResult;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PaymentAllocationRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CardPaymentIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentAllocationRepository paymentAllocationRepository;
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testApprovedCardPaymentCompletesAsynchronously() throws Exception {
+        // Arrange
+        Invoice invoice = testData.invoice("Alice", "50.00");
+
+        // Act
+        String body = mockMvc.perform(post("/api/payments/process")
+                        .with(user("staff1").roles("STAFF"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(invoice, "4111111111111111"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PROCESSING"))
+                .andReturn().getResponse().getContentAsString();
+        Long paymentId = objectMapper.readTree(body).get("paymentId").asLong();
+        Payment payment = awaitFinished(paymentId);
+
+        // Assert
+        assertEquals(PaymentStatus.COMPLETED, payment.getStatus());
+        assertEquals("SIM-" + paymentId, payment.getGatewayReference());
+        assertEquals(InvoiceStatus.PAID, invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus());
+        assertEquals(1, paymentAllocationRepository.findByPaymentIdOrderByIdAsc(paymentId).size());
+        mockMvc.perform(get("/api/payments/" + paymentId + "/status").with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.gatewayReference").value("SIM-" + paymentId));
+    }
+
+    @Test
+    void testDeclinedCardPaymentLeavesInvoiceOutstanding() throws Exception {
+        Invoice invoice = testData.invoice("Alice", "20.00");
+
+        Long paymentId = paymentService.processPayment(request(invoice, "4000000000000000"), "staff1", null)
+                .response().getPaymentId();
+        Payment payment = awaitFinished(paymentId);
+
+        assertEquals(PaymentStatus.FAILED, payment.getStatus());
+        assertEquals("Card declined", payment.getFailureReason());
+        assertEquals(InvoiceStatus.OUTSTANDING, invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus());
+        assertEquals(0, paymentAllocationRepository.count());
+    }
+
+    @Test
+    void testLateAnswerDoesNotOverrideFinishedPayment() throws Exception {
+        // Arrange
+        Invoice invoice = testData.invoice("Alice", "30.00");
+        Long paymentId = paymentService.processPayment(request(invoice, "4111111111111111"), "staff1", null)
+                .response().getPaymentId();
+        awaitFinished(paymentId);
+
+        // Act: a duplicate gateway answer arrives after the payment completed
+        paymentService.completeCardPayment(paymentId, ChargeResult.declined("Card declined"));
+
+        // Assert
+        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+        assertEquals(PaymentStatus.COMPLETED, payment.getStatus());
+        assertEquals(1, paymentAllocationRepository.findByPaymentIdOrderByIdAsc(paymentId).size());
+    }
+
+    @Test
+    void testApprovalAllocatesOnlyWhatIsStillOpen() throws Exception {
+        // Arrange: the invoice is paid in cash while the card charge is in flight
+        Invoice invoice = testData.invoice("Alice", "40.00");
+        Payment pending = new Payment();
+        pending.setAmount(new BigDecimal("40.00"));
+        pending.setMethod(PaymentMethod.CARD);
+        pending.setStatus(PaymentStatus.PROCESSING);
+        pending.getInvoiceIds().add(invoice.getId());
+        pending = paymentRepository.save(pending);
+        ProcessPaymentRequest cash = request(invoice, null);
+        cash.setMethod(PaymentMethod.CASH);
+        paymentService.processPayment(cash, "staff1", null);
+
+        // Act
+        paymentService.completeCardPayment(pending.getId(), ChargeResult.approved("REF-1"));
+
+        // Assert: the card money is on record but nothing is allocated twice
+        Payment payment = paymentRepository.findById(pending.getId()).orElseThrow();
+        assertEquals(PaymentStatus.COMPLETED, payment.getStatus());
+        assertTrue(paymentAllocationRepository.findByPaymentIdOrderByIdAsc(pending.getId()).isEmpty());
+        Invoice settled = invoiceRepository.findById(invoice.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("40.00").compareTo(settled.getAmountPaid()));
+    }
+
+    @Test
+    void testApprovalAfterStaleSweepIsKeptForRefund() {
+        // Arrange: the sweep fails a payment whose charge was still in flight
+        Invoice invoice = testData.invoice("Alice", "25.00");
+        Payment pending = new Payment();
+        pending.setAmount(new BigDecimal("25.00"));
+        pending.setMethod(PaymentMethod.CARD);
+        pending.setStatus(PaymentStatus.PROCESSING);
+        pending.getInvoiceIds().add(invoice.getId());
+        pending = paymentRepository.save(pending);
+        ReflectionTestUtils.setField(paymentService, "staleAfter", Duration.ofMillis(-1));
+        try {
+            paymentService.failStalePayments();
+        } finally {
+            ReflectionTestUtils.setField(paymentService, "staleAfter", Duration.ofMinutes(5));
+        }
+        assertEquals(PaymentStatus.FAILED, paymentRepository.findById(pending.getId()).orElseThrow().getStatus());
+
+        // Act
+        paymentService.completeCardPayment(pending.getId(), ChargeResult.approved("REF-LATE"));
+
+        // Assert: the money is on record, unallocated and flagged
+        Payment payment = paymentRepository.findById(pending.getId()).orElseThrow();
+        assertEquals(PaymentStatus.COMPLETED, payment.getStatus());
+        assertEquals("REF-LATE", payment.getGatewayReference());
+        assertTrue(payment.getFailureReason().contains("refund needed"));
+        assertTrue(paymentAllocationRepository.findByPaymentIdOrderByIdAsc(pending.getId()).isEmpty());
+        assertEquals(InvoiceStatus.OUTSTANDING, invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus());
+    }
+
+    private Payment awaitFinished(Long paymentId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+            if (payment.getStatus() != PaymentStatus.PROCESSING) {
+                return payment;
+            }
+            Thread.sleep(20);
+        }
+        fail("Payment " + paymentId + " still PROCESSING");
+        return null;
+    }
+
+    private ProcessPaymentRequest request(Invoice invoice, String cardNumber) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setInvoiceIds(List.of(invoice.getId()));
+        request.setMethod(PaymentMethod.CARD);
+        request.setAmount(invoice.getAmount());
+        request.setDetails(cardNumber == null ? Map.of() : Map.of("number", cardNumber));
+        return request;
+    }
+}
@@ -0,0 +1,194 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.service.DashboardService;
+import com.pavan.csse.backend.support.BillingTestData;
+import com.pavan.csse.backend.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pavan.csse.backend.support.SqlStatementCounter")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DashboardIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService.evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testDoctorDashboardOneQueryPerPanelAndNotModifiedOnRepeat() throws Exception {
+        String token = quickLogin("doctor");
+
+        SqlStatementCounter.reset();
+        String etag = mockMvc.perform(get("/api/doctor/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.message").value("Welcome to Doctor Dashboard"))
+                .andExpect(jsonPath("$.doctor.licenseNumber").value("MD123456"))
+                .andExpect(jsonPath("$.user.username").value("doctor1"))
+                .andExpect(jsonPath("$.user.password").doesNotExist())
+                .andExpect(jsonPath("$.counts.doctors").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Profile panel and counts panel; the user comes from the user cache
+        assertEquals(2, SqlStatementCounter.selects());
+        assertEquals(1, SqlStatementCounter.selectsFrom("doctors"));
+        assertEquals(0, SqlStatementCounter.selectsFrom("users"));
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/doctor/dashboard")
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, SqlStatementCounter.selects());
+    }
+
+    @Test
+    void testPaymentsDashboardPanels() throws Exception {
+        Invoice outstanding = testData.invoice("Alice", "100.00", InvoiceStatus.OUTSTANDING);
+        testData.invoice("Bob", "40.00", InvoiceStatus.OUTSTANDING);
+        testData.invoice("Carol", "25.00", InvoiceStatus.PAID);
+        Payment payment = new Payment();
+        payment.setPatientName(outstanding.getPatientName());
+        payment.setAmount(new BigDecimal("25.00"));
+        payment.setMethod(PaymentMethod.CASH);
+        payment.setStatus(PaymentStatus.COMPLETED);
+        paymentRepository.save(payment);
+
+        String token = quickLogin("staff");
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/api/payments/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recent[0].patientName").value("Alice"))
+                .andExpect(jsonPath("$.recent[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.counts.outstandingInvoices").value(2))
+                .andExpect(jsonPath("$.counts.paymentsToday").value(1))
+                .andExpect(jsonPath("$.invoiceTotals.length()").value(2));
+
+        // Recent payments, invoice totals and counts: one statement per panel
+        assertEquals(3, SqlStatementCounter.selects());
+        assertEquals(1, SqlStatementCounter.selectsFrom("payments"));
+    }
+
+    @Test
+    void testPaymentsDashboardIsStaffAndAdminOnly() throws Exception {
+        String token = quickLogin("doctor");
+
+        mockMvc.perform(get("/api/payments/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testStaffDashboardIncludesPaymentPanels() throws Exception {
+        String token = quickLogin("staff");
+
+        mockMvc.perform(get("/api/staff/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.staff.employeeId").value("EMP001"))
+                .andExpect(jsonPath("$.recentPayments").isArray())
+                .andExpect(jsonPath("$.invoiceTotals").isArray())
+                .andExpect(jsonPath("$.counts.staff").value(1));
+    }
+
+    @Test
+    void testBuildFailingWithErrorDoesNotWedgeLaterRequests() throws Exception {
+        // Arrange: the panels cannot even be scheduled
+        quickLogin("staff");
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(dashboardService, "dashboardExecutor");
+        ReflectionTestUtils.setField(dashboardService, "dashboardExecutor", new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable command) {
+                throw new AssertionError("Executor broken");
+            }
+
+            @Override
+            public void shutdown() {
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return List.of();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return false;
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return false;
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) {
+                return false;
+            }
+        });
+        try {
+            assertThrows(AssertionError.class, () -> dashboardService.getDashboard(DashboardService.Kind.PAYMENTS, "staff1"));
+        } finally {
+            ReflectionTestUtils.setField(dashboardService, "dashboardExecutor", executor);
+        }
+
+        // Act / Assert: the failed build is not left in the cache for the next request to wait on
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertNotNull(dashboardService.getDashboard(DashboardService.Kind.PAYMENTS, "staff1")));
+    }
+
+    private String quickLogin(String role) throws Exception {
+        String body = mockMvc.perform(post("/api/test/quick-login/" + role))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+}
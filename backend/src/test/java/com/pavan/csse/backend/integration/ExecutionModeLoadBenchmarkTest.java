@@ -0,0 +1,274 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.BackendApplication;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load-test harness comparing the platform-thread and virtual-thread request execution
+ * modes on {@code /api/doctor/dashboard} and {@code /api/payments/process}. Each mode
+ * boots the application on a random port with its own database, and every JDBC statement
+ * is delayed to stand in for a slow Postgres. Excluded from the default test run; use
+ * {@code gradle benchmarkTest}, tuning the run with {@code -Dloadtest.clients},
+ * {@code -Dloadtest.duration}, {@code -Dloadtest.db-latency} and {@code -Dloadtest.pool-size}.
+ */
+@Tag("benchmark")
+class ExecutionModeLoadBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 400);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 10));
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final int DB_LATENCY_MILLIS = Integer.getInteger("loadtest.db-latency", 20);
+    private static final int POOL_SIZE = Integer.getInteger("loadtest.pool-size", 20);
+    private static final int INVOICES = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void benchmarkPlatformVersusVirtualThreads() throws Exception {
+        List<String> report = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            try (ConfigurableApplicationContext context = start(mode, virtual)) {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                String base = "http://localhost:" + port;
+                List<Long> invoiceIds = seedInvoices(context.getBean(InvoiceRepository.class));
+                String token = quickLogin(base);
+
+                HttpRequest dashboard = HttpRequest.newBuilder(URI.create(base + "/api/doctor/dashboard"))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+                AtomicLong next = new AtomicLong();
+                Result dashboardResult = run(() -> dashboard, 200);
+                Result processResult = run(() -> processPayment(base, token,
+                        invoiceIds.get((int) (next.getAndIncrement() % invoiceIds.size()))), 201);
+
+                report.add(dashboardResult.format(mode, "/api/doctor/dashboard"));
+                report.add(processResult.format(mode, "/api/payments/process"));
+                assertTrue(dashboardResult.completed() > 0, mode + " dashboard completed no requests");
+                assertTrue(processResult.completed() > 0, mode + " process completed no requests");
+            }
+        }
+
+        System.out.printf("%n%d clients, %ds per run, %dms per statement, pool of %d connections%n",
+                CLIENTS, DURATION.toSeconds(), DB_LATENCY_MILLIS, POOL_SIZE);
+        System.out.printf("%-9s %-24s %10s %8s %9s %9s %9s%n", "mode", "endpoint", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+        report.forEach(System.out::println);
+    }
+
+    // Passed as command-line arguments so they take precedence over application.properties
+    private ConfigurableApplicationContext start(String mode, boolean virtual) {
+        return new SpringApplicationBuilder(BackendApplication.class, SlowDatabase.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.connection-timeout=30000",
+                        "--security.rate-limit.enabled=false",
+                        // Every dashboard request goes to the database
+                        "--dashboard.cache.ttl=0s",
+                        "--logging.level.com.pavan.csse.backend=WARN",
+                        "--logging.level.org.hibernate=WARN",
+                        "--loadtest.db-latency=" + DB_LATENCY_MILLIS);
+    }
+
+    private List<Long> seedInvoices(InvoiceRepository invoiceRepository) {
+        List<Invoice> invoices = new ArrayList<>(INVOICES);
+        for (int i = 0; i < INVOICES; i++) {
+            Invoice invoice = new Invoice();
+            invoice.setPatientName("Patient " + i);
+            invoice.setAmount(new BigDecimal("50.00"));
+            invoices.add(invoice);
+        }
+        return invoiceRepository.saveAll(invoices).stream().map(Invoice::getId).toList();
+    }
+
+    private String quickLogin(String base) throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(base + "/api/test/quick-login/doctor"))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpRequest processPayment(String base, String token, long invoiceId) {
+        // A small partial payment, so invoices stay open for the whole run
+        String body = "{\"invoiceIds\":[" + invoiceId + "],\"method\":\"CARD\",\"amount\":0.01}";
+        return HttpRequest.newBuilder(URI.create(base + "/api/payments/process"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Closed-loop load: each client sends its next request as soon as the previous one
+     * answers. Latencies recorded during the warm-up are discarded.
+     */
+    private Result run(RequestSource requests, int expectedStatus) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + WARMUP.toNanos();
+        long end = measureFrom + DURATION.toNanos();
+        List<Future<long[]>> clients = new ArrayList<>(CLIENTS);
+        AtomicLong errors = new AtomicLong();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        boolean ok;
+                        try {
+                            ok = client.send(requests.next(), HttpResponse.BodyHandlers.discarding())
+                                    .statusCode() == expectedStatus;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long done = System.nanoTime();
+                        if (now < measureFrom || done > end) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = done - now;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        List<long[]> perClient = new ArrayList<>(CLIENTS);
+        for (Future<long[]> future : clients) {
+            perClient.add(future.get());
+        }
+        long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get(), DURATION);
+    }
+
+    @FunctionalInterface
+    private interface RequestSource {
+        HttpRequest next();
+    }
+
+    private record Result(long[] sortedLatencies, long errors, Duration duration) {
+
+        long completed() {
+            return sortedLatencies.length;
+        }
+
+        String format(String mode, String endpoint) {
+            return String.format("%-9s %-24s %10.1f %8d %9.1f %9.1f %9.1f", mode, endpoint,
+                    sortedLatencies.length / (double) duration.toSeconds(), errors,
+                    percentile(0.50), percentile(0.99), percentile(1.0));
+        }
+
+        private double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Wraps the pooled data source so that every statement execution sleeps first while
+     * holding its connection, as a slow query would. Registered only by this harness.
+     */
+    static class SlowDatabase implements BeanPostProcessor, EnvironmentAware {
+
+        private long latencyMillis;
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            latencyMillis = environment.getProperty("loadtest.db-latency", Long.class, 0L);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && latencyMillis > 0) {
+                return proxy(DataSource.class, dataSource);
+            }
+            return bean;
+        }
+
+        private <T> T proxy(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("execute") && target instanceof Statement) {
+                            Thread.sleep(latencyMillis);
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (result instanceof Connection connection && name.equals("getConnection")) {
+                            return proxy(Connection.class, connection);
+                        }
+                        if (name.equals("prepareCall")) {
+                            return proxy(CallableStatement.class, (CallableStatement) result);
+                        }
+                        if (name.equals("prepareStatement")) {
+                            return proxy(PreparedStatement.class, (PreparedStatement) result);
+                        }
+                        if (name.equals("createStatement")) {
+                            return proxy(Statement.class, (Statement) result);
+                        }
+                        return result;
+                    }));
+        }
+    }
+}
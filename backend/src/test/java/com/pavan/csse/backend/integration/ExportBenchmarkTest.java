@@ -0,0 +1,83 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.service.ExportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports 1M invoices, as CSV and as gzipped NDJSON, and samples the live heap (after a GC)
+ * while each export runs: it should hold a page of rows, not the table. Excluded from the
+ * default test run; use {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+// A file database, so the exported rows are not part of the heap being measured
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:${java.io.tmpdir}/csse-export-bench/${random.uuid}")
+@ActiveProfiles("test")
+class ExportBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_LIVE_HEAP_GROWTH = 64L << 20;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void benchmarkMillionRowExport() throws Exception {
+        jdbcTemplate.update("insert into invoices (id, patient_name, amount, amount_paid, due_date, status, created_at, version) "
+                + "select x, 'Bench ' || x, 10.00, 0, date '2026-03-31', 'OUTSTANDING', current_timestamp, 0 "
+                + "from system_range(1, " + ROWS + ")");
+
+        measure(ExportService.Format.CSV, false);
+        measure(ExportService.Format.NDJSON, true);
+    }
+
+    private void measure(ExportService.Format format, boolean gzip) throws Exception {
+        long baseline = liveHeap();
+        AtomicLong maxLiveHeap = new AtomicLong(baseline);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                maxLiveHeap.accumulateAndGet(liveHeap(), Math::max);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        long rows;
+        try {
+            rows = exportService.exportInvoices(format, gzip, OutputStream.nullOutputStream());
+        } finally {
+            sampler.interrupt();
+            sampler.join();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long growth = maxLiveHeap.get() - baseline;
+
+        System.out.printf("Invoice export, %s%s, %d rows: %d ms (%.0f rows/s), live heap growth %.1f MB%n",
+                format, gzip ? " gzip" : "", rows, millis, rows * 1000.0 / millis, growth / 1048576.0);
+
+        assertEquals(ROWS, rows);
+        assertTrue(growth < MAX_LIVE_HEAP_GROWTH, "live heap grew by " + growth + " bytes");
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
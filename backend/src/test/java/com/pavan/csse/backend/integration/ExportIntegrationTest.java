@@ -0,0 +1,171 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.Patient;
+import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.support.BillingTestData;
+import com.pavan.csse.backend.util.CsvReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = testData.patient("Eve", "Export");
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testPaymentsExportAsCsvQuotesFieldsThatNeedIt() throws Exception {
+        // Arrange
+        Payment payment = new Payment();
+        payment.setPatient(patient);
+        payment.setPatientName("Export, \"Eve\"");
+        payment.setAmount(new BigDecimal("125.50"));
+        payment.setMethod(PaymentMethod.CASH);
+        payment.setStatus(PaymentStatus.COMPLETED);
+        payment = paymentRepository.save(payment);
+
+        // Act
+        MockHttpServletResponse response = export("/api/admin/exports/payments");
+
+        // Assert
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertTrue(response.getHeader("Content-Disposition").contains("filename=\"payments.csv\""));
+        List<List<String>> records = csv(response.getContentAsByteArray());
+        assertEquals(List.of("id", "patient_id", "patient_name", "amount", "method", "status", "gateway_reference",
+                "failure_reason", "insurer", "policy_number", "claim_batch_id", "created_at", "completed_at"),
+                records.get(0));
+        assertEquals(2, records.size());
+        List<String> row = records.get(1);
+        assertEquals(String.valueOf(payment.getId()), row.get(0));
+        assertEquals(String.valueOf(patient.getId()), row.get(1));
+        assertEquals("Export, \"Eve\"", row.get(2));
+        assertEquals("125.50", row.get(3));
+        assertEquals("CASH", row.get(4));
+        assertEquals("COMPLETED", row.get(5));
+        assertEquals("", row.get(6));
+    }
+
+    @Test
+    void testInvoicesExportAsGzippedNdjsonAcrossSeveralPages() throws Exception {
+        // Arrange: more rows than are written between persistence context clears
+        List<Invoice> invoices = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Invoice invoice = new Invoice();
+            invoice.setPatient(i % 2 == 0 ? patient : null);
+            invoice.setPatientName("Eve " + i);
+            invoice.setAmount(new BigDecimal("10.00"));
+            invoice.setDueDate(LocalDate.of(2026, 3, 31));
+            invoices.add(invoice);
+        }
+        invoiceRepository.saveAll(invoices);
+
+        // Act
+        MockHttpServletResponse response = export("/api/admin/exports/invoices?format=ndjson&gzip=true");
+
+        // Assert
+        assertEquals("application/gzip", response.getContentType());
+        assertTrue(response.getHeader("Content-Disposition").contains("filename=\"invoices.ndjson.gz\""));
+        byte[] body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            body = in.readAllBytes();
+        }
+        String[] lines = new String(body, StandardCharsets.UTF_8).split("\n");
+        assertEquals(2500, lines.length);
+        long previousId = 0;
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode line = objectMapper.readTree(lines[i]);
+            assertTrue(line.get("id").asLong() > previousId, "invoices are exported in id order");
+            previousId = line.get("id").asLong();
+            assertEquals("Eve " + i, line.get("patient_name").asText());
+            assertEquals(i % 2 == 0 ? patient.getId() : null,
+                    line.get("patient_id").isNull() ? null : line.get("patient_id").asLong());
+        }
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(0, new BigDecimal("10.00").compareTo(first.get("amount").decimalValue()));
+        assertEquals("2026-03-31", first.get("due_date").asText());
+        assertEquals("OUTSTANDING", first.get("status").asText());
+    }
+
+    @Test
+    void testExportRejectsUnknownFormatAndNonAdmins() throws Exception {
+        mockMvc.perform(get("/api/admin/exports/payments?format=xml").with(user("admin1").roles("ADMIN")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unsupported export format: xml"));
+        mockMvc.perform(get("/api/admin/exports/invoices").with(user("staff1").roles("STAFF")))
+                .andExpect(status().isForbidden());
+    }
+
+    private MockHttpServletResponse export(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).with(user("admin1").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private List<List<String>> csv(byte[] body) throws Exception {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new ByteArrayInputStream(body), 4096)) {
+            for (List<String> record = reader.readRecord(); record != null; record = reader.readRecord()) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
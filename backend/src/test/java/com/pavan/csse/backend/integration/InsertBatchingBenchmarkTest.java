@@ -0,0 +1,124 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.dto.AgingTotal;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.repository.AgingRollupRepository;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk invoice creation through {@code invoiceRepository.saveAll}, row by row (JDBC batch
+ * size 1, the round trips IDENTITY ids forced) versus the configured pooled-lo sequence
+ * ids and JDBC batching. Excluded from the default test run; use {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:insertbench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class InsertBatchingBenchmarkTest {
+
+    private static final int ROWS = 10_000;
+    private static final int RUNS = 3;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private AgingRollupRepository agingRollupRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void benchmarkBulkInvoiceInsertRowByRowVersusBatched() {
+        // Warm up both paths
+        insert(1);
+        insert(null);
+
+        Result rowByRow = measure(1);
+        Result batched = measure(null);
+
+        System.out.printf("Invoice saveAll, %d rows:%n", ROWS);
+        System.out.printf("  row by row : %8.2f ms, %6d statements prepared%n", rowByRow.nanos() / 1e6, rowByRow.statements());
+        System.out.printf("  batched    : %8.2f ms, %6d statements prepared%n", batched.nanos() / 1e6, batched.statements());
+
+        assertTrue(rowByRow.statements() >= ROWS, "row by row prepares one insert per invoice");
+        // One insert per batch of 50 plus one sequence call per 50 ids
+        assertTrue(batched.statements() <= 2 * (ROWS / 50) + 10, "batched prepares one insert per batch");
+        assertTrue(batched.nanos() < rowByRow.nanos(), "batched inserts should be cheaper than row by row");
+        // The aging deltas of each saveAll are summed into one rollup row
+        assertEquals(2 + 2 * RUNS, agingRollupRepository.count());
+        BigDecimal openAmount = agingRollupRepository.summarize().stream()
+                .map(AgingTotal::getOpenAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, new BigDecimal("10.00").multiply(BigDecimal.valueOf(invoiceRepository.count())).compareTo(openAmount));
+    }
+
+    private record Result(long nanos, long statements) {
+    }
+
+    private Result measure(Integer batchSize) {
+        long nanos = 0;
+        long statements = 0;
+        for (int i = 0; i < RUNS; i++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            insert(batchSize);
+            nanos += System.nanoTime() - start;
+            statements += statistics.getPrepareStatementCount();
+        }
+        return new Result(nanos / RUNS, statements / RUNS);
+    }
+
+    // A null batch size keeps the configured hibernate.jdbc.batch_size
+    private void insert(Integer batchSize) {
+        List<Invoice> invoices = new ArrayList<>(ROWS);
+        LocalDate dueDate = LocalDate.now().plusDays(30);
+        for (int i = 0; i < ROWS; i++) {
+            Invoice invoice = new Invoice();
+            invoice.setPatientName("Bench " + i);
+            invoice.setAmount(new BigDecimal("10.00"));
+            invoice.setDueDate(dueDate);
+            invoices.add(invoice);
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (batchSize != null) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            }
+            invoiceRepository.saveAll(invoices);
+        });
+    }
+}
@@ -0,0 +1,273 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.model.ClaimBatch;
+import com.pavan.csse.backend.model.ClaimBatchStatus;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import com.pavan.csse.backend.repository.ClaimBatchRepository;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PaymentAllocationRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.service.InsuranceClaimProcessor;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InsuranceClaimBatchIntegrationTest {
+
+    @Autowired
+    private InsuranceClaimProcessor claimProcessor;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentAllocationRepository paymentAllocationRepository;
+
+    @Autowired
+    private ClaimBatchRepository claimBatchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testClaimsAreBatchedPerInsurerAndSettled() throws Exception {
+        // Arrange
+        Invoice first = testData.invoice("Alice", "100.00");
+        Invoice second = testData.invoice("Bob", "40.00");
+        Invoice third = testData.invoice("Carol", "25.00");
+        Long approved = claim(first, "Ceylinco", "POL-1");
+        Long alsoApproved = claim(second, "AIA", "POL-2");
+        Long denied = claim(third, "Ceylinco", null);
+
+        // Act
+        int completed = claimProcessor.run();
+
+        // Assert: one batch per insurer, both settled from their result files
+        assertEquals(2, completed);
+        List<ClaimBatch> batches = claimBatchRepository.findAll();
+        assertEquals(2, batches.size());
+        ClaimBatch ceylinco = batches.stream().filter(b -> b.getInsurer().equals("Ceylinco")).findFirst().orElseThrow();
+        assertEquals(ClaimBatchStatus.COMPLETED, ceylinco.getStatus());
+        assertEquals(2, ceylinco.getPaymentCount());
+        assertEquals(0, new BigDecimal("125.00").compareTo(ceylinco.getTotalAmount()));
+        assertEquals(1, ceylinco.getApprovedCount());
+        assertEquals(1, ceylinco.getDeniedCount());
+        List<String> claimLines = Files.readAllLines(Path.of(ceylinco.getClaimFile()));
+        assertEquals(3, claimLines.size());
+        assertTrue(claimLines.get(1).startsWith(approved + ",POL-1,100.00,"));
+
+        assertEquals(PaymentStatus.COMPLETED, paymentRepository.findById(approved).orElseThrow().getStatus());
+        assertEquals(PaymentStatus.COMPLETED, paymentRepository.findById(alsoApproved).orElseThrow().getStatus());
+        Payment deniedPayment = paymentRepository.findById(denied).orElseThrow();
+        assertEquals(PaymentStatus.FAILED, deniedPayment.getStatus());
+        assertEquals("Policy number missing", deniedPayment.getFailureReason());
+        assertEquals(InvoiceStatus.PAID, invoiceRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(InvoiceStatus.OUTSTANDING, invoiceRepository.findById(third.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testNextRunOnlyPicksUpNewClaims() {
+        claim(testData.invoice("Alice", "10.00"), "AIA", "POL-1");
+        claimProcessor.run();
+
+        Long later = claim(testData.invoice("Bob", "20.00"), "AIA", "POL-2");
+        claimProcessor.run();
+
+        List<ClaimBatch> batches = claimBatchRepository.findAll();
+        assertEquals(2, batches.size());
+        assertTrue(batches.stream().allMatch(b -> b.getPaymentCount() == 1));
+        assertEquals(PaymentStatus.COMPLETED, paymentRepository.findById(later).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testRestartResumesFromCheckpoint() throws Exception {
+        // Arrange: a batch whose first result was applied before the job stopped
+        Invoice firstInvoice = testData.invoice("Alice", "10.00");
+        Invoice secondInvoice = testData.invoice("Bob", "20.00");
+        Long first = claim(firstInvoice, "AIA", "POL-1");
+        Long second = claim(secondInvoice, "AIA", "POL-2");
+
+        ClaimBatch batch = new ClaimBatch();
+        batch.setInsurer("AIA");
+        batch.setStatus(ClaimBatchStatus.SUBMITTED);
+        batch.setClaimFile(tempDir.resolve("claims.csv").toString());
+        batch.setResultFile(Files.writeString(tempDir.resolve("claims.csv.result"),
+                "payment_id,decision,reason\n" + first + ",APPROVED,\n" + second + ",APPROVED,\n").toString());
+        batch.setPaymentCount(2);
+        batch.setApprovedCount(1);
+        batch.setLastAppliedPaymentId(first);
+        batch = claimBatchRepository.save(batch);
+        for (Long id : List.of(first, second)) {
+            Payment payment = paymentRepository.findById(id).orElseThrow();
+            payment.setClaimBatchId(batch.getId());
+            if (id.equals(first)) {
+                payment.setStatus(PaymentStatus.COMPLETED);
+            }
+            paymentRepository.save(payment);
+        }
+
+        // Act
+        claimProcessor.run();
+
+        // Assert: only the result after the checkpoint was applied
+        ClaimBatch resumed = claimBatchRepository.findById(batch.getId()).orElseThrow();
+        assertEquals(ClaimBatchStatus.COMPLETED, resumed.getStatus());
+        assertEquals(2, resumed.getApprovedCount());
+        assertEquals(second.longValue(), resumed.getLastAppliedPaymentId());
+        assertTrue(paymentAllocationRepository.findByPaymentIdOrderByIdAsc(first).isEmpty());
+        assertEquals(1, paymentAllocationRepository.findByPaymentIdOrderByIdAsc(second).size());
+        assertEquals(InvoiceStatus.PAID, invoiceRepository.findById(secondInvoice.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testClaimMissingFromResultsIsBatchedAgain() throws Exception {
+        // Arrange: the insurer's result file only answers the first claim
+        Long answered = claim(testData.invoice("Alice", "10.00"), "AIA", "POL-1");
+        Long missing = claim(testData.invoice("Bob", "20.00"), "AIA", "POL-2");
+        ClaimBatch batch = new ClaimBatch();
+        batch.setInsurer("AIA");
+        batch.setStatus(ClaimBatchStatus.SUBMITTED);
+        batch.setClaimFile(tempDir.resolve("claims.csv").toString());
+        batch.setResultFile(Files.writeString(tempDir.resolve("claims.csv.result"),
+                "payment_id,decision,reason\n" + answered + ",APPROVED,\n").toString());
+        batch.setPaymentCount(2);
+        batch = claimBatchRepository.save(batch);
+        for (Long id : List.of(answered, missing)) {
+            Payment payment = paymentRepository.findById(id).orElseThrow();
+            payment.setClaimBatchId(batch.getId());
+            paymentRepository.save(payment);
+        }
+
+        // Act
+        claimProcessor.run();
+
+        // Assert: the unanswered claim left the batch and is still pending
+        ClaimBatch settled = claimBatchRepository.findById(batch.getId()).orElseThrow();
+        assertEquals(ClaimBatchStatus.COMPLETED, settled.getStatus());
+        assertEquals(1, settled.getApprovedCount());
+        assertEquals(1, settled.getUnansweredCount());
+        Payment released = paymentRepository.findById(missing).orElseThrow();
+        assertEquals(PaymentStatus.INSURANCE_PENDING, released.getStatus());
+        assertNull(released.getClaimBatchId());
+
+        // Act: the next run claims it in a new batch
+        claimProcessor.run();
+
+        assertEquals(2, claimBatchRepository.count());
+        assertEquals(PaymentStatus.COMPLETED, paymentRepository.findById(missing).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testClaimSettledConcurrentlyIsNotAllocatedTwice() throws Exception {
+        // Arrange: another settlement approves the second claim just after this one reads it as pending
+        Long first = claim(testData.invoice("Alice", "10.00"), "AIA", "POL-1");
+        Long second = claim(testData.invoice("Bob", "20.00"), "AIA", "POL-2");
+        ClaimBatch batch = new ClaimBatch();
+        batch.setInsurer("AIA");
+        batch.setStatus(ClaimBatchStatus.SUBMITTED);
+        batch.setClaimFile(tempDir.resolve("claims.csv").toString());
+        batch.setResultFile(Files.writeString(tempDir.resolve("claims.csv.result"),
+                "payment_id,decision,reason\n" + first + ",APPROVED,\n" + second + ",APPROVED,\n").toString());
+        batch.setPaymentCount(2);
+        batch = claimBatchRepository.save(batch);
+        Long batchId = batch.getId();
+        for (Long id : List.of(first, second)) {
+            Payment payment = paymentRepository.findById(id).orElseThrow();
+            payment.setClaimBatchId(batchId);
+            paymentRepository.save(payment);
+        }
+        TransactionTemplate otherSettlement = new TransactionTemplate(transactionManager);
+        AtomicBoolean raced = new AtomicBoolean();
+        ReflectionTestUtils.setField(claimProcessor, "paymentRepository", Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{PaymentRepository.class}, (proxy, method, args) -> {
+                    Object result = method.invoke(paymentRepository, args);
+                    if (method.getName().equals("findPendingClaimIds") && raced.compareAndSet(false, true)) {
+                        Thread.ofPlatform().start(() -> otherSettlement.executeWithoutResult(status ->
+                                paymentRepository.settleClaims(batchId, List.of(second), PaymentStatus.COMPLETED,
+                                        null, LocalDateTime.now()))).join();
+                    }
+                    return result;
+                }));
+
+        try {
+            // Act
+            claimProcessor.run();
+        } finally {
+            ReflectionTestUtils.setField(claimProcessor, "paymentRepository", paymentRepository);
+        }
+
+        // Assert: this run settled only the claim it still found pending
+        ClaimBatch settled = claimBatchRepository.findById(batchId).orElseThrow();
+        assertEquals(ClaimBatchStatus.COMPLETED, settled.getStatus());
+        assertEquals(1, settled.getApprovedCount());
+        assertEquals(1, paymentAllocationRepository.findByPaymentIdOrderByIdAsc(first).size());
+        assertTrue(paymentAllocationRepository.findByPaymentIdOrderByIdAsc(second).isEmpty());
+    }
+
+    @Test
+    void testInsurancePaymentRequiresInsurer() {
+        ProcessPaymentRequest request = request(testData.invoice("Dan", "10.00"), null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> paymentService.processPayment(request, "staff1", null));
+    }
+
+    private Long claim(Invoice invoice, String insurer, String policyNumber) {
+        return paymentService.processPayment(request(invoice, insurer, policyNumber), "staff1", null).response().getPaymentId();
+    }
+
+    private ProcessPaymentRequest request(Invoice invoice, String insurer, String policyNumber) {
+        Map<String, String> details = new HashMap<>();
+        details.put("insurer", insurer);
+        details.put("policyNumber", policyNumber);
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setInvoiceIds(List.of(invoice.getId()));
+        request.setMethod(PaymentMethod.INSURANCE);
+        request.setAmount(invoice.getAmount());
+        request.setDetails(details);
+        return request;
+    }
+}
@@ -0,0 +1,121 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.dto.InvoiceImportSummary;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.service.InvoiceImportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports a generated 1M-row CSV, one row in a thousand invalid, and samples the live heap
+ * (after a GC) while it runs: the import should hold a bounded number of chunks, not the
+ * file. Excluded from the default test run; use {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+// A file database, so the imported rows are not part of the heap being measured
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:${java.io.tmpdir}/csse-import-bench/${random.uuid}")
+@ActiveProfiles("test")
+class InvoiceImportBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_LIVE_HEAP_GROWTH = 128L << 20;
+
+    @Autowired
+    private InvoiceImportService invoiceImportService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Test
+    void benchmarkMillionRowImport() throws Exception {
+        long baseline = liveHeap();
+        AtomicLong maxLiveHeap = new AtomicLong(baseline);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                maxLiveHeap.accumulateAndGet(liveHeap(), Math::max);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        InvoiceImportSummary summary;
+        try (InputStream csv = new GeneratedCsv(ROWS)) {
+            summary = invoiceImportService.start(csv).writeTo(OutputStream.nullOutputStream());
+        } finally {
+            sampler.interrupt();
+            sampler.join();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long growth = maxLiveHeap.get() - baseline;
+
+        System.out.printf("Invoice import, %d rows: %d ms (%.0f rows/s)%n", ROWS, millis, ROWS * 1000.0 / millis);
+        System.out.printf("  imported %d, rejected %d, live heap growth %.1f MB%n",
+                summary.getImported(), summary.getRejected(), growth / 1048576.0);
+
+        assertNull(summary.getError());
+        assertEquals(ROWS, summary.getRows());
+        assertEquals(ROWS / 1000, summary.getRejected());
+        assertEquals(ROWS - ROWS / 1000, invoiceRepository.count());
+        assertTrue(growth < MAX_LIVE_HEAP_GROWTH, "live heap grew by " + growth + " bytes");
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Produces the CSV as it is read, so the file itself never sits in memory
+    private static final class GeneratedCsv extends InputStream {
+        private final int rows;
+        private int row = -1;
+        private byte[] current = "patient_name,amount,due_date\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == current.length && !advance()) {
+                return -1;
+            }
+            int n = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, n);
+            position += n;
+            return n;
+        }
+
+        private boolean advance() {
+            if (++row >= rows) {
+                return false;
+            }
+            String amount = row % 1000 == 999 ? "-1" : (row % 500) + ".25";
+            String dueDate = "2026-" + String.format("%02d", row % 12 + 1) + "-15";
+            current = ("Patient " + row + "," + amount + "," + dueDate + "\n").getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.Patient;
+import com.pavan.csse.backend.repository.AgingRollupRepository;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.service.InvoiceImportService;
+import com.pavan.csse.backend.service.ReportRollupService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class InvoiceImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InvoiceImportService invoiceImportService;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private AgingRollupRepository agingRollupRepository;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        agingRollupRepository.deleteAll();
+        patient = testData.patient("Ivy", "Import");
+        // Several chunks, so rows are validated in parallel and written in order
+        ReflectionTestUtils.setField(invoiceImportService, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(invoiceImportService, "chunkSize", 5000);
+        testData.deleteAll();
+    }
+
+    @Test
+    void testImportWritesValidRowsAndReportsRejectedOnes() throws Exception {
+        // Arrange
+        String csv = "patient_id,patient_name,amount,due_date\n"
+                + patient.getId() + ",Ivy Import,120.50,2026-01-31\n"
+                + ",Walk In,30,\n"
+                + ",Missing Amount,,\n"
+                + "999999,Ghost,10.00,\n"
+                + ",Bad Date,5.00,31/01/2026\n"
+                + ",\"Quoted, Name\",7.25,2026-02-01\n";
+        MockMultipartFile file = new MockMultipartFile("file", "invoices.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        String body = mockMvc.perform(multipart("/api/admin/invoices/import").file(file)
+                        .with(user("admin1").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        List<JsonNode> lines = lines(body);
+        assertEquals(4, lines.size());
+        assertEquals(4, lines.get(0).get("line").asLong());
+        assertEquals("Amount is required", lines.get(0).get("error").asText());
+        assertEquals(5, lines.get(1).get("line").asLong());
+        assertEquals("Unknown patient 999999", lines.get(1).get("error").asText());
+        assertEquals(6, lines.get(2).get("line").asLong());
+        JsonNode summary = lines.get(3);
+        assertEquals(6, summary.get("rows").asLong());
+        assertEquals(3, summary.get("imported").asLong());
+        assertEquals(3, summary.get("rejected").asLong());
+        assertTrue(summary.get("error").isNull());
+
+        List<Invoice> invoices = new ArrayList<>(invoiceRepository.findAll());
+        invoices.sort(Comparator.comparing(Invoice::getId));
+        assertEquals(List.of("Ivy Import", "Walk In", "Quoted, Name"),
+                invoices.stream().map(Invoice::getPatientName).toList());
+        Invoice first = invoices.get(0);
+        assertEquals(patient.getId(), first.getPatient().getId());
+        assertEquals(0, new BigDecimal("120.50").compareTo(first.getAmount()));
+        assertEquals(LocalDate.of(2026, 1, 31), first.getDueDate());
+        assertEquals(InvoiceStatus.OUTSTANDING, first.getStatus());
+        assertNotNull(first.getCreatedAt());
+        assertEquals(0, reportRollupService.reconcile().agingMismatches());
+    }
+
+    @Test
+    void testImportFromRequestBodyStopsAtMalformedRow() throws Exception {
+        String csv = "amount,patient_name\n10.00,First\n20.00,Second\n30.00,\"Unterminated\n";
+
+        String body = mockMvc.perform(post("/api/admin/invoices/import").contentType("text/csv").content(csv)
+                        .with(user("admin1").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode summary = lines(body).get(0);
+        assertEquals(2, summary.get("imported").asLong());
+        assertEquals("Cannot read line 4: Unterminated quoted field", summary.get("error").asText());
+        assertEquals(2, invoiceRepository.count());
+    }
+
+    @Test
+    void testImportFailingOutsideTheDatabaseIsReportedInTheSummary() throws Exception {
+        // Arrange: the third chunk cannot open its transaction
+        TransactionTemplate transactionTemplate =
+                (TransactionTemplate) ReflectionTestUtils.getField(invoiceImportService, "transactionTemplate");
+        AtomicInteger chunks = new AtomicInteger();
+        ReflectionTestUtils.setField(invoiceImportService, "transactionTemplate",
+                new TransactionTemplate(transactionTemplate.getTransactionManager()) {
+                    @Override
+                    public <T> T execute(TransactionCallback<T> action) {
+                        if (chunks.incrementAndGet() == 3) {
+                            throw new CannotCreateTransactionException("No connection available");
+                        }
+                        return super.execute(action);
+                    }
+                });
+        String csv = "patient_name,amount\nA,1\nB,2\nC,3\nD,4\nE,5\nF,6\n";
+
+        try {
+            // Act
+            String body = mockMvc.perform(post("/api/admin/invoices/import").contentType("text/csv").content(csv)
+                            .with(user("admin1").roles("ADMIN")))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            // Assert
+            JsonNode summary = lines(body).get(0);
+            assertEquals(4, summary.get("imported").asLong());
+            assertEquals("Import stopped after 4 rows: No connection available", summary.get("error").asText());
+            assertEquals(4, invoiceRepository.count());
+        } finally {
+            ReflectionTestUtils.setField(invoiceImportService, "transactionTemplate", transactionTemplate);
+        }
+    }
+
+    @Test
+    void testImportRejectsBadHeaderAndNonAdmins() throws Exception {
+        mockMvc.perform(post("/api/admin/invoices/import").contentType("text/csv").content("name,amount\nA,1\n")
+                        .with(user("admin1").roles("ADMIN")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown CSV column: name"));
+        mockMvc.perform(post("/api/admin/invoices/import").contentType("text/csv").content("patient_name,amount\nA,1\n")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isForbidden());
+        assertEquals(0, invoiceRepository.count());
+    }
+
+    private List<JsonNode> lines(String body) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,115 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.dto.DoctorSummary;
+import com.pavan.csse.backend.dto.KeysetPage;
+import com.pavan.csse.backend.model.Doctor;
+import com.pavan.csse.backend.repository.DoctorRepository;
+import com.pavan.csse.backend.service.DirectoryService;
+import com.pavan.csse.backend.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deep-page cost of the old OFFSET/entity listing versus the keyset/projection listing
+ * on a 100k-row doctors table. Excluded from the default test run; use
+ * {@code gradle benchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listingbench;DB_CLOSE_DELAY=-1",
+        "security.rate-limit.enabled=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListingPaginationBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    private long deepId;
+
+    @BeforeAll
+    void seed() {
+        List<Object[]> users = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            users.add(new Object[]{"bench" + i, "{noop}x", "bench" + i + "@example.com", "First" + i, "Last" + (i % 997)});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, username, password, email, first_name, last_name, role, "
+                + "is_active, security_version, created_at, updated_at) "
+                + "values (next value for users_seq, ?, ?, ?, ?, ?, 'DOCTOR', true, 0, current_timestamp, current_timestamp)",
+                users);
+        jdbcTemplate.update("insert into doctors (id, user_id, license_number, specialization, years_of_experience, "
+                + "department, consultation_fee, available_hours) "
+                + "select next value for doctors_seq, id, 'LIC-' || id, 'General', 5, 'OPD', 100.0, '9-5' "
+                + "from users where username like 'bench%'");
+
+        Long count = jdbcTemplate.queryForObject("select count(*) from doctors", Long.class);
+        assertTrue(count >= ROWS);
+        deepId = jdbcTemplate.queryForObject("select id from doctors order by id offset ? rows fetch next 1 rows only",
+                Long.class, ROWS * 4 / 5);
+    }
+
+    @Test
+    void benchmarkDeepPageOffsetVersusKeyset() {
+        int deepPage = (ROWS * 4 / 5) / PAGE_SIZE;
+        String cursor = new KeysetCursor(DirectoryService.SORT_ID, "", "", deepId).encode();
+
+        long offsetNanos = time(() -> {
+            Page<Doctor> page = doctorRepository.findAll(PageRequest.of(deepPage, PAGE_SIZE, Sort.by("id")));
+            return page.getContent().size();
+        });
+        long keysetNanos = time(() -> {
+            KeysetPage<DoctorSummary> page = directoryService.listDoctors(DirectoryService.SORT_ID, cursor, PAGE_SIZE);
+            return page.getItems().size();
+        });
+        long keysetByNameNanos = time(() -> directoryService.listDoctors(DirectoryService.SORT_NAME,
+                new KeysetCursor(DirectoryService.SORT_NAME, "Last900", "", 0L).encode(), PAGE_SIZE).getItems().size());
+
+        System.out.printf("Doctors listing, %d rows, page %d of %d rows:%n", ROWS, deepPage, PAGE_SIZE);
+        System.out.printf("  offset + entities : %8.2f ms/page%n", offsetNanos / 1e6);
+        System.out.printf("  keyset by id      : %8.2f ms/page%n", keysetNanos / 1e6);
+        System.out.printf("  keyset by name    : %8.2f ms/page%n", keysetByNameNanos / 1e6);
+
+        KeysetPage<DoctorSummary> page = directoryService.listDoctors(DirectoryService.SORT_ID, cursor, PAGE_SIZE);
+        assertEquals(PAGE_SIZE, page.getItems().size());
+        assertTrue(page.getItems().get(0).getId() > deepId);
+        assertTrue(keysetNanos < offsetNanos, "keyset page should be cheaper than a deep OFFSET page");
+    }
+
+    private long time(Supplier<Integer> pageQuery) {
+        // Warm up, then average
+        for (int i = 0; i < 5; i++) {
+            assertEquals(PAGE_SIZE, pageQuery.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            pageQuery.get();
+        }
+        return (System.nanoTime() - start) / RUNS;
+    }
+}
@@ -0,0 +1,89 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListingPaginationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testActiveUsersPagedWithCursorAndWithoutPasswords() throws Exception {
+        String token = quickLogin("admin");
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            var request = get("/api/user/active").param("size", "1").param("sort", "name")
+                    .header("Authorization", "Bearer " + token);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(1))
+                    .andExpect(jsonPath("$.items[0].password").doesNotExist())
+                    .andExpect(jsonPath("$.items[0].username").exists())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            assertTrue(seen.add(page.get("items").get(0).get("id").asLong()), "row repeated across pages");
+            cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null && pages < 50);
+
+        // Seed data has the three test accounts
+        assertTrue(seen.size() >= 3);
+        assertNull(cursor);
+    }
+
+    @Test
+    void testDoctorListingReturnsProjection() throws Exception {
+        String token = quickLogin("doctor");
+
+        mockMvc.perform(get("/api/doctor/all").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].licenseNumber").value("MD123456"))
+                .andExpect(jsonPath("$.items[0].lastName").exists())
+                .andExpect(jsonPath("$.items[0].user").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void testInvalidCursorRejected() throws Exception {
+        String token = quickLogin("staff");
+
+        mockMvc.perform(get("/api/staff/all").param("cursor", "bogus")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
+    private String quickLogin(String role) throws Exception {
+        String body = mockMvc.perform(post("/api/test/quick-login/" + role))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+}
@@ -0,0 +1,72 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.dto.LoginRequest;
+import com.pavan.csse.backend.service.CustomUserDetailsService;
+import com.pavan.csse.backend.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pavan.csse.backend.support.SqlStatementCounter")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginQueryCountIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        // Start cold so the login has to hit the database
+        userDetailsService.evictAll();
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    void testLoginRunsSingleUsersQuery() throws Exception {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("doctor1");
+        loginRequest.setPassword("password123");
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.username").value("doctor1"))
+                .andExpect(jsonPath("$.role").value("DOCTOR"));
+
+        assertEquals(1, SqlStatementCounter.selectsFrom("users"));
+    }
+
+    @Test
+    void testFailedLoginRunsSingleUsersQuery() throws Exception {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername("doctor1");
+        loginRequest.setPassword("wrong-password");
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isUnauthorized());
+
+        assertEquals(1, SqlStatementCounter.selectsFrom("users"));
+    }
+}
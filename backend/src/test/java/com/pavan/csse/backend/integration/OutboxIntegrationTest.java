@@ -0,0 +1,202 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.events.DomainEvent;
+import com.pavan.csse.backend.events.EventBus;
+import com.pavan.csse.backend.events.EventSink;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.OutboxEvent;
+import com.pavan.csse.backend.model.Patient;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import com.pavan.csse.backend.repository.*;
+import com.pavan.csse.backend.service.OutboxRelay;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxIntegrationTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private EventBus eventBus;
+
+    @Autowired
+    private EventSink eventSink;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ConsumerOffsetRepository consumerOffsetRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Patient patient;
+
+    // Payments created by the running test; the stream also carries other tests' events
+    private final Set<Long> ownPayments = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        patient = testData.patient("Olive", "Outbox");
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+        consumerOffsetRepository.deleteAll();
+    }
+
+    @Test
+    void testCompletedPaymentWritesEventWithAllocations() throws Exception {
+        // Arrange
+        Invoice invoice = testData.invoice(patient, "40.00");
+
+        // Act
+        Long paymentId = pay("40.00", PaymentMethod.CASH, null, invoice);
+
+        // Assert
+        List<OutboxEvent> events = eventsOf(paymentId);
+        assertEquals(1, events.size());
+        OutboxEvent event = events.get(0);
+        assertEquals("PAYMENT_COMPLETED", event.getEventType());
+        assertEquals("patient:" + patient.getId(), event.getEventKey());
+        assertNull(event.getPublishedAt());
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        assertEquals(paymentId, payload.get("paymentId").asLong());
+        assertEquals(patient.getId(), payload.get("patientId").asLong());
+        assertEquals(invoice.getId(), payload.get("allocations").get(0).get("invoiceId").asLong());
+        assertEquals("PAID", payload.get("allocations").get(0).get("invoiceStatus").asText());
+    }
+
+    @Test
+    void testRejectedPaymentWritesNoEvent() {
+        Invoice invoice = testData.invoice(patient, "40.00");
+        long before = outboxEventRepository.count();
+
+        assertThrows(IllegalArgumentException.class, () -> pay("0", PaymentMethod.CASH, null, invoice));
+
+        assertEquals(before, outboxEventRepository.count());
+    }
+
+    @Test
+    void testRelayDeliversInOrderPerPatientAndCommitsOffsets() throws Exception {
+        // Arrange: a declined card payment, then a cash payment, for the same patient
+        Long cardPaymentId = pay("15.00", PaymentMethod.CARD, "4111111111110000", testData.invoice(patient, "15.00"));
+        awaitStatus(cardPaymentId, PaymentStatus.FAILED);
+        Long cashPaymentId = pay("20.00", PaymentMethod.CASH, null, testData.invoice(patient, "20.00"));
+        List<DomainEvent> received = new CopyOnWriteArrayList<>();
+        EventBus.Subscription subscription = eventBus.subscribe("outbox-test", EventBus.StartPosition.EARLIEST, event -> {
+            if (ownPayments.contains(event.aggregateId())) {
+                received.add(event);
+            }
+        });
+
+        // Act
+        assertTrue(outboxRelay.relay() >= 3);
+        awaitReceived(received, 3);
+
+        // Assert
+        assertEquals(List.of("PAYMENT_PROCESSING", "PAYMENT_FAILED", "PAYMENT_COMPLETED"),
+                received.stream().map(DomainEvent::type).toList());
+        assertEquals(List.of(cardPaymentId, cardPaymentId, cashPaymentId),
+                received.stream().map(DomainEvent::aggregateId).toList());
+        int partition = eventBus.partitionFor("patient:" + patient.getId());
+        assertTrue(received.stream().allMatch(event -> event.partition() == partition));
+        assertTrue(received.get(0).offset() < received.get(1).offset());
+        assertTrue(eventsOf(cashPaymentId).stream().allMatch(event -> event.getPublishedAt() != null));
+        awaitOffset(subscription, partition, eventSink.endOffset(partition));
+
+        // Act: a restarted consumer resumes from its committed offset
+        subscription.close();
+        List<DomainEvent> resumed = new CopyOnWriteArrayList<>();
+        eventBus.subscribe("outbox-test", EventBus.StartPosition.EARLIEST, event -> {
+            if (ownPayments.contains(event.aggregateId())) {
+                resumed.add(event);
+            }
+        });
+        Long laterPaymentId = pay("5.00", PaymentMethod.CASH, null, testData.invoice(patient, "5.00"));
+        outboxRelay.relay();
+        awaitReceived(resumed, 1);
+
+        // Assert
+        assertEquals(laterPaymentId, resumed.get(0).aggregateId());
+        Thread.sleep(100);
+        assertEquals(1, resumed.size());
+    }
+
+    private List<OutboxEvent> eventsOf(Long paymentId) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().equals(paymentId))
+                .toList();
+    }
+
+    private void awaitReceived(List<DomainEvent> received, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (received.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, received.size());
+    }
+
+    private void awaitOffset(EventBus.Subscription subscription, int partition, long offset) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (subscription.getOffset(partition) < offset && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(offset, subscription.getOffset(partition));
+    }
+
+    private void awaitStatus(Long paymentId, PaymentStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (paymentRepository.findById(paymentId).orElseThrow().getStatus() == status) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Payment " + paymentId + " not " + status);
+    }
+
+    private Long pay(String amount, PaymentMethod method, String cardNumber, Invoice invoice) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setInvoiceIds(List.of(invoice.getId()));
+        request.setMethod(method);
+        request.setAmount(new BigDecimal(amount));
+        request.setDetails(cardNumber == null ? Map.of() : Map.of("number", cardNumber));
+        Long paymentId = paymentService.processPayment(request, "staff1", null).response().getPaymentId();
+        ownPayments.add(paymentId);
+        return paymentId;
+    }
+}
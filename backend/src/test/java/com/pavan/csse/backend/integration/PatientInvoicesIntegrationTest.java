@@ -0,0 +1,178 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.Patient;
+import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PatientInvoicesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Patient alice;
+    private Patient bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = testData.patient("Alice", "Perera");
+        bob = testData.patient("Bob", "Perera");
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testSummaryIsComputedOverAllInvoices() throws Exception {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        Invoice overdue = testData.invoice(alice, "100.00", today.minusDays(10));
+        testData.invoice(alice, "50.00", today.plusDays(10));
+        Invoice paid = testData.invoice(alice, "30.00", today.minusDays(20));
+        testData.invoice(bob, "999.00", today.minusDays(5));
+        pay("40.00", overdue);
+        pay("30.00", paid);
+
+        // Act & Assert: 60 left on the overdue invoice plus 50 not yet due
+        mockMvc.perform(get("/api/patients/" + alice.getId() + "/invoices")
+                        .param("size", "2")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.summary.invoiceCount").value(3))
+                .andExpect(jsonPath("$.summary.outstandingTotal").value(110.00))
+                .andExpect(jsonPath("$.summary.overdueCount").value(1))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(overdue.getId()))
+                .andExpect(jsonPath("$.items[0].status").value("PARTIALLY_PAID"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void testCursorWalksAllInvoicesOfPatient() throws Exception {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(testData.invoice(alice, "10.00").getId());
+            testData.invoice(bob, "10.00");
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/patients/" + alice.getId() + "/invoices")
+                    .param("size", "2")
+                    .with(user("staff1").roles("STAFF"));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void testStatusFilter() throws Exception {
+        Invoice paid = testData.invoice(alice, "10.00");
+        testData.invoice(alice, "20.00");
+        pay("10.00", paid);
+
+        mockMvc.perform(get("/api/patients/" + alice.getId() + "/invoices")
+                        .param("status", "OUTSTANDING")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("OUTSTANDING"))
+                .andExpect(jsonPath("$.summary.invoiceCount").value(2));
+    }
+
+    @Test
+    void testUnknownPatient() throws Exception {
+        mockMvc.perform(get("/api/patients/-1/invoices").with(user("staff1").roles("STAFF")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Patient not found"));
+    }
+
+    @Test
+    void testPaymentIsLinkedToPatientOfItsInvoices() {
+        Invoice invoice = testData.invoice(alice, "25.00");
+
+        Long paymentId = pay("25.00", invoice);
+
+        // The lazy proxy knows its id without being initialized
+        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+        assertEquals(alice.getId(), payment.getPatient().getId());
+        assertEquals(InvoiceStatus.PAID, invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testPaymentAcrossPatientsIsRejected() {
+        Invoice first = testData.invoice(alice, "10.00");
+        Invoice second = testData.invoice(bob, "10.00");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> pay("20.00", first, second));
+        assertEquals("Invoices belong to different patients", error.getMessage());
+    }
+
+    private Long pay(String amount, Invoice... invoices) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        List<Long> ids = new ArrayList<>();
+        for (Invoice invoice : invoices) {
+            ids.add(invoice.getId());
+        }
+        request.setInvoiceIds(ids);
+        request.setMethod(PaymentMethod.CASH);
+        request.setAmount(new BigDecimal(amount));
+        return paymentService.processPayment(request, "staff1", null).response().getPaymentId();
+    }
+}
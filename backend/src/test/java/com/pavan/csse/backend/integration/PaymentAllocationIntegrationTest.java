@@ -0,0 +1,178 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.PaymentAllocation;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PaymentAllocationRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentAllocationIntegrationTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentAllocationRepository paymentAllocationRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testPartialPaymentAllocatesOldestDueFirst() {
+        // Arrange: ids in a different order than due dates
+        Invoice newest = testData.invoice("Alice", "40.00", LocalDate.of(2025, 3, 1));
+        Invoice oldest = testData.invoice("Alice", "30.00", LocalDate.of(2025, 1, 1));
+        Invoice middle = testData.invoice("Alice", "50.00", LocalDate.of(2025, 2, 1));
+
+        // Act
+        Long paymentId = pay("55.00", newest, oldest, middle);
+
+        // Assert
+        Invoice paidOldest = reload(oldest);
+        assertEquals(InvoiceStatus.PAID, paidOldest.getStatus());
+        assertEquals(0, new BigDecimal("30.00").compareTo(paidOldest.getAmountPaid()));
+        Invoice partlyPaid = reload(middle);
+        assertEquals(InvoiceStatus.PARTIALLY_PAID, partlyPaid.getStatus());
+        assertEquals(0, new BigDecimal("25.00").compareTo(partlyPaid.getAmountPaid()));
+        assertEquals(InvoiceStatus.OUTSTANDING, reload(newest).getStatus());
+
+        List<PaymentAllocation> allocations = paymentAllocationRepository.findByPaymentIdOrderByIdAsc(paymentId);
+        assertEquals(2, allocations.size());
+        assertEquals(oldest.getId(), allocations.get(0).getInvoice().getId());
+        assertEquals(middle.getId(), allocations.get(1).getInvoice().getId());
+    }
+
+    @Test
+    void testSecondPartialPaymentCompletesInvoice() {
+        Invoice invoice = testData.invoice("Alice", "100.00", LocalDate.of(2025, 1, 1));
+
+        pay("60.00", invoice);
+        assertEquals(InvoiceStatus.PARTIALLY_PAID, reload(invoice).getStatus());
+        pay("40.00", invoice);
+
+        Invoice settled = reload(invoice);
+        assertEquals(InvoiceStatus.PAID, settled.getStatus());
+        assertEquals(0, new BigDecimal("100.00").compareTo(settled.getAmountPaid()));
+        assertEquals(2, paymentAllocationRepository.findByInvoiceIdOrderByIdAsc(invoice.getId()).size());
+    }
+
+    @Test
+    void testOverpaymentIsRejected() {
+        Invoice invoice = testData.invoice("Alice", "20.00");
+        pay("5.00", invoice);
+
+        // 20.00 exceeds the 15.00 still open
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> pay("20.00", invoice));
+
+        assertEquals("Amount exceeds the outstanding balance", e.getMessage());
+        assertEquals(InvoiceStatus.PARTIALLY_PAID, reload(invoice).getStatus());
+        assertEquals(1, paymentAllocationRepository.count());
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    void testPaymentOfTheExactOpenBalanceIsAccepted() {
+        Invoice invoice = testData.invoice("Alice", "20.00");
+        pay("5.00", invoice);
+
+        Long paymentId = pay("15.00", invoice);
+
+        assertEquals(InvoiceStatus.PAID, reload(invoice).getStatus());
+        List<PaymentAllocation> allocations = paymentAllocationRepository.findByPaymentIdOrderByIdAsc(paymentId);
+        assertEquals(1, allocations.size());
+        assertEquals(0, new BigDecimal("15.00").compareTo(allocations.get(0).getAmount()));
+    }
+
+    @Test
+    void testInsurancePaymentAllocatesNothing() {
+        Invoice invoice = testData.invoice("Alice", "20.00");
+        ProcessPaymentRequest request = request("20.00", invoice);
+        request.setMethod(PaymentMethod.INSURANCE);
+        request.setDetails(Map.of("insurer", "Ceylinco", "policyNumber", "POL-1"));
+
+        paymentService.processPayment(request, "staff1", null);
+
+        assertEquals(InvoiceStatus.OUTSTANDING, reload(invoice).getStatus());
+        assertEquals(0, paymentAllocationRepository.count());
+    }
+
+    @Test
+    void testPaymentAcrossThousandsOfInvoices() {
+        // Arrange: 2000 invoices of 10.00, due one day apart
+        List<Invoice> invoices = new ArrayList<>();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 2000; i++) {
+            Invoice invoice = new Invoice();
+            invoice.setPatientName("Bulk");
+            invoice.setAmount(new BigDecimal("10.00"));
+            invoice.setDueDate(start.plusDays(i));
+            invoices.add(invoice);
+        }
+        invoices = invoiceRepository.saveAll(invoices);
+
+        // Act: enough for 1500 invoices and half of the next one
+        Long paymentId = pay("15005.00", invoices.toArray(Invoice[]::new));
+
+        // Assert
+        Map<Long, Invoice> byId = invoiceRepository.findAllById(invoices.stream().map(Invoice::getId).toList())
+                .stream().collect(Collectors.toMap(Invoice::getId, Function.identity()));
+        assertEquals(InvoiceStatus.PAID, byId.get(invoices.get(1499).getId()).getStatus());
+        assertEquals(InvoiceStatus.PARTIALLY_PAID, byId.get(invoices.get(1500).getId()).getStatus());
+        assertEquals(InvoiceStatus.OUTSTANDING, byId.get(invoices.get(1501).getId()).getStatus());
+        assertEquals(1500, byId.values().stream().filter(i -> i.getStatus() == InvoiceStatus.PAID).count());
+        assertEquals(1501, paymentAllocationRepository.findByPaymentIdOrderByIdAsc(paymentId).size());
+    }
+
+    private Long pay(String amount, Invoice... invoices) {
+        return paymentService.processPayment(request(amount, invoices), "staff1", null).response().getPaymentId();
+    }
+
+    private ProcessPaymentRequest request(String amount, Invoice... invoices) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        List<Long> ids = new ArrayList<>();
+        for (Invoice invoice : invoices) {
+            ids.add(invoice.getId());
+        }
+        request.setInvoiceIds(ids);
+        request.setMethod(PaymentMethod.CASH);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+    private Invoice reload(Invoice invoice) {
+        return invoiceRepository.findById(invoice.getId()).orElseThrow();
+    }
+}
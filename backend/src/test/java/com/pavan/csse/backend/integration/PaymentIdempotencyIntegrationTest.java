@@ -0,0 +1,242 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.dto.ProcessPaymentResponse;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.repository.IdempotencyKeyRepository;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.service.IdempotencyService;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PaymentIdempotencyIntegrationTest {
+
+    @Autowired
+    private BillingTestData testData;
+
+    private static final int THREADS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Invoice invoice;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService.evictAll();
+        invoice = testData.invoice("Alice", "80.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testSameKeyFromFiftyThreadsCreatesOnePayment() throws Exception {
+        // Arrange
+        ProcessPaymentRequest request = request("80.00");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdempotencyService.Outcome>> futures = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return paymentService.processPayment(request, "staff1", "retry-storm");
+                }));
+            }
+            start.countDown();
+        }
+
+        // Assert
+        List<IdempotencyService.Outcome> outcomes = new ArrayList<>();
+        for (Future<IdempotencyService.Outcome> future : futures) {
+            outcomes.add(future.get());
+        }
+        Set<Long> paymentIds = outcomes.stream().map(o -> o.response().getPaymentId()).collect(Collectors.toSet());
+        assertEquals(1, paymentIds.size());
+        assertEquals(1, outcomes.stream().filter(o -> !o.replayed()).count());
+        assertEquals(1, paymentRepository.count());
+        assertEquals(1, idempotencyKeyRepository.count());
+        assertEquals(InvoiceStatus.PAID, invoiceRepository.findById(invoice.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testRetryAfterRestartIsServedFromTable() throws Exception {
+        String body = objectMapper.writeValueAsString(request("80.00"));
+
+        String first = mockMvc.perform(post("/api/payments/process")
+                        .with(user("staff1").roles("STAFF"))
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn().getResponse().getContentAsString();
+
+        // An empty LRU stands in for another instance or a restart
+        idempotencyService.evictAll();
+
+        String second = mockMvc.perform(post("/api/payments/process")
+                        .with(user("staff1").roles("STAFF"))
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, second);
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    void testKeyReusedWithDifferentBodyIsRejected() throws Exception {
+        paymentService.processPayment(request("80.00"), "staff1", "key-2");
+
+        mockMvc.perform(post("/api/payments/process")
+                        .with(user("staff1").roles("STAFF"))
+                        .header("Idempotency-Key", "key-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("95.00"))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").exists());
+
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    void testFailedAttemptIsNotRemembered() {
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.processPayment(request("0.00"), "staff1", "key-3"));
+
+        IdempotencyService.Outcome outcome = paymentService.processPayment(request("80.00"), "staff1", "key-3");
+
+        assertFalse(outcome.replayed());
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    void testSameKeyFromAnotherUserIsNotReplayed() {
+        // Arrange: each pays half, so both requests are valid
+        IdempotencyService.Outcome first = paymentService.processPayment(request("40.00"), "staff1", "shared-key");
+
+        // Act
+        IdempotencyService.Outcome second = paymentService.processPayment(request("40.00"), "staff2", "shared-key");
+
+        // Assert
+        assertFalse(second.replayed());
+        assertNotEquals(first.response().getPaymentId(), second.response().getPaymentId());
+        assertEquals(2, paymentRepository.count());
+        assertEquals(2, idempotencyKeyRepository.count());
+    }
+
+    @Test
+    void testAttemptFailingWithErrorDoesNotBlockRetries() {
+        assertThrows(AssertionError.class, () -> idempotencyService.execute("staff1", "key-5", "hash", () -> {
+            throw new AssertionError("Attempt broken");
+        }));
+
+        IdempotencyService.Outcome outcome = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> paymentService.processPayment(request("80.00"), "staff1", "key-5"));
+
+        assertFalse(outcome.replayed());
+    }
+
+    @Test
+    void testRequestsWithoutKeyAreNotDeduplicated() {
+        // Each pays half, so the second request is valid too
+        paymentService.processPayment(request("40.00"), "staff1", null);
+        paymentService.processPayment(request("40.00"), "staff1", null);
+
+        assertEquals(2, paymentRepository.count());
+        assertEquals(0, idempotencyKeyRepository.count());
+    }
+
+    @Test
+    void testKeyCommittedByAnotherInstanceWinsTheRace() {
+        // Arrange
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ProcessPaymentResponse winner = new ProcessPaymentResponse(41L, "COMPLETED", "/api/payments/41/receipt");
+
+        // Act: the other instance commits between our lookup and our insert
+        IdempotencyService.Outcome outcome = idempotencyService.execute("staff1", "key-4", "hash", () -> {
+            transactionTemplate.executeWithoutResult(status -> idempotencyService.record("staff1", "key-4", "hash", winner));
+            return transactionTemplate.execute(status -> {
+                ProcessPaymentResponse ours = new ProcessPaymentResponse(42L, "COMPLETED", "/api/payments/42/receipt");
+                idempotencyService.record("staff1", "key-4", "hash", ours);
+                return ours;
+            });
+        });
+
+        // Assert
+        assertTrue(outcome.replayed());
+        assertEquals(41L, outcome.response().getPaymentId());
+        assertEquals(1, idempotencyKeyRepository.count());
+    }
+
+    private ProcessPaymentRequest request(String amount) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setInvoiceIds(List.of(invoice.getId()));
+        request.setMethod(PaymentMethod.CASH);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+}
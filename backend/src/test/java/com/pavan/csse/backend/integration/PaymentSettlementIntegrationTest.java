@@ -0,0 +1,133 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentSettlementIntegrationTest {
+
+    @Autowired
+    private BillingTestData testData;
+
+    private static final int THREADS = 20;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testConcurrentPaymentsSettleInvoiceOnce() throws Exception {
+        // Arrange
+        Invoice invoice = testData.invoice("Alice", "60.00");
+        ProcessPaymentRequest request = request("60.00", invoice.getId());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return paymentService.processPayment(request, "staff1", null);
+                }));
+            }
+            start.countDown();
+        }
+
+        // Assert
+        int succeeded = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException
+                        || e.getCause() instanceof IllegalStateException, e.getCause().toString());
+            }
+        }
+        assertEquals(1, succeeded);
+        assertEquals(1, paymentRepository.count());
+        Invoice settled = invoiceRepository.findById(invoice.getId()).orElseThrow();
+        assertEquals(InvoiceStatus.PAID, settled.getStatus());
+        assertEquals(1L, settled.getVersion());
+    }
+
+    @Test
+    void testPaymentRejectedWhenAnyInvoiceIsAlreadyPaid() {
+        // Arrange
+        Invoice outstanding = testData.invoice("Bob", "30.00");
+        Invoice paid = testData.invoice("Bob", "20.00");
+        paymentService.processPayment(request("20.00", paid.getId()), "staff1", null);
+
+        // Act & Assert
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> paymentService.processPayment(request("50.00", outstanding.getId(), paid.getId()), "staff1", null));
+        assertTrue(error.getMessage().contains("not outstanding"));
+        assertEquals(InvoiceStatus.OUTSTANDING, invoiceRepository.findById(outstanding.getId()).orElseThrow().getStatus());
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    void testSettlesAllInvoicesInOnePayment() {
+        // Arrange
+        Invoice first = testData.invoice("Carol", "10.00");
+        Invoice second = testData.invoice("Carol", "15.00");
+
+        // Act
+        paymentService.processPayment(request("25.00", first.getId(), second.getId(), first.getId()), "staff1", null);
+
+        // Assert
+        assertEquals(InvoiceStatus.PAID, invoiceRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(InvoiceStatus.PAID, invoiceRepository.findById(second.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testUnknownInvoiceIsRejected() {
+        Invoice invoice = testData.invoice("Dan", "10.00");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.processPayment(request("10.00", invoice.getId(), -1L), "staff1", null));
+        assertEquals(0, paymentRepository.count());
+    }
+
+    private ProcessPaymentRequest request(String amount, Long... invoiceIds) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setInvoiceIds(List.of(invoiceIds));
+        request.setMethod(PaymentMethod.CASH);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+}
@@ -0,0 +1,200 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.model.UserRole;
+import com.pavan.csse.backend.model.Patient;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.repository.*;
+import com.pavan.csse.backend.service.OutboxRelay;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.service.PaymentStreamService;
+import com.pavan.csse.backend.support.BillingTestData;
+import com.pavan.csse.backend.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PaymentStreamIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentStreamService paymentStreamService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Patient patient;
+
+    private final List<MvcResult> streams = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        patient = testData.patient("Sam", "Stream");
+    }
+
+    @AfterEach
+    void tearDown() {
+        streams.forEach(stream -> stream.getRequest().getAsyncContext().complete());
+        testData.deleteAll();
+    }
+
+    @Test
+    void testStreamSendsCurrentStatusThenChanges() throws Exception {
+        // Arrange
+        Long paidId = pay("30.00", testData.invoice(patient, "30.00"));
+        MvcResult paymentStream = open("staff1", "paymentId", paidId);
+        MvcResult patientStream = open("staff1", "patientId", patient.getId());
+
+        // Act
+        Long laterId = pay("12.00", testData.invoice(patient, "12.00"));
+        outboxRelay.relay();
+
+        // Assert: the single-payment stream starts with the payment's current status
+        String initial = awaitContent(paymentStream, "\"status\":\"COMPLETED\"");
+        assertTrue(initial.contains("event:payment"));
+        assertTrue(initial.contains("\"paymentId\":" + paidId));
+        String changes = awaitContent(patientStream, "\"paymentId\":" + laterId);
+        assertTrue(changes.contains("\"status\":\"COMPLETED\""));
+        assertTrue(changes.contains("id:"));
+        assertFalse(paymentStream.getResponse().getContentAsString().contains("\"paymentId\":" + laterId));
+        assertTrue(paymentStream.getResponse().getContentType().startsWith("text/event-stream"));
+    }
+
+    @Test
+    void testStreamsAreLimitedPerUser() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            open("stream-limited", "patientId", patient.getId());
+        }
+        int open = paymentStreamService.getClientCount();
+
+        mockMvc.perform(get("/api/payments/stream").with(user("stream-limited").roles("STAFF")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/api/payments/stream").param("paymentId", "-1")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Payment not found"));
+        assertEquals(open, paymentStreamService.getClientCount());
+
+        // Closing a stream frees its slot
+        streams.remove(0).getRequest().getAsyncContext().complete();
+        assertEquals(open - 1, paymentStreamService.getClientCount());
+        open("stream-limited", "patientId", patient.getId());
+    }
+
+    @Test
+    void testOnlyAdminsAndStaffStreamAllPayments() throws Exception {
+        Long paymentId = pay("10.00", testData.invoice(patient, "10.00"));
+
+        mockMvc.perform(get("/api/payments/stream").with(user("doctor1").roles("DOCTOR")))
+                .andExpect(status().isForbidden());
+        streams.add(mockMvc.perform(get("/api/payments/stream").param("paymentId", paymentId.toString())
+                        .with(user("doctor1").roles("DOCTOR")))
+                .andExpect(request().asyncStarted())
+                .andReturn());
+    }
+
+    @Test
+    void testTokenStreamEndsWithTheTokenAndOnRevocation() throws Exception {
+        // Arrange: a stream timeout longer than the token's lifetime
+        User user = new User();
+        user.setUsername("stream-revoked");
+        user.setPassword("unused");
+        user.setEmail("stream.revoked@example.com");
+        user.setFirstName("Rita");
+        user.setLastName("Revoked");
+        user.setRole(UserRole.STAFF);
+        user = userRepository.save(user);
+        String token = jwtUtil.generateToken(user);
+        ReflectionTestUtils.setField(paymentStreamService, "timeout", Duration.ofDays(1));
+        long openedAt = System.currentTimeMillis();
+        MvcResult stream;
+        try {
+            stream = mockMvc.perform(get("/api/payments/stream").header("Authorization", "Bearer " + token))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+        } finally {
+            ReflectionTestUtils.setField(paymentStreamService, "timeout", Duration.ofMinutes(30));
+        }
+        long untilExpiry = jwtUtil.extractExpiration(token).getTime() - openedAt;
+        assertTrue(stream.getRequest().getAsyncContext().getTimeout() <= untilExpiry);
+        int open = paymentStreamService.getClientCount();
+
+        try {
+            // Act
+            user.setIsActive(false);
+            userRepository.save(user);
+
+            // Assert
+            assertEquals(open - 1, paymentStreamService.getClientCount());
+        } finally {
+            userRepository.delete(user);
+        }
+    }
+
+    private MvcResult open(String username, String filter, Long id) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/payments/stream").param(filter, id.toString())
+                        .with(user(username).roles("STAFF")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        streams.add(result);
+        return result;
+    }
+
+    private String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+
+    private Long pay(String amount, Invoice invoice) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setInvoiceIds(List.of(invoice.getId()));
+        request.setMethod(PaymentMethod.CASH);
+        request.setAmount(new BigDecimal(amount));
+        request.setDetails(Map.of());
+        return paymentService.processPayment(request, "staff1", null).response().getPaymentId();
+    }
+}
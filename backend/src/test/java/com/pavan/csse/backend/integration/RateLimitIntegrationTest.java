@@ -0,0 +1,95 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.dto.LoginRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "security.rate-limit.ip.capacity=5",
+        "security.rate-limit.ip.refill-period=1h",
+        "security.rate-limit.username.capacity=2",
+        "security.rate-limit.username.refill-period=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testLoginThrottledPerUsername() throws Exception {
+        RequestPostProcessor client = remoteAddr("10.0.0.1");
+        String body = objectMapper.writeValueAsString(new LoginRequest("doctor1", "wrong-password"));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/auth/login").with(client)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/auth/login").with(client)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.error").value("Too many requests"));
+
+        // A different account from the same address still has its own budget
+        mockMvc.perform(post("/api/auth/login").with(client)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("staff1", "password123"))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testQuickLoginThrottledPerIp() throws Exception {
+        RequestPostProcessor client = remoteAddr("10.0.0.2");
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/test/quick-login/doctor").with(client))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/api/test/quick-login/staff").with(client))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "720"));
+
+        // Endpoints that do not hash passwords are not throttled
+        mockMvc.perform(get("/api/test/credentials").with(client))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testOversizedAuthBodyIsRejectedBeforeBuffering() throws Exception {
+        String body = "{\"username\":\"doctor1\",\"password\":\"" + "x".repeat(9000) + "\"}";
+
+        mockMvc.perform(post("/api/auth/login").with(remoteAddr("10.0.0.3"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.error").value("Request body larger than 8192 bytes"));
+    }
+
+    // Each test uses its own client address so the buckets do not carry over
+    private RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
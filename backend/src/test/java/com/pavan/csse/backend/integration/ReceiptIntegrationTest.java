@@ -0,0 +1,174 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReceiptIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Value("${receipts.cache.directory}")
+    private Path cacheDirectory;
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testHtmlReceiptListsAllocations() throws Exception {
+        // Arrange
+        Invoice invoice = testData.invoice("<Alice>", "75.50");
+        Long paymentId = cashPayment(invoice);
+
+        // Act & Assert
+        String html = mockMvc.perform(get("/api/payments/" + paymentId + "/receipt")
+                        .param("format", "html")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/html"))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(html.contains("&lt;Alice&gt;"));
+        assertTrue(html.contains("#" + invoice.getId()));
+        assertTrue(html.contains("75.50"));
+    }
+
+    @Test
+    void testPdfReceiptIsCachedByContentAndRevalidated() throws Exception {
+        // Arrange
+        Long paymentId = cashPayment(testData.invoice("Bob", "20.00"));
+
+        // Act
+        MvcResult first = mockMvc.perform(get("/api/payments/" + paymentId + "/receipt")
+                        .param("format", "pdf")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/pdf"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        // Assert: the file is named after the ETag and a conditional request gets 304
+        byte[] pdf = first.getResponse().getContentAsByteArray();
+        assertTrue(new String(pdf, 0, 8, StandardCharsets.ISO_8859_1).startsWith("%PDF-1.4"));
+        assertTrue(first.getResponse().getHeader("Cache-Control").contains("immutable"));
+        String hash = etag.replace("\"", "");
+        Path cached = cacheDirectory.resolve(hash.substring(0, 2)).resolve(hash + ".pdf");
+        assertArrayEquals(Files.readAllBytes(cached), pdf);
+
+        mockMvc.perform(get("/api/payments/" + paymentId + "/receipt")
+                        .param("format", "pdf")
+                        .header("If-None-Match", etag)
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testPendingPaymentReceiptIsNotCached() throws Exception {
+        Payment pending = new Payment();
+        pending.setAmount(new BigDecimal("10.00"));
+        pending.setMethod(PaymentMethod.CARD);
+        pending.setStatus(PaymentStatus.PROCESSING);
+        pending = paymentRepository.save(pending);
+
+        mockMvc.perform(get("/api/payments/" + pending.getId() + "/receipt")
+                        .param("format", "html")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    void testFailedPaymentReceiptFollowsALateApproval() throws Exception {
+        // Arrange: a card payment the stale sweep failed
+        Payment failed = new Payment();
+        failed.setPatientName("Dave");
+        failed.setAmount(new BigDecimal("10.00"));
+        failed.setMethod(PaymentMethod.CARD);
+        failed.setStatus(PaymentStatus.FAILED);
+        failed.setFailureReason("Timed out waiting for the gateway");
+        failed = paymentRepository.save(failed);
+        mockMvc.perform(get("/api/payments/" + failed.getId() + "/receipt")
+                        .param("format", "html")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Cache-Control", "no-store"));
+
+        // Act: the gateway approves it after all
+        failed.setStatus(PaymentStatus.COMPLETED);
+        failed.setGatewayReference("ch_late");
+        paymentRepository.save(failed);
+
+        // Assert
+        String html = mockMvc.perform(get("/api/payments/" + failed.getId() + "/receipt")
+                        .param("format", "html")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(html.contains("COMPLETED"), html);
+    }
+
+    @Test
+    void testJsonReceiptAndUnknownFormat() throws Exception {
+        Long paymentId = cashPayment(testData.invoice("Carol", "12.00"));
+
+        mockMvc.perform(get("/api/payments/" + paymentId + "/receipt").with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patientName").value("Carol"))
+                .andExpect(jsonPath("$.lines[0].amount").value(12.00));
+        mockMvc.perform(get("/api/payments/" + paymentId + "/receipt")
+                        .param("format", "docx")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long cashPayment(Invoice invoice) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setInvoiceIds(List.of(invoice.getId()));
+        request.setMethod(PaymentMethod.CASH);
+        request.setAmount(invoice.getAmount());
+        return paymentService.processPayment(request, "staff1", null).response().getPaymentId();
+    }
+}
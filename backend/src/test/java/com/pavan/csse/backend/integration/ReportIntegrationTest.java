@@ -0,0 +1,195 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.dto.AgingReport;
+import com.pavan.csse.backend.dto.ProcessPaymentRequest;
+import com.pavan.csse.backend.dto.RevenueReport;
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.Payment;
+import com.pavan.csse.backend.model.PaymentMethod;
+import com.pavan.csse.backend.model.PaymentStatus;
+import com.pavan.csse.backend.repository.AgingRollupRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.repository.RevenueRollupRepository;
+import com.pavan.csse.backend.service.PaymentService;
+import com.pavan.csse.backend.service.ReportRollupService;
+import com.pavan.csse.backend.service.ReportService;
+import com.pavan.csse.backend.support.BillingTestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private BillingTestData testData;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private AgingRollupRepository agingRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        revenueRollupRepository.deleteAll();
+        agingRollupRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void testAgingBucketsFollowInvoicesAndPayments() {
+        // Arrange
+        Invoice recent = testData.invoice("Alice", "100.00", today.minusDays(10));
+        testData.invoice("Alice", "30.00");
+        Invoice older = testData.invoice("Alice", "50.00", today.minusDays(45));
+        testData.invoice("Alice", "20.00", today.minusDays(100));
+
+        // Act
+        pay("60.00", PaymentMethod.CASH, recent);
+        pay("50.00", PaymentMethod.CASH, older);
+        AgingReport report = reportService.aging(today);
+
+        // Assert: the partly paid invoice keeps its remaining 40.00 in the first bucket
+        assertBucket(report, 0, "0-30", 2, "70.00");
+        assertBucket(report, 1, "31-60", 0, "0");
+        assertBucket(report, 2, "61-90", 0, "0");
+        assertBucket(report, 3, "90+", 1, "20.00");
+        assertEquals(3, report.getTotalCount());
+        assertEquals(0, new BigDecimal("90.00").compareTo(report.getTotalAmount()));
+        assertEquals(0, reportRollupService.reconcile().agingMismatches());
+    }
+
+    @Test
+    void testRevenueIsRecordedPerDayAndMethod() throws Exception {
+        // Arrange
+        Invoice first = testData.invoice("Alice", "40.00");
+        Invoice second = testData.invoice("Alice", "25.00");
+        Invoice third = testData.invoice("Alice", "15.00");
+
+        // Act
+        pay("40.00", PaymentMethod.CASH, first);
+        pay("10.00", PaymentMethod.CASH, second);
+        Long cardPaymentId = pay("15.00", PaymentMethod.CARD, third);
+        awaitCompleted(cardPaymentId);
+        RevenueReport report = reportService.revenue(today.minusDays(7), today);
+
+        // Assert
+        assertEquals(2, report.getDays().size());
+        assertEquals(0, new BigDecimal("50.00").compareTo(report.getTotalsByMethod().get(PaymentMethod.CASH)));
+        assertEquals(0, new BigDecimal("15.00").compareTo(report.getTotalsByMethod().get(PaymentMethod.CARD)));
+        assertEquals(0, new BigDecimal("65.00").compareTo(report.getTotal()));
+        assertEquals(2, report.getDays().stream()
+                .filter(day -> day.getMethod() == PaymentMethod.CASH).findFirst().orElseThrow().getPaymentCount());
+        assertEquals(0, reportRollupService.reconcile().revenueMismatches());
+    }
+
+    @Test
+    void testReconciliationCorrectsDriftAndCompactsDeltas() {
+        // Arrange: a write that bypasses the rollup hooks
+        Invoice invoice = testData.invoice("Alice", "80.00", today.minusDays(70));
+        testData.invoice("Alice", "10.00", today.minusDays(70));
+        pay("10.00", PaymentMethod.CASH, invoice);
+        pay("5.00", PaymentMethod.CASH, invoice);
+        jdbcTemplate.update("update invoices set status = 'CANCELED' where id = ?", invoice.getId());
+
+        // Act
+        ReportRollupService.Reconciliation result = reportRollupService.reconcile();
+
+        // Assert
+        assertEquals(1, result.agingMismatches());
+        assertEquals(0, result.revenueMismatches());
+        assertBucket(reportService.aging(today), 2, "61-90", 1, "10.00");
+        assertEquals(1, agingRollupRepository.count());
+        assertEquals(1, revenueRollupRepository.count());
+        assertEquals(0, new BigDecimal("15.00").compareTo(reportService.revenue(today, today).getTotal()));
+        assertEquals(new ReportRollupService.Reconciliation(0, 0), reportRollupService.reconcile());
+    }
+
+    @Test
+    void testReportEndpoints() throws Exception {
+        testData.invoice("Alice", "12.50", today.minusDays(5));
+
+        mockMvc.perform(get("/api/reports/aging").with(user("staff1").roles("STAFF")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets[0].label").value("0-30"))
+                .andExpect(jsonPath("$.buckets[0].invoiceCount").value(1))
+                .andExpect(jsonPath("$.totalAmount").value(12.5));
+        mockMvc.perform(get("/api/reports/revenue").param("from", "2025-02-01").param("to", "2025-01-01")
+                        .with(user("staff1").roles("STAFF")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/api/reports/aging").with(user("doc1").roles("DOCTOR")))
+                .andExpect(status().isForbidden());
+    }
+
+    private void assertBucket(AgingReport report, int index, String label, long count, String amount) {
+        AgingReport.Bucket bucket = report.getBuckets().get(index);
+        assertEquals(label, bucket.getLabel());
+        assertEquals(count, bucket.getInvoiceCount());
+        assertEquals(0, new BigDecimal(amount).compareTo(bucket.getAmount()), label);
+    }
+
+    private Long pay(String amount, PaymentMethod method, Invoice... invoices) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setInvoiceIds(List.of(invoices).stream().map(Invoice::getId).toList());
+        request.setMethod(method);
+        request.setAmount(new BigDecimal(amount));
+        request.setDetails(Map.of());
+        return paymentService.processPayment(request, "staff1", null).response().getPaymentId();
+    }
+
+    private void awaitCompleted(Long paymentId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+            if (payment.getStatus() == PaymentStatus.COMPLETED) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Payment " + paymentId + " not completed");
+    }
+}
@@ -0,0 +1,103 @@
+package com.pavan.csse.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pavan.csse.backend.repository.UserRepository;
+import com.pavan.csse.backend.service.CustomUserDetailsService;
+import com.pavan.csse.backend.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pavan.csse.backend.support.SqlStatementCounter")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserDetailsCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService.evictAll();
+    }
+
+    @Test
+    void testDoctorProfileStopsQueryingUsersOnRepeatCalls() throws Exception {
+        String token = quickLogin("doctor");
+
+        mockMvc.perform(get("/api/doctor/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        SqlStatementCounter.reset();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/doctor/profile").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.licenseNumber").value("MD123456"));
+        }
+
+        // No users queries at all: the profile row and its user come from one joined query
+        assertEquals(0, SqlStatementCounter.selectsFrom("users"));
+        assertEquals(3, SqlStatementCounter.selectsFrom("doctors"));
+    }
+
+    @Test
+    void testStaffProfileStopsQueryingUsersOnRepeatCalls() throws Exception {
+        String token = quickLogin("staff");
+
+        mockMvc.perform(get("/api/staff/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        SqlStatementCounter.reset();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/staff/profile").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.employeeId").value("EMP001"));
+        }
+
+        // No users queries at all: the profile row and its user come from one joined query
+        assertEquals(0, SqlStatementCounter.selectsFrom("users"));
+        assertEquals(3, SqlStatementCounter.selectsFrom("staff"));
+    }
+
+    @Test
+    void testUserUpdateEvictsCachedEntry() {
+        userDetailsService.findUser("staff1");
+        SqlStatementCounter.reset();
+        userDetailsService.findUser("staff1");
+        assertEquals(0, SqlStatementCounter.selectsFrom("users", "username"));
+
+        var user = userRepository.findByUsername("staff1").orElseThrow();
+        user.setPhoneNumber("+1999999999");
+        userRepository.save(user);
+
+        SqlStatementCounter.reset();
+        assertEquals("+1999999999", userDetailsService.findUser("staff1").orElseThrow().getPhoneNumber());
+        assertEquals(1, SqlStatementCounter.selectsFrom("users", "username"));
+    }
+
+    private String quickLogin(String role) throws Exception {
+        String body = mockMvc.perform(post("/api/test/quick-login/" + role))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+}
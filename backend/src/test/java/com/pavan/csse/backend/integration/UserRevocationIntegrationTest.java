@@ -0,0 +1,104 @@
+package com.pavan.csse.backend.integration;
+
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.model.UserRole;
+import com.pavan.csse.backend.repository.UserRepository;
+import com.pavan.csse.backend.service.UserRevocationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserRevocationIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRevocationRegistry revocationRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("revocation-user");
+        user.setPassword("encodedPassword");
+        user.setEmail("revocation-user@example.com");
+        user.setFirstName("Revocation");
+        user.setLastName("User");
+        user.setRole(UserRole.STAFF);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void testRoleChangeBumpsSecurityVersionAndRevokesOldTokens() {
+        // Arrange
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+
+        // Act
+        loaded.setRole(UserRole.ADMIN);
+        userRepository.save(loaded);
+
+        // Assert
+        assertEquals(1, userRepository.findById(user.getId()).orElseThrow().getSecurityVersion());
+        assertTrue(revocationRegistry.isRevoked(user.getId(), "STAFF", 0));
+        assertFalse(revocationRegistry.isRevoked(user.getId(), "ADMIN", 1));
+    }
+
+    @Test
+    void testPasswordAndActiveFlagChangesBumpSecurityVersion() {
+        // Act
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setPassword("otherEncodedPassword");
+        userRepository.save(loaded);
+        loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setIsActive(false);
+        userRepository.save(loaded);
+
+        // Assert
+        assertEquals(2, userRepository.findById(user.getId()).orElseThrow().getSecurityVersion());
+    }
+
+    @Test
+    void testProfileChangeKeepsSecurityVersion() {
+        // Act
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setPhoneNumber("+1999999999");
+        userRepository.save(loaded);
+
+        // Assert
+        assertEquals(0, userRepository.findById(user.getId()).orElseThrow().getSecurityVersion());
+        assertFalse(revocationRegistry.isRevoked(user.getId(), "STAFF", 0));
+    }
+
+    @Test
+    void testRolledBackDeactivationDoesNotRevoke() {
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            User loaded = userRepository.findById(user.getId()).orElseThrow();
+            loaded.setIsActive(false);
+            userRepository.saveAndFlush(loaded);
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertTrue(userRepository.findById(user.getId()).orElseThrow().getIsActive());
+        assertFalse(revocationRegistry.isRevoked(user.getId(), "STAFF", 0));
+    }
+}
@@ -0,0 +1,162 @@
+package com.pavan.csse.backend.repository;
+
+import com.pavan.csse.backend.model.Doctor;
+import com.pavan.csse.backend.model.Staff;
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.model.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DoctorStaffFetchPlanTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    private Statistics statistics;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testDoctorFindAllStatementCountIndependentOfRows() {
+        // Arrange & Act
+        persistDoctors(3);
+        long fewRows = statementsFor(() -> doctorRepository.findAll());
+        persistDoctors(30);
+        long manyRows = statementsFor(() -> doctorRepository.findAll());
+
+        // Assert
+        assertEquals(1, fewRows);
+        assertEquals(fewRows, manyRows);
+    }
+
+    @Test
+    void testDoctorBySpecializationLoadsUsersInSameQuery() {
+        // Arrange
+        persistDoctors(10);
+
+        // Act
+        List<Doctor> doctors = fetch(() -> doctorRepository.findBySpecialization("Cardiology"));
+
+        // Assert
+        assertEquals(10, doctors.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(doctors.stream().allMatch(d -> Hibernate.isInitialized(d.getUser())));
+    }
+
+    @Test
+    void testStaffByDepartmentStatementCountIndependentOfRows() {
+        // Arrange & Act
+        persistStaff(2);
+        long fewRows = statementsFor(() -> staffRepository.findByDepartment("Emergency"));
+        persistStaff(25);
+        long manyRows = statementsFor(() -> staffRepository.findByDepartment("Emergency"));
+
+        // Assert
+        assertEquals(1, fewRows);
+        assertEquals(fewRows, manyRows);
+    }
+
+    @Test
+    void testProfileLookupIsSingleJoinedQuery() {
+        // Arrange
+        persistStaff(1);
+        Long userId = staffRepository.findAll().get(0).getUser().getId();
+
+        // Act
+        Staff staff = fetch(() -> staffRepository.findByUserId(userId).orElseThrow());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(Hibernate.isInitialized(staff.getUser()));
+    }
+
+    @Test
+    void testUserNotLoadedWhenNotNeeded() {
+        // Arrange
+        persistDoctors(1);
+        String licenseNumber = doctorRepository.findAll().get(0).getLicenseNumber();
+
+        // Act
+        Doctor doctor = fetch(() -> doctorRepository.findByLicenseNumber(licenseNumber).orElseThrow());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(doctor.getUser()));
+    }
+
+    private long statementsFor(Supplier<List<?>> query) {
+        List<?> rows = fetch(query);
+        assertFalse(rows.isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Runs the query against an empty persistence context with fresh statistics
+    private <T> T fetch(Supplier<T> query) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        return query.get();
+    }
+
+    private void persistDoctors(int count) {
+        for (int i = 0; i < count; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setUser(persistUser(UserRole.DOCTOR));
+            doctor.setLicenseNumber("LIC" + sequence);
+            doctor.setSpecialization("Cardiology");
+            entityManager.persist(doctor);
+        }
+        entityManager.flush();
+    }
+
+    private void persistStaff(int count) {
+        for (int i = 0; i < count; i++) {
+            Staff staff = new Staff();
+            staff.setUser(persistUser(UserRole.STAFF));
+            staff.setEmployeeId("EMP" + sequence);
+            staff.setPosition("Nurse");
+            staff.setDepartment("Emergency");
+            entityManager.persist(staff);
+        }
+        entityManager.flush();
+    }
+
+    private User persistUser(UserRole role) {
+        sequence++;
+        User user = new User();
+        user.setUsername("user" + sequence);
+        user.setPassword("encodedPassword");
+        user.setEmail("user" + sequence + "@example.com");
+        user.setFirstName("First");
+        user.setLastName("Last" + sequence);
+        user.setRole(role);
+        user.setIsActive(true);
+        return entityManager.persist(user);
+    }
+}
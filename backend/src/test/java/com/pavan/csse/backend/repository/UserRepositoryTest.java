@@ -1,5 +1,6 @@
 package com.pavan.csse.backend.repository;
 
+import com.pavan.csse.backend.dto.UserSummary;
 import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.model.UserRole;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -258,4 +260,59 @@ class UserRepositoryTest {
         Optional<User> deletedUser = userRepository.findById(userId);
         assertFalse(deletedUser.isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testKeysetPaginationByRoleSeeksPastLastId() {
+        // Arrange
+        for (int i = 1; i <= 5; i++) {
+            entityManager.persist(user("doctor" + i, "Last" + i, UserRole.DOCTOR, true));
+        }
+        entityManager.persist(user("staff1", "Staff", UserRole.STAFF, true));
+        entityManager.flush();
+
+        // Act
+        List<UserSummary> firstPage = userRepository.findSummariesByRoleAfterId(UserRole.DOCTOR, 0L, Limit.of(2));
+        List<UserSummary> secondPage = userRepository.findSummariesByRoleAfterId(
+                UserRole.DOCTOR, firstPage.get(1).getId(), Limit.of(2));
+        List<UserSummary> lastPage = userRepository.findSummariesByRoleAfterId(
+                UserRole.DOCTOR, secondPage.get(1).getId(), Limit.of(2));
+
+        // Assert
+        assertEquals(List.of("doctor1", "doctor2"), firstPage.stream().map(UserSummary::getUsername).toList());
+        assertEquals(List.of("doctor3", "doctor4"), secondPage.stream().map(UserSummary::getUsername).toList());
+        assertEquals(List.of("doctor5"), lastPage.stream().map(UserSummary::getUsername).toList());
+        assertEquals(UserRole.DOCTOR, firstPage.get(0).getRole());
+    }
+
+    @Test
+    void testKeysetPaginationByNameOrdersByLastThenFirstName() {
+        // Arrange
+        entityManager.persist(user("c", "Brown", UserRole.STAFF, true));
+        entityManager.persist(user("a", "Adams", UserRole.STAFF, true));
+        entityManager.persist(user("b", "Brown", UserRole.STAFF, true));
+        entityManager.persist(user("d", "Clark", UserRole.STAFF, false));
+        entityManager.flush();
+
+        // Act
+        List<UserSummary> firstPage = userRepository.findActiveSummariesAfterName("", "", 0L, Limit.of(2));
+        UserSummary last = firstPage.get(1);
+        List<UserSummary> secondPage = userRepository.findActiveSummariesAfterName(
+                last.getLastName(), last.getFirstName(), last.getId(), Limit.of(2));
+
+        // Assert - both Browns share a last name, so the first name and then the id break the tie
+        assertEquals(List.of("a", "b"), firstPage.stream().map(UserSummary::getUsername).toList());
+        assertEquals(List.of("c"), secondPage.stream().map(UserSummary::getUsername).toList());
+    }
+
+    private User user(String username, String lastName, UserRole role, boolean active) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("encodedPassword");
+        user.setEmail(username + "@example.com");
+        user.setFirstName("First " + username);
+        user.setLastName(lastName);
+        user.setRole(role);
+        user.setIsActive(active);
+        return user;
+    }
+}
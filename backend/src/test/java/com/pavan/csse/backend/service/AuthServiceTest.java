@@ -2,6 +2,7 @@ package com.pavan.csse.backend.service;
 
 import com.pavan.csse.backend.dto.LoginRequest;
 import com.pavan.csse.backend.dto.LoginResponse;
+import com.pavan.csse.backend.dto.RefreshTokenRequest;
 import com.pavan.csse.backend.dto.UserRegistrationDto;
 import com.pavan.csse.backend.model.*;
 import com.pavan.csse.backend.repository.DoctorRepository;
@@ -20,7 +21,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -50,6 +50,9 @@ class AuthServiceTest {
     @Mock
     private CustomUserDetailsService userDetailsService;
     
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    
     @Mock
     private Authentication authentication;
     
@@ -101,11 +104,9 @@ class AuthServiceTest {
         String token = "jwt-token";
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(userDetailsService.loadUserByUsername(loginRequest.getUsername()))
-                .thenReturn(testUser);
+        when(authentication.getPrincipal()).thenReturn(testUser);
         when(jwtUtil.generateToken(testUser)).thenReturn(token);
-        when(userRepository.findByUsername(loginRequest.getUsername()))
-                .thenReturn(Optional.of(testUser));
+        when(refreshTokenService.issue(testUser)).thenReturn("refresh-token");
         
         // Act
         LoginResponse response = authService.login(loginRequest);
@@ -119,6 +120,38 @@ class AuthServiceTest {
         
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtUtil).generateToken(testUser);
+        verifyNoInteractions(userDetailsService);
+        verify(userRepository, never()).findByUsername(any());
+        assertEquals("refresh-token", response.getRefreshToken());
+    }
+    
+    @Test
+    void testRefreshIssuesNewTokenPair() {
+        // Arrange
+        when(refreshTokenService.rotate("old-refresh"))
+                .thenReturn(new RefreshTokenService.Rotation(testUser, "new-refresh"));
+        when(jwtUtil.generateToken(testUser)).thenReturn("new-access");
+        
+        // Act
+        LoginResponse response = authService.refresh(new RefreshTokenRequest("old-refresh"));
+        
+        // Assert
+        assertEquals("new-access", response.getToken());
+        assertEquals("new-refresh", response.getRefreshToken());
+        assertEquals(testUser.getUsername(), response.getUsername());
+    }
+    
+    @Test
+    void testRefreshWithRevokedToken() {
+        // Arrange
+        when(refreshTokenService.rotate("stolen"))
+                .thenThrow(new RuntimeException("Refresh token has been revoked"));
+        
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> authService.refresh(new RefreshTokenRequest("stolen")));
+        assertEquals("Refresh token has been revoked", exception.getMessage());
+        verifyNoInteractions(jwtUtil);
     }
     
     @Test
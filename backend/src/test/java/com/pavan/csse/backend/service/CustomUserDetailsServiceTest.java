@@ -91,4 +91,34 @@ class CustomUserDetailsServiceTest {
         assertFalse(userDetails.isEnabled());
         verify(userRepository).findByUsername("testuser");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRepeatLookupsServedFromCache() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        
+        // Act
+        customUserDetailsService.loadUserByUsername("testuser");
+        customUserDetailsService.loadUserByUsername("testuser");
+        customUserDetailsService.findUser("testuser");
+        
+        // Assert
+        verify(userRepository, times(1)).findByUsername("testuser");
+        assertEquals(2, customUserDetailsService.getCacheStats().hitCount());
+    }
+    
+    @Test
+    void testUserChangedEventEvictsEntry() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        customUserDetailsService.loadUserByUsername("testuser");
+        
+        // Act
+        customUserDetailsService.onUserChanged(new UserChangedEvent(
+                UserChangedEvent.ChangeType.UPDATED, 1L, "testuser", UserRole.DOCTOR, true, 0));
+        customUserDetailsService.loadUserByUsername("testuser");
+        
+        // Assert
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+}
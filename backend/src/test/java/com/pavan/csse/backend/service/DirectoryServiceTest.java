@@ -0,0 +1,125 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.dto.DoctorSummary;
+import com.pavan.csse.backend.dto.KeysetPage;
+import com.pavan.csse.backend.dto.UserSummary;
+import com.pavan.csse.backend.model.UserRole;
+import com.pavan.csse.backend.repository.DoctorRepository;
+import com.pavan.csse.backend.repository.StaffRepository;
+import com.pavan.csse.backend.repository.UserRepository;
+import com.pavan.csse.backend.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DirectoryServiceTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private StaffRepository staffRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private DirectoryService directoryService;
+
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    @Test
+    void testFullPageReturnsCursorForNextPage() {
+        // Arrange - one row more than requested means another page exists
+        when(doctorRepository.findSummariesAfterId(0L, Limit.of(3)))
+                .thenReturn(List.of(doctor(1L, "Adams"), doctor(2L, "Brown"), doctor(3L, "Clark")));
+
+        // Act
+        KeysetPage<DoctorSummary> page = directoryService.listDoctors(null, null, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor(), DirectoryService.SORT_ID);
+        assertEquals(2L, next.id());
+    }
+
+    @Test
+    void testCursorSeeksFromLastRow() {
+        // Arrange
+        String cursor = new KeysetCursor(DirectoryService.SORT_NAME, "Brown", "First", 2L).encode();
+        when(doctorRepository.findSummariesAfterName("Brown", "First", 2L, Limit.of(3)))
+                .thenReturn(List.of(doctor(3L, "Clark")));
+
+        // Act
+        KeysetPage<DoctorSummary> page = directoryService.listDoctors("name", cursor, 2);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testPageSizeClampedToMaximum() {
+        // Arrange
+        when(userRepository.findActiveSummariesAfterId(eq(0L), any())).thenReturn(List.of());
+
+        // Act
+        directoryService.listActiveUsers(null, null, 10000);
+
+        // Assert
+        verify(userRepository).findActiveSummariesAfterId(0L, Limit.of(101));
+    }
+
+    @Test
+    void testUsersByRoleUsesRoleQuery() {
+        // Arrange
+        UserSummary user = projections.createProjection(UserSummary.class,
+                Map.of("id", 7L, "username", "staff1", "lastName", "Doe"));
+        when(userRepository.findSummariesByRoleAfterId(UserRole.STAFF, 0L, Limit.of(21))).thenReturn(List.of(user));
+
+        // Act
+        KeysetPage<UserSummary> page = directoryService.listUsersByRole(UserRole.STAFF, "id", null, null);
+
+        // Assert
+        assertEquals("staff1", page.getItems().get(0).getUsername());
+        verifyNoInteractions(doctorRepository, staffRepository);
+    }
+
+    @Test
+    void testUnsupportedSortRejected() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> directoryService.listStaff("salary", null, null));
+        assertTrue(exception.getMessage().startsWith("Unsupported sort"));
+    }
+
+    @Test
+    void testCursorFromAnotherSortRejected() {
+        // Arrange
+        String cursor = KeysetCursor.start(DirectoryService.SORT_ID).encode();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> directoryService.listStaff("name", cursor, null));
+        assertThrows(IllegalArgumentException.class, () -> directoryService.listStaff("id", "not-a-cursor", null));
+    }
+
+    private DoctorSummary doctor(long id, String lastName) {
+        return projections.createProjection(DoctorSummary.class,
+                Map.of("id", id, "firstName", "First", "lastName", lastName));
+    }
+}
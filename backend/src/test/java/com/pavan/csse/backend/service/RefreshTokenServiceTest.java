@@ -0,0 +1,159 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.model.RefreshToken;
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.model.UserRole;
+import com.pavan.csse.backend.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setRole(UserRole.DOCTOR);
+        testUser.setIsActive(true);
+        testUser.setSecurityVersion(0);
+    }
+
+    @Test
+    void testIssueStoresOnlyTokenHash() {
+        // Act
+        String rawToken = refreshTokenService.issue(testUser);
+
+        // Assert
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken stored = captor.getValue();
+        assertNotEquals(rawToken, stored.getTokenHash());
+        assertEquals(RefreshTokenService.hash(rawToken), stored.getTokenHash());
+        assertEquals(64, stored.getTokenHash().length());
+        assertNotNull(stored.getFamilyId());
+        assertTrue(stored.getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void testRotateIssuesNewTokenInSameFamily() {
+        // Arrange
+        RefreshToken current = storedToken("raw-token", null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("raw-token")))
+                .thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(eq(10L), any())).thenReturn(1);
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw-token");
+
+        // Assert
+        assertSame(testUser, rotation.user());
+        assertNotEquals("raw-token", rotation.refreshToken());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals("family-1", captor.getValue().getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void testReusedTokenRevokesFamily() {
+        // Arrange
+        RefreshToken current = storedToken("raw-token", LocalDateTime.now().minusMinutes(1),
+                LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("raw-token")))
+                .thenReturn(Optional.of(current));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> refreshTokenService.rotate("raw-token"));
+        assertEquals("Refresh token has been revoked", exception.getMessage());
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testConcurrentRotationLosesRace() {
+        // Arrange - another request rotated the token between the read and the update
+        RefreshToken current = storedToken("raw-token", null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("raw-token")))
+                .thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(eq(10L), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any());
+    }
+
+    @Test
+    void testExpiredTokenRejected() {
+        // Arrange
+        RefreshToken current = storedToken("raw-token", null, LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("raw-token")))
+                .thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(eq(10L), any())).thenReturn(1);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> refreshTokenService.rotate("raw-token"));
+        assertEquals("Refresh token has expired", exception.getMessage());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testSecurityVersionBumpInvalidatesToken() {
+        // Arrange
+        RefreshToken current = storedToken("raw-token", null, LocalDateTime.now().plusDays(1));
+        testUser.setSecurityVersion(1);
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("raw-token")))
+                .thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(eq(10L), any())).thenReturn(1);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any());
+    }
+
+    @Test
+    void testUnknownTokenRejected() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> refreshTokenService.rotate("unknown"));
+        assertEquals("Invalid refresh token", exception.getMessage());
+    }
+
+    private RefreshToken storedToken(String rawToken, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setId(10L);
+        token.setTokenHash(RefreshTokenService.hash(rawToken));
+        token.setFamilyId("family-1");
+        token.setUser(testUser);
+        token.setSecurityVersion(0);
+        token.setRevokedAt(revokedAt);
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+}
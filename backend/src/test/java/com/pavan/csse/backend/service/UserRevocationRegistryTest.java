@@ -0,0 +1,151 @@
+package com.pavan.csse.backend.service;
+
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.model.UserRole;
+import com.pavan.csse.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserRevocationRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserRevocationRegistry revocationRegistry;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setRole(UserRole.DOCTOR);
+        testUser.setIsActive(true);
+        testUser.setSecurityVersion(0);
+    }
+
+    @Test
+    void testUnchangedUserIsNotRevoked() {
+        // Act & Assert
+        assertFalse(revocationRegistry.isRevoked(1L, "DOCTOR", 0));
+        assertEquals(0, revocationRegistry.size());
+    }
+
+    @Test
+    void testDeactivatedUserIsRevoked() {
+        // Arrange
+        testUser.setIsActive(false);
+
+        // Act
+        revocationRegistry.onUserChanged(event(UserChangedEvent.ChangeType.UPDATED));
+
+        // Assert
+        assertTrue(revocationRegistry.isRevoked(1L, "DOCTOR", 0));
+    }
+
+    @Test
+    void testRoleChangeRevokesTokensWithOldRole() {
+        // Arrange
+        testUser.setRole(UserRole.STAFF);
+
+        // Act
+        revocationRegistry.onUserChanged(event(UserChangedEvent.ChangeType.UPDATED));
+
+        // Assert
+        assertTrue(revocationRegistry.isRevoked(1L, "DOCTOR", 0));
+        assertFalse(revocationRegistry.isRevoked(1L, "STAFF", 0));
+    }
+
+    @Test
+    void testUserLeftWithoutRoleRevokesTokensWithARole() {
+        // Arrange
+        testUser.setRole(null);
+
+        // Act
+        revocationRegistry.onUserChanged(event(UserChangedEvent.ChangeType.UPDATED));
+
+        // Assert
+        assertTrue(revocationRegistry.isRevoked(1L, "DOCTOR", 0));
+        assertFalse(revocationRegistry.isRevoked(1L, null, 0));
+    }
+
+    @Test
+    void testSecurityVersionBumpRevokesOlderTokens() {
+        // Arrange
+        testUser.setSecurityVersion(3);
+
+        // Act
+        revocationRegistry.onUserChanged(event(UserChangedEvent.ChangeType.UPDATED));
+
+        // Assert
+        assertTrue(revocationRegistry.isRevoked(1L, "DOCTOR", 2));
+        assertFalse(revocationRegistry.isRevoked(1L, "DOCTOR", 3));
+    }
+
+    @Test
+    void testRemovedUserIsRevoked() {
+        // Act
+        revocationRegistry.onUserChanged(event(UserChangedEvent.ChangeType.REMOVED));
+
+        // Assert
+        assertTrue(revocationRegistry.isRevoked(1L, "DOCTOR", 0));
+    }
+
+    @Test
+    void testInactiveUsersLoadedAtStartup() {
+        // Arrange
+        testUser.setIsActive(false);
+        when(userRepository.findByIsActiveFalse()).thenReturn(List.of(testUser));
+
+        // Act
+        revocationRegistry.loadInactiveUsers();
+
+        // Assert
+        assertTrue(revocationRegistry.isRevoked(1L, "DOCTOR", 0));
+        assertEquals(1, revocationRegistry.size());
+    }
+
+    @Test
+    void testNewUserIsNotTracked() {
+        // Act
+        revocationRegistry.onUserChanged(event(UserChangedEvent.ChangeType.CREATED));
+
+        // Assert
+        assertEquals(0, revocationRegistry.size());
+    }
+
+    @Test
+    void testEntriesPrunedAfterAccessTokenLifetime() {
+        // Arrange
+        ReflectionTestUtils.setField(revocationRegistry, "accessTokenTtl", 900000L);
+        testUser.setIsActive(false);
+        revocationRegistry.onUserChanged(event(UserChangedEvent.ChangeType.UPDATED));
+        long now = System.currentTimeMillis();
+
+        // Act & Assert - still inside the access token window
+        assertEquals(0, revocationRegistry.pruneExpired(now + 60000L));
+        assertTrue(revocationRegistry.isRevoked(1L, "DOCTOR", 0));
+
+        // Act & Assert - every token issued before the change has expired
+        assertEquals(1, revocationRegistry.pruneExpired(now + 900000L + 1000L));
+        assertEquals(0, revocationRegistry.size());
+    }
+
+    private UserChangedEvent event(UserChangedEvent.ChangeType changeType) {
+        return new UserChangedEvent(changeType, testUser.getId(), testUser.getUsername(), testUser.getRole(),
+                testUser.getIsActive(), testUser.getSecurityVersion());
+    }
+}
@@ -0,0 +1,112 @@
+package com.pavan.csse.backend.support;
+
+import com.pavan.csse.backend.model.Invoice;
+import com.pavan.csse.backend.model.InvoiceStatus;
+import com.pavan.csse.backend.model.Patient;
+import com.pavan.csse.backend.repository.AgingRollupRepository;
+import com.pavan.csse.backend.repository.ClaimBatchRepository;
+import com.pavan.csse.backend.repository.IdempotencyKeyRepository;
+import com.pavan.csse.backend.repository.InvoiceRepository;
+import com.pavan.csse.backend.repository.OutboxEventRepository;
+import com.pavan.csse.backend.repository.PatientRepository;
+import com.pavan.csse.backend.repository.PaymentAllocationRepository;
+import com.pavan.csse.backend.repository.PaymentRepository;
+import com.pavan.csse.backend.repository.RevenueRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Patients and invoices for the billing integration tests, and the cleanup that removes
+ * everything billing writes. It lives on the test classpath only, where the application's
+ * component scan picks it up, so tests can autowire it without changing their context.
+ */
+@Component
+public class BillingTestData {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentAllocationRepository paymentAllocationRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ClaimBatchRepository claimBatchRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private AgingRollupRepository agingRollupRepository;
+
+    public Patient patient(String firstName, String lastName) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName(lastName);
+        patient.setEmail((firstName + "." + lastName).toLowerCase(Locale.ROOT) + "@example.com");
+        return patientRepository.save(patient);
+    }
+
+    public Invoice invoice(String patientName, String amount) {
+        return invoiceRepository.save(newInvoice(patientName, amount));
+    }
+
+    public Invoice invoice(String patientName, String amount, LocalDate dueDate) {
+        Invoice invoice = newInvoice(patientName, amount);
+        invoice.setDueDate(dueDate);
+        return invoiceRepository.save(invoice);
+    }
+
+    public Invoice invoice(String patientName, String amount, InvoiceStatus status) {
+        Invoice invoice = newInvoice(patientName, amount);
+        invoice.setStatus(status);
+        return invoiceRepository.save(invoice);
+    }
+
+    /** An invoice billed to the patient, under the patient's full name. */
+    public Invoice invoice(Patient patient, String amount) {
+        return invoice(patient, amount, null);
+    }
+
+    public Invoice invoice(Patient patient, String amount, LocalDate dueDate) {
+        Invoice invoice = newInvoice(patient.getFirstName() + " " + patient.getLastName(), amount);
+        invoice.setPatient(patient);
+        invoice.setDueDate(dueDate);
+        return invoiceRepository.save(invoice);
+    }
+
+    /** Deletes everything the billing tests write, children before the rows they reference. */
+    public void deleteAll() {
+        idempotencyKeyRepository.deleteAll();
+        paymentAllocationRepository.deleteAll();
+        paymentRepository.deleteAll();
+        invoiceRepository.deleteAll();
+        claimBatchRepository.deleteAll();
+        patientRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        revenueRollupRepository.deleteAll();
+        agingRollupRepository.deleteAll();
+    }
+
+    private static Invoice newInvoice(String patientName, String amount) {
+        Invoice invoice = new Invoice();
+        invoice.setPatientName(patientName);
+        invoice.setAmount(new BigDecimal(amount));
+        return invoice;
+    }
+}
@@ -0,0 +1,70 @@
+package com.pavan.csse.backend.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hibernate statement inspector that records every SQL statement so tests can count
+ * queries against a table. Enable it for a test with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pavan.csse.backend.support.SqlStatementCounter}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final Pattern SELECT_FROM = Pattern.compile("^\\s*select\\b.*?\\bfrom\\s+(\\w+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    /**
+     * Number of SELECT statements whose driving table is the given table.
+     */
+    public static int selectsFrom(String table) {
+        return selectsFrom(table, null);
+    }
+
+    /**
+     * Number of SELECT statements whose driving table is the given table and that
+     * filter on the given column (e.g. {@code "username"}).
+     */
+    public static int selectsFrom(String table, String whereColumn) {
+        Pattern where = whereColumn != null
+                ? Pattern.compile("\\bwhere\\b.*\\b\\w+\\." + whereColumn + "\\s*=", Pattern.CASE_INSENSITIVE | Pattern.DOTALL)
+                : null;
+        int count = 0;
+        for (String sql : STATEMENTS) {
+            Matcher matcher = SELECT_FROM.matcher(sql);
+            if (matcher.find() && matcher.group(1).equalsIgnoreCase(table)
+                    && (where == null || where.matcher(sql).find())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of SELECT statements of any kind.
+     */
+    public static int selects() {
+        int count = 0;
+        for (String sql : STATEMENTS) {
+            if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+}
@@ -0,0 +1,38 @@
+package com.pavan.csse.backend.support;
+
+import com.pavan.csse.backend.config.JwtAuthenticationEntryPoint;
+import com.pavan.csse.backend.config.SecurityConfig;
+import com.pavan.csse.backend.service.CustomUserDetailsService;
+import com.pavan.csse.backend.service.UserRevocationRegistry;
+import com.pavan.csse.backend.util.JwtClaimsCache;
+import com.pavan.csse.backend.util.JwtUtil;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * The application's security rules for {@code @WebMvcTest} slices, which load the
+ * security filters but not their collaborators. Slice tests authenticate with
+ * {@code @WithMockUser}, so the token and user beans are mocks. Add it to a slice with
+ * {@code @Import(WebMvcSecurityTestConfig.class)}.
+ */
+@TestConfiguration
+@Import({SecurityConfig.class, JwtAuthenticationEntryPoint.class})
+public class WebMvcSecurityTestConfig {
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private JwtClaimsCache jwtClaimsCache;
+
+    @MockBean
+    private UserRevocationRegistry revocationRegistry;
+
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+}
@@ -0,0 +1,53 @@
+package com.pavan.csse.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void testReadsQuotedFieldsAcrossLines() throws IOException {
+        // Arrange
+        CsvReader reader = reader("\uFEFFname,amount\r\n\"Doe, \"\"Jo\"\"\",10.00\r\n\n\"Multi\nline\",,\r\n");
+
+        // Act & Assert
+        assertEquals(List.of("name", "amount"), reader.readRecord());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("Doe, \"Jo\"", "10.00"), reader.readRecord());
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(List.of("Multi\nline", "", ""), reader.readRecord());
+        assertEquals(4, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void testLastRecordWithoutLineEnd() throws IOException {
+        CsvReader reader = reader("a,b\nc,d");
+
+        assertEquals(List.of("a", "b"), reader.readRecord());
+        assertEquals(List.of("c", "d"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void testRejectsMalformedRecords() throws IOException {
+        CsvReader unterminated = reader("a,b\n\"open,1\n");
+        unterminated.readRecord();
+        assertThrows(IllegalArgumentException.class, unterminated::readRecord);
+        assertEquals(2, unterminated.getRecordLine());
+
+        assertThrows(IllegalArgumentException.class, () -> reader("\"a\"b,c\n").readRecord());
+        assertThrows(IllegalArgumentException.class, () -> reader("a\"b,c\n").readRecord());
+        assertThrows(IllegalArgumentException.class, () -> reader("x".repeat(65) + "\n").readRecord());
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), 64);
+    }
+}
@@ -0,0 +1,129 @@
+package com.pavan.csse.backend.util;
+
+import com.pavan.csse.backend.model.User;
+import com.pavan.csse.backend.model.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtClaimsCacheTest {
+
+    private JwtUtil jwtUtil;
+    private JwtClaimsCache claimsCache;
+    private User testUser;
+    private Instant now;
+    private String testSecret = "myTestSecretKey123456789012345678901234567890";
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", testSecret);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+
+        claimsCache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(claimsCache, "jwtUtil", jwtUtil);
+        now = Instant.now();
+        ReflectionTestUtils.setField(claimsCache, "clock", Clock.fixed(now, ZoneOffset.UTC));
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setRole(UserRole.DOCTOR);
+        testUser.setIsActive(true);
+    }
+
+    @Test
+    void testParsesTokenOnceAndServesRepeatsFromCache() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUser);
+
+        // Act
+        Claims first = claimsCache.getClaims(token);
+        Claims second = claimsCache.getClaims(token);
+        Claims third = claimsCache.getClaims(token);
+
+        // Assert
+        assertEquals("testuser", first.getSubject());
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(1, claimsCache.getMissCount());
+        assertEquals(2, claimsCache.getHitCount());
+        assertEquals(1, claimsCache.size());
+    }
+
+    @Test
+    void testInvalidTokenIsRejectedAndNotCached() {
+        // Act & Assert
+        assertThrows(JwtException.class, () -> claimsCache.getClaims("invalid.token.here"));
+        assertEquals(0, claimsCache.size());
+    }
+
+    @Test
+    void testTamperedTokenIsNotServedFromCache() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUser);
+        claimsCache.getClaims(token);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> claimsCache.getClaims(tampered));
+    }
+
+    @Test
+    void testCachedEntryIsEvictedAtExpiration() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 2000L);
+        String token = jwtUtil.generateToken(testUser);
+        claimsCache.getClaims(token);
+        assertEquals(1, claimsCache.size());
+
+        // Move past the token's expiry (exp has second precision)
+        ReflectionTestUtils.setField(claimsCache, "clock", Clock.fixed(now.plusSeconds(3), ZoneOffset.UTC));
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> claimsCache.getClaims(token));
+        claimsCache.evictExpired();
+        assertEquals(0, claimsCache.size());
+    }
+
+    @Test
+    void testCachedClaimsAreReadOnly() {
+        // Arrange
+        Claims claims = claimsCache.getClaims(jwtUtil.generateToken(testUser));
+
+        // Act & Assert
+        assertThrows(UnsupportedOperationException.class, () -> claims.put(JwtUtil.CLAIM_ROLE, "ADMIN"));
+        assertThrows(UnsupportedOperationException.class, () -> claims.setSubject("admin"));
+        assertThrows(UnsupportedOperationException.class, () -> claims.remove(JwtUtil.CLAIM_ROLE));
+        assertEquals("DOCTOR", claims.get(JwtUtil.CLAIM_ROLE, String.class));
+        assertEquals(1L, claims.get(JwtUtil.CLAIM_USER_ID, Number.class).longValue());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        // Arrange
+        ReflectionTestUtils.setField(claimsCache, "maxSize", 2);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setRole(UserRole.STAFF);
+            claimsCache.getClaims(jwtUtil.generateToken(user));
+        }
+
+        // Assert
+        claimsCache.evictExpired();
+        assertEquals(2, claimsCache.size());
+        assertEquals(5, claimsCache.getMissCount());
+    }
+}
@@ -4,6 +4,7 @@ import com.pavan.csse.backend.model.User;
 import com.pavan.csse.backend.model.UserRole;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -217,4 +218,83 @@ class JwtUtilTest {
                 .parseClaimsJws(token);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTokenCarriesActiveKeyId() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUser);
+        Key key = Keys.hmacShaKeyFor(testSecret.getBytes());
+
+        // Act
+        String kid = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getHeader()
+                .getKeyId();
+
+        // Assert
+        assertEquals("primary", kid);
+    }
+
+    @Test
+    void testTokenSignedWithRotatedKeyIsStillAccepted() {
+        // Arrange - token issued under the old key
+        String token = jwtUtil.generateToken(testUser);
+
+        // Rotate: new active key, old key kept for verification
+        JwtUtil rotatedJwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(rotatedJwtUtil, "secret", "rotatedSecretKey123456789012345678901234567890");
+        ReflectionTestUtils.setField(rotatedJwtUtil, "expiration", testExpiration);
+        ReflectionTestUtils.setField(rotatedJwtUtil, "keyId", "k2");
+        ReflectionTestUtils.setField(rotatedJwtUtil, "previousKeys", "primary:" + testSecret);
+        rotatedJwtUtil.init();
+
+        // Act & Assert
+        assertTrue(rotatedJwtUtil.validateToken(token, testUser));
+        assertTrue(rotatedJwtUtil.validateToken(rotatedJwtUtil.generateToken(testUser), testUser));
+        assertFalse(jwtUtil.validateToken(rotatedJwtUtil.generateToken(testUser)));
+    }
+
+    @Test
+    void testTokenWithUnknownKeyIdRejected() {
+        // Arrange - same secret, but a key id this instance does not know
+        JwtUtil otherJwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(otherJwtUtil, "secret", testSecret);
+        ReflectionTestUtils.setField(otherJwtUtil, "expiration", testExpiration);
+        ReflectionTestUtils.setField(otherJwtUtil, "keyId", "retired");
+        String token = otherJwtUtil.generateToken(testUser);
+
+        // Act & Assert
+        assertFalse(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    void testTokenWithoutKeyIdVerifiedWithActiveKey() {
+        // Arrange - token issued before key ids were added
+        Key key = Keys.hmacShaKeyFor(testSecret.getBytes());
+        String token = Jwts.builder()
+                .setSubject(testUser.getUsername())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + testExpiration))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        // Act & Assert
+        assertTrue(jwtUtil.validateToken(token, testUser));
+    }
+
+    @Test
+    void testTokenContainsUserIdRoleAndSecurityVersion() {
+        // Arrange
+        testUser.setSecurityVersion(2);
+
+        // Act
+        Claims claims = jwtUtil.extractAllClaims(jwtUtil.generateToken(testUser));
+
+        // Assert
+        assertEquals(1, claims.get(JwtUtil.CLAIM_USER_ID, Number.class).intValue());
+        assertEquals("DOCTOR", claims.get(JwtUtil.CLAIM_ROLE, String.class));
+        assertEquals(2, claims.get(JwtUtil.CLAIM_SECURITY_VERSION, Number.class).intValue());
+    }
+}
@@ -0,0 +1,64 @@
+package com.pavan.csse.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimplePdfWriterTest {
+
+    @Test
+    void testCrossReferenceOffsetsPointAtObjects() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimplePdfWriter pdf = new SimplePdfWriter(out);
+
+        // Act: two pages
+        pdf.beginPage();
+        pdf.text(56, 700, 12, true, "Page (one)");
+        pdf.endPage();
+        pdf.beginPage();
+        pdf.text(56, 700, 12, false, "Page two \\ done");
+        pdf.finish();
+
+        // Assert
+        String document = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(document.startsWith("%PDF-1.4"));
+        assertTrue(document.endsWith("%%EOF\n"));
+        assertTrue(document.contains("/Count 2"));
+        assertTrue(document.contains("(Page \\(one\\)) Tj"));
+
+        Matcher startxref = Pattern.compile("startxref\n(\\d+)\n").matcher(document);
+        assertTrue(startxref.find());
+        int xref = Integer.parseInt(startxref.group(1));
+        assertTrue(document.startsWith("xref\n", xref));
+
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n \n").matcher(document.substring(xref));
+        int object = 1;
+        while (entries.find()) {
+            int offset = Integer.parseInt(entries.group(1));
+            assertTrue(document.startsWith(object + " 0 obj\n", offset), "object " + object);
+            object++;
+        }
+        // catalog, page tree, two fonts, and a content stream plus page object per page
+        assertEquals(9, object);
+    }
+
+    @Test
+    void testSameCallsProduceSameBytes() throws Exception {
+        assertArrayEquals(render("Receipt #1"), render("Receipt #1"));
+    }
+
+    private byte[] render(String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SimplePdfWriter pdf = new SimplePdfWriter(out);
+        pdf.beginPage();
+        pdf.text(56, 700, 12, false, text);
+        pdf.finish();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,185 @@
+package com.pavan.csse.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void testBurstUpToCapacityThenReject() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(3, Duration.ofSeconds(3), 100);
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire("ip:1"));
+        assertEquals(0, limiter.tryAcquire("ip:1"));
+        assertEquals(0, limiter.tryAcquire("ip:1"));
+        long wait = limiter.tryAcquire("ip:1");
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+
+        // Other keys have their own bucket
+        assertEquals(0, limiter.tryAcquire("ip:2"));
+    }
+
+    @Test
+    void testTokensRefillOverTime() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(2, Duration.ofSeconds(2), 100);
+        limiter.tryAcquire("user:a");
+        limiter.tryAcquire("user:a");
+        assertTrue(limiter.tryAcquire("user:a") > 0);
+
+        // Act
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Assert - one interval refills exactly one token
+        assertEquals(0, limiter.tryAcquire("user:a"));
+        assertTrue(limiter.tryAcquire("user:a") > 0);
+    }
+
+    @Test
+    void testIdleBucketsEvicted() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(5, Duration.ofSeconds(5), 100);
+        limiter.tryAcquire("ip:1");
+        limiter.tryAcquire("ip:2");
+
+        // Act & Assert - still refilling, nothing evicted
+        assertEquals(0, limiter.evictIdle());
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertEquals(2, limiter.evictIdle());
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void testNewKeyReplacesAFullBucketWhenFull() {
+        // Arrange - ip:1 refills to full within the idle timeout, ip:2 stays throttled
+        TokenBucketRateLimiter limiter = limiter(2, Duration.ofHours(1), 2);
+        limiter.tryAcquire("ip:1");
+        limiter.tryAcquire("ip:2");
+        limiter.tryAcquire("ip:2");
+        clock.addAndGet(Duration.ofMinutes(30).plusSeconds(30).toNanos());
+
+        // Act & Assert - the new key is admitted in place of the full bucket
+        assertEquals(0, limiter.tryAcquire("ip:3"));
+        assertEquals(2, limiter.size());
+        assertEquals(0, limiter.tryAcquire("ip:2"));
+        assertTrue(limiter.tryAcquire("ip:2") > 0);
+    }
+
+    @Test
+    void testNewKeysAreNotLockedOutWhenEveryBucketIsThrottled() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(2, Duration.ofHours(1), 2);
+        limiter.tryAcquire("ip:1");
+        limiter.tryAcquire("ip:1");
+        limiter.tryAcquire("ip:2");
+
+        // Act & Assert - the map stays bounded, and ip:2, closest to full, makes room
+        assertEquals(0, limiter.tryAcquire("ip:3"));
+        assertEquals(0, limiter.tryAcquire("ip:4"));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void testConcurrentAcquireNeverExceedsCapacity() throws Exception {
+        // Arrange - no refill during the test, so exactly `capacity` requests may pass
+        int capacity = 500;
+        int threads = 32;
+        int attemptsPerThread = 200;
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(capacity, Duration.ofDays(1),
+                Duration.ofMinutes(10), 10000);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            // Act
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (limiter.tryAcquire("user:target") == 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int totalAllowed = 0;
+            for (Future<Integer> result : results) {
+                totalAllowed += result.get(30, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            assertEquals(capacity, totalAllowed);
+            assertEquals(1, limiter.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentDistinctKeysStayBounded() throws Exception {
+        // Arrange
+        int maxBuckets = 1000;
+        int threads = 16;
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofDays(1),
+                Duration.ofMinutes(10), maxBuckets);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            // Act - far more distinct keys than the limiter may hold
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * 10000;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10000; i++) {
+                        limiter.tryAcquire("ip:" + (offset + i));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+
+            // Assert - computeIfAbsent races may overshoot by at most one key per thread
+            assertTrue(limiter.size() <= maxBuckets + threads, "size was " + limiter.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidConfigurationRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenBucketRateLimiter(0, Duration.ofSeconds(1), Duration.ofMinutes(1), 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenBucketRateLimiter(1, Duration.ZERO, Duration.ofMinutes(1), 10));
+    }
+
+    private TokenBucketRateLimiter limiter(long capacity, Duration refillPeriod, int maxBuckets) {
+        return new TokenBucketRateLimiter(capacity, refillPeriod, Duration.ofMinutes(1), maxBuckets, clock::get);
+    }
+}
@@ -13,8 +13,9 @@ const LoginPage = () => {
     e.preventDefault();
     try {
       const response = await login({ username, password });
-      const { token, role } = response.data;
+      const { token, refreshToken, role } = response.data;
       localStorage.setItem('token', token);
+      localStorage.setItem('refreshToken', refreshToken);
       localStorage.setItem('role', role);
 
       if (role === 'DOCTOR') {
@@ -3,21 +3,37 @@ import { getPatientInvoices } from '../services/api';
 
 const PatientPayments = ({ patientId }) => {
   const [invoices, setInvoices] = useState([]);
+  const [summary, setSummary] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
 
-  useEffect(() => {
+  const load = (cursor) => {
     const token = localStorage.getItem('token');
     if (!token || !patientId) return;
-    getPatientInvoices(patientId, token)
-      .then(res => setInvoices(res.data))
+    getPatientInvoices(patientId, token, cursor)
+      .then(res => {
+        setSummary(res.data.summary);
+        setInvoices(prev => (cursor ? [...prev, ...res.data.items] : res.data.items));
+        setNextCursor(res.data.nextCursor);
+      })
       .catch(err => console.error(err));
+  };
+
+  useEffect(() => {
+    load(null);
+    // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [patientId]);
 
   return (
     <div>
       <h3>Outstanding Invoices</h3>
+      {summary && (
+        <div>
+          Outstanding: {summary.outstandingTotal} &middot; Overdue invoices: {summary.overdueCount}
+        </div>
+      )}
       <table>
         <thead>
-          <tr><th>Select</th><th>Invoice</th><th>Amount</th><th>Status</th></tr>
+          <tr><th>Select</th><th>Invoice</th><th>Amount</th><th>Paid</th><th>Due</th><th>Status</th></tr>
         </thead>
         <tbody>
           {invoices.map(inv => (
@@ -25,11 +41,14 @@ const PatientPayments = ({ patientId }) => {
               <td><input type="checkbox" value={inv.id} /></td>
               <td>{inv.id}</td>
               <td>{inv.amount}</td>
+              <td>{inv.amountPaid}</td>
+              <td>{inv.dueDate}</td>
               <td>{inv.status}</td>
             </tr>
           ))}
         </tbody>
       </table>
+      {nextCursor && <button onClick={() => load(nextCursor)}>Load more</button>}
     </div>
   );
 };
@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react';
-import { getReceipt } from '../services/api';
+import { downloadReceipt, getReceipt, streamPayments } from '../services/api';
 
 const PaymentSuccess = ({ paymentId }) => {
   const [payment, setPayment] = useState(null);
@@ -7,9 +7,29 @@ const PaymentSuccess = ({ paymentId }) => {
   useEffect(() => {
     const token = localStorage.getItem('token');
     if (!token || !paymentId) return;
-    getReceipt(paymentId, token).then(res => setPayment(res.data)).catch(err => console.error(err));
+    const loadReceipt = () =>
+      getReceipt(paymentId, token).then(res => setPayment(res.data)).catch(err => console.error(err));
+    loadReceipt();
+    // Insurance and card payments settle later; reload the receipt once the status changes
+    let status = null;
+    return streamPayments({ paymentId }, token, update => {
+      if (status !== null && update.status !== status) loadReceipt();
+      status = update.status;
+    });
   }, [paymentId]);
 
+  // Rendered on the server; opened from a blob because the request needs the auth header
+  const openReceipt = (format) => {
+    const token = localStorage.getItem('token');
+    downloadReceipt(paymentId, format, token)
+      .then(res => {
+        const url = URL.createObjectURL(res.data);
+        window.open(url, '_blank');
+        setTimeout(() => URL.revokeObjectURL(url), 60000);
+      })
+      .catch(err => console.error(err));
+  };
+
   if (!payment) return <div>Loading receipt...</div>;
 
   return (
@@ -18,7 +38,15 @@ const PaymentSuccess = ({ paymentId }) => {
       <div>Patient: {payment.patientName}</div>
       <div>Amount: {payment.amount}</div>
       <div>Status: {payment.status}</div>
-      <button onClick={() => window.print()}>Download Receipt (Print to PDF)</button>
+      {payment.lines && payment.lines.length > 0 && (
+        <ul>
+          {payment.lines.map(line => (
+            <li key={line.invoiceId}>Invoice #{line.invoiceId}: {line.amount}</li>
+          ))}
+        </ul>
+      )}
+      <button onClick={() => openReceipt('pdf')}>Download Receipt (PDF)</button>
+      <button onClick={() => openReceipt('html')}>View Receipt</button>
     </div>
   );
 };
@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react';
-import api, { getPaymentsDashboard } from '../services/api';
+import api, { getPaymentsDashboard, streamPayments } from '../services/api';
 
 const PaymentsDashboard = () => {
   const [data, setData] = useState(null);
@@ -10,6 +10,16 @@ const PaymentsDashboard = () => {
     getPaymentsDashboard(token)
       .then(res => setData(res.data))
       .catch(err => console.error(err));
+    // Status changes are pushed; new payments are added to the top of the list
+    return streamPayments({}, token, update => setData(current => {
+      if (!current) return current;
+      const recent = current.recent || [];
+      const payment = { id: update.paymentId, patientName: update.patientName, amount: update.amount, status: update.status };
+      const updated = recent.some(p => p.id === payment.id)
+        ? recent.map(p => (p.id === payment.id ? { ...p, ...payment } : p))
+        : [payment, ...recent].slice(0, recent.length || 1);
+      return { ...current, recent: updated };
+    }));
   }, []);
 
   return (
@@ -1,27 +1,49 @@
-import React, { useState } from 'react';
-import { processPayment } from '../services/api';
+import React, { useMemo, useState } from 'react';
+import { processPayment, streamPayments } from '../services/api';
 
 const ProcessPaymentStepper = ({ patientId, invoiceIds, onSuccess }) => {
   const [step, setStep] = useState(1);
   const [method, setMethod] = useState('CASH');
   const [amount, setAmount] = useState('');
   const [card, setCard] = useState({ number: '', exp: '', cvv: '' });
+  const [insurance, setInsurance] = useState({ insurer: '', policyNumber: '' });
 
   const token = localStorage.getItem('token');
 
+  // One key per distinct payment: retries and double clicks reuse it, edits get a new one
+  const idempotencyKey = useMemo(
+    () => crypto.randomUUID(),
+    [patientId, invoiceIds, method, amount, card, insurance]
+  );
+
+  // Card charges finish in the background; follow the payment until it leaves PROCESSING
+  const awaitResult = (result) => {
+    if (result.status !== 'PROCESSING') {
+      onSuccess(result);
+      return;
+    }
+    const close = streamPayments({ paymentId: result.paymentId }, token, update => {
+      if (update.status === 'PROCESSING') return;
+      close();
+      if (update.status === 'FAILED') {
+        alert(update.failureReason || 'Payment failed');
+        return;
+      }
+      onSuccess({ ...result, status: update.status });
+    });
+  };
+
   const submit = () => {
     const payload = {
       patientId,
       invoiceIds,
       method,
       amount: parseFloat(amount),
-      details: method === 'CARD' ? card : {}
+      details: method === 'CARD' ? card : method === 'INSURANCE' ? insurance : {}
     };
 
-    processPayment(payload, token)
-      .then(res => {
-        onSuccess(res.data);
-      })
+    processPayment(payload, token, idempotencyKey)
+      .then(res => awaitResult(res.data))
       .catch(err => alert(err.response?.data || err.message));
   };
 
@@ -50,6 +72,12 @@ const ProcessPaymentStepper = ({ patientId, invoiceIds, onSuccess }) => {
               <input placeholder="CVV" value={card.cvv} onChange={e => setCard({...card, cvv: e.target.value})} />
             </div>
           )}
+          {method === 'INSURANCE' && (
+            <div>
+              <input placeholder="Insurer" value={insurance.insurer} onChange={e => setInsurance({...insurance, insurer: e.target.value})} />
+              <input placeholder="Policy number" value={insurance.policyNumber} onChange={e => setInsurance({...insurance, policyNumber: e.target.value})} />
+            </div>
+          )}
           <button onClick={() => setStep(1)}>Back</button>
           <button onClick={submit}>Process Payment</button>
         </div>
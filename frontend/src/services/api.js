@@ -7,6 +7,64 @@ const api = axios.create({
   baseURL: API_URL,
 });
 
+let refreshing = null;
+
+/**
+ * Swaps the stored refresh token for a new access token and refresh token (the server
+ * rotates both). Concurrent callers share one request, since a refresh token is only good
+ * once. When the refresh is refused the stored session is cleared.
+ */
+export const refreshAccessToken = () => {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshing = (refreshToken
+      ? axios.post(`${API_URL}/auth/refresh`, { refreshToken })
+      : Promise.reject(new Error('No refresh token stored')))
+      .then(response => {
+        localStorage.setItem('token', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+      })
+      .catch(err => {
+        localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
+        localStorage.removeItem('role');
+        throw err;
+      })
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
+// Pages read the token once; send the one stored now, which a refresh may have replaced
+api.interceptors.request.use((config) => {
+  const stored = localStorage.getItem('token');
+  if (stored && config.headers.Authorization) {
+    config.headers.Authorization = `Bearer ${stored}`;
+  }
+  return config;
+});
+
+// Access tokens are short-lived: on a 401, refresh once and replay the request with the new token
+api.interceptors.response.use(undefined, async (error) => {
+  const config = error.config;
+  if (error.response?.status !== 401 || !config || config.retriedAfterRefresh
+      || config.url.startsWith('/auth/')) {
+    throw error;
+  }
+  let token;
+  try {
+    token = await refreshAccessToken();
+  } catch {
+    throw error;
+  }
+  config.retriedAfterRefresh = true;
+  config.headers.Authorization = `Bearer ${token}`;
+  return api(config);
+});
+
 export const login = (credentials) => {
   return api.post('/auth/login', credentials);
 };
@@ -27,16 +85,105 @@ export const getPaymentsDashboard = (token) => {
   return api.get('/payments/dashboard', { headers: { Authorization: `Bearer ${token}` } });
 };
 
-export const getPatientInvoices = (patientId, token) => {
-  return api.get(`/patients/${patientId}/invoices`, { headers: { Authorization: `Bearer ${token}` } });
+export const getPatientInvoices = (patientId, token, cursor) => {
+  return api.get(`/patients/${patientId}/invoices`, {
+    params: cursor ? { cursor } : {},
+    headers: { Authorization: `Bearer ${token}` }
+  });
 };
 
-export const processPayment = (payload, token) => {
-  return api.post('/payments/process', payload, { headers: { Authorization: `Bearer ${token}` } });
+// The idempotency key makes a retried submit return the original payment instead of a new one
+export const processPayment = (payload, token, idempotencyKey) => {
+  return api.post('/payments/process', payload, {
+    headers: { Authorization: `Bearer ${token}`, 'Idempotency-Key': idempotencyKey }
+  });
+};
+
+export const getPaymentStatus = (paymentId, token) => {
+  return api.get(`/payments/${paymentId}/status`, { headers: { Authorization: `Bearer ${token}` } });
+};
+
+/**
+ * Follows payment status changes over Server-Sent Events: one payment ({ paymentId }), one
+ * patient's payments ({ patientId }) or all payments. Uses fetch rather than EventSource so
+ * the token can go in the Authorization header. Reconnects with backoff until the returned
+ * function is called; a stream for one payment starts with its current status. The server
+ * ends a stream when its token expires or is revoked, so each reconnect uses the token
+ * currently stored; an expired one is refreshed first, and a refused refresh or a 403
+ * stops the stream.
+ */
+export const streamPayments = (filter, token, onUpdate) => {
+  const controller = new AbortController();
+  const params = new URLSearchParams();
+  if (filter.paymentId) params.set('paymentId', filter.paymentId);
+  if (filter.patientId) params.set('patientId', filter.patientId);
+  let retryDelay = 1000;
+
+  const connect = async () => {
+    try {
+      const currentToken = localStorage.getItem('token') || token;
+      const res = await fetch(`${API_URL}/payments/stream?${params}`, {
+        headers: { Authorization: `Bearer ${currentToken}`, Accept: 'text/event-stream, application/json' },
+        signal: controller.signal
+      });
+      if (res.status === 401) {
+        // The token expired between connects; reconnect at once with a refreshed one
+        try {
+          await refreshAccessToken();
+        } catch {
+          console.error('Payment stream rejected and the session could not be refreshed');
+          return;
+        }
+        if (!controller.signal.aborted) connect();
+        return;
+      }
+      if (res.status === 403) {
+        console.error(`Payment stream rejected with status ${res.status}`);
+        return;
+      }
+      if (!res.ok) throw new Error(`Payment stream failed with status ${res.status}`);
+      retryDelay = 1000;
+      const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffered = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffered += value;
+        // Events end with a blank line; comment lines (heartbeats) start with a colon
+        let end;
+        while ((end = buffered.indexOf('\n\n')) >= 0) {
+          const frame = buffered.slice(0, end);
+          buffered = buffered.slice(end + 2);
+          const data = frame.split('\n')
+            .filter(line => line.startsWith('data:'))
+            .map(line => line.slice(5))
+            .join('\n');
+          if (data) onUpdate(JSON.parse(data));
+        }
+      }
+    } catch (err) {
+      if (controller.signal.aborted) return;
+      console.error(err);
+    }
+    if (controller.signal.aborted) return;
+    setTimeout(connect, retryDelay);
+    retryDelay = Math.min(retryDelay * 2, 30000);
+  };
+
+  connect();
+  return () => controller.abort();
 };
 
 export const getReceipt = (paymentId, token) => {
   return api.get(`/payments/${paymentId}/receipt`, { headers: { Authorization: `Bearer ${token}` } });
 };
 
+export const downloadReceipt = (paymentId, format, token) => {
+  return api.get(`/payments/${paymentId}/receipt`, {
+    params: { format },
+    responseType: 'blob',
+    headers: { Authorization: `Bearer ${token}` }
+  });
+};
+
 export default api;